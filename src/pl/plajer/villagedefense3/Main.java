@@ -41,12 +41,16 @@ import pl.plajer.villagedefense3.arena.Arena;
 import pl.plajer.villagedefense3.arena.ArenaEvents;
 import pl.plajer.villagedefense3.arena.ArenaManager;
 import pl.plajer.villagedefense3.arena.ArenaRegistry;
+import pl.plajer.villagedefense3.arena.ArenaTickScheduler;
+import pl.plajer.villagedefense3.arena.ZombieSpawnScheduler;
 import pl.plajer.villagedefense3.commands.MainCommand;
 import pl.plajer.villagedefense3.creatures.BreakFenceListener;
 import pl.plajer.villagedefense3.creatures.EntityRegistry;
+import pl.plajer.villagedefense3.database.DatabaseExecutor;
 import pl.plajer.villagedefense3.database.FileStats;
-import pl.plajer.villagedefense3.database.MySQLConnectionUtils;
 import pl.plajer.villagedefense3.database.MySQLDatabase;
+import pl.plajer.villagedefense3.database.SQLiteStats;
+import pl.plajer.villagedefense3.database.StatsBackend;
 import pl.plajer.villagedefense3.events.ChatEvents;
 import pl.plajer.villagedefense3.events.CombustDayLightEvent;
 import pl.plajer.villagedefense3.events.Events;
@@ -65,6 +69,7 @@ import pl.plajer.villagedefense3.handlers.PermissionsManager;
 import pl.plajer.villagedefense3.handlers.PlaceholderManager;
 import pl.plajer.villagedefense3.handlers.PowerupManager;
 import pl.plajer.villagedefense3.handlers.RewardsHandler;
+import pl.plajer.villagedefense3.handlers.Settings;
 import pl.plajer.villagedefense3.handlers.ShopManager;
 import pl.plajer.villagedefense3.handlers.SignManager;
 import pl.plajer.villagedefense3.handlers.items.SpecialItem;
@@ -92,7 +97,8 @@ public class Main extends JavaPlugin {
   public static float ZOMBIE_SPEED;
   private static boolean debug;
   private MySQLDatabase database;
-  private FileStats fileStats;
+  private StatsBackend statsBackend;
+  private DatabaseExecutor databaseExecutor;
   private SignManager signManager;
   private InventoryManager inventoryManager;
   private BungeeManager bungeeManager;
@@ -108,7 +114,7 @@ public class Main extends JavaPlugin {
   private boolean chatFormat = true;
   private boolean bossbarEnabled;
   private boolean inventoryManagerEnabled = false;
-  private List<String> fileNames = Arrays.asList("arenas", "bungee", "rewards", "stats", "lobbyitems", "mysql", "kits");
+  private List<String> fileNames = Arrays.asList("arenas", "bungee", "rewards", "stats", "lobbyitems", "mysql", "kits", "waves");
   private Map<String, Integer> customPermissions = new HashMap<>();
   private HashMap<UUID, Boolean> spyChatEnabled = new HashMap<>();
   private String version;
@@ -232,6 +238,9 @@ public class Main extends JavaPlugin {
     setupFiles();
     LanguageMigrator.configUpdate();
     LanguageMigrator.languageFileUpdate();
+    Settings.reload(getConfig());
+    //language file could be changed by migrator
+    LanguageManager.reloadLanguage();
     initializeClasses();
 
     String currentVersion = "v" + Bukkit.getPluginManager().getPlugin("VillageDefense").getDescription().getVersion();
@@ -259,20 +268,29 @@ public class Main extends JavaPlugin {
       }
     }
 
-    STARTING_TIMER_TIME = getConfig().getInt("Starting-Waiting-Time", 60);
+    STARTING_TIMER_TIME = Settings.get().getStartingWaitingTime();
     MINI_ZOMBIE_SPEED = (float) getConfig().getDouble("Mini-Zombie-Speed", 2.0);
     ZOMBIE_SPEED = (float) getConfig().getDouble("Zombie-Speed", 1.3);
     databaseActivated = getConfig().getBoolean("DatabaseActivated", false);
     inventoryManagerEnabled = getConfig().getBoolean("InventoryManager", false);
     if (databaseActivated) {
-      database = new MySQLDatabase(this);
+      databaseExecutor = DatabaseExecutor.fromConfig();
+      database = new MySQLDatabase(this, databaseExecutor);
+      long flushInterval = Settings.get().getStatsFlushInterval() * 20L;
+      database.getStatsFlusher().runTaskTimer(this, flushInterval, flushInterval);
+      statsBackend = database;
+    } else if (Settings.get().getStatsStorage().equals("SQLITE")) {
+      databaseExecutor = DatabaseExecutor.fromConfig();
+      statsBackend = new SQLiteStats(this, databaseExecutor);
     } else {
-      fileStats = new FileStats(this);
+      statsBackend = new FileStats(this);
     }
     bossbarEnabled = getConfig().getBoolean("Bossbar-Enabled", true);
 
     BreakFenceListener listener = new BreakFenceListener();
     listener.runTaskTimer(this, 1L, 20L);
+    new ZombieSpawnScheduler().runTaskTimer(this, 1L, 1L);
+    new ArenaTickScheduler().runTaskTimer(this, 1L, 1L);
 
     KitRegistry.init();
 
@@ -292,12 +310,11 @@ public class Main extends JavaPlugin {
     for (Player p : Bukkit.getOnlinePlayers()) {
       UserManager.registerUser(p.getUniqueId());
     }
-    if (databaseActivated) {
-      for (Player p : Bukkit.getOnlinePlayers()) {
-        Bukkit.getScheduler().runTaskAsynchronously(this, () -> MySQLConnectionUtils.loadPlayerStats(p, this));
+    for (Player p : Bukkit.getOnlinePlayers()) {
+      if (bungeeEnabled) {
+        ArenaRegistry.getArenas().get(0).teleportToLobby(p);
       }
-    } else {
-      fileStats.loadStatsForPlayersOnline();
+      statsBackend.loadStats(p);
     }
     StatsStorage.plugin = this;
     PermissionsManager.init();
@@ -430,8 +447,24 @@ public class Main extends JavaPlugin {
     return spyChatEnabled;
   }
 
+  public StatsBackend getStatsBackend() {
+    return statsBackend;
+  }
+
+  /**
+   * @return file statistics storage or null if statistics are stored in database
+   * @deprecated use {@link #getStatsBackend()} which works with every statistics storage
+   */
+  @Deprecated
   public FileStats getFileStats() {
-    return fileStats;
+    return statsBackend instanceof FileStats ? (FileStats) statsBackend : null;
+  }
+
+  /**
+   * @return executor database work runs on or null if statistics are stored in file
+   */
+  public DatabaseExecutor getDatabaseExecutor() {
+    return databaseExecutor;
   }
 
   public boolean isDatabaseActivated() {
@@ -452,19 +485,14 @@ public class Main extends JavaPlugin {
       return;
     }
     debug("System disable", System.currentTimeMillis());
+    if (statsBackend != null) {
+      statsBackend.close();
+    }
     for (Player player : getServer().getOnlinePlayers()) {
-      User user = UserManager.getUser(player.getUniqueId());
-      for (String s : FileStats.STATISTICS.keySet()) {
-        if (isDatabaseActivated()) {
-          getMySQLDatabase().setStat(player.getUniqueId().toString(), s, user.getInt(s));
-        } else {
-          getFileStats().saveStat(player, s);
-        }
-      }
       UserManager.removeUser(player.getUniqueId());
     }
     for (Arena arena : ArenaRegistry.getArenas()) {
-      for (Player player : arena.getPlayers()) {
+      for (Player player : arena.getPlayerSet()) {
         if (bossbarEnabled) {
           arena.getGameBar().removePlayer(player);
         }
@@ -482,15 +510,16 @@ public class Main extends JavaPlugin {
       arena.clearVillagers();
       ArenaManager.stopGame(true, arena);
       arena.teleportAllToEndLocation();
+      arena.getBlockJournal().restoreAll();
+      if (arena.getInstanceWorld() != null) {
+        arena.getInstanceWorld().dispose();
+      }
     }
     if (getServer().getPluginManager().isPluginEnabled("HolographicDisplays")) {
       for (Hologram holo : HologramsAPI.getHolograms(this)) {
         holo.delete();
       }
     }
-    if (isDatabaseActivated()) {
-      getMySQLDatabase().closeDatabase();
-    }
   }
 
   public WorldEditPlugin getWorldEditPlugin() {
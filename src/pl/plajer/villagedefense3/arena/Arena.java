@@ -18,16 +18,20 @@
 
 package pl.plajer.villagedefense3.arena;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
 
 import javax.annotation.Nullable;
 
@@ -35,6 +39,7 @@ import org.bukkit.Bukkit;
 import org.bukkit.GameMode;
 import org.bukkit.Location;
 import org.bukkit.Material;
+import org.bukkit.World;
 import org.bukkit.attribute.Attribute;
 import org.bukkit.block.Block;
 import org.bukkit.boss.BarColor;
@@ -46,14 +51,14 @@ import org.bukkit.entity.Villager;
 import org.bukkit.entity.Wolf;
 import org.bukkit.entity.Zombie;
 import org.bukkit.potion.PotionEffect;
-import org.bukkit.scheduler.BukkitRunnable;
 
 import pl.plajer.villagedefense3.Main;
 import pl.plajer.villagedefense3.handlers.ChatManager;
 import pl.plajer.villagedefense3.handlers.ConfigurationManager;
 import pl.plajer.villagedefense3.handlers.PermissionsManager;
-import pl.plajer.villagedefense3.handlers.language.LanguageManager;
-import pl.plajer.villagedefense3.handlers.language.Locale;
+import pl.plajer.villagedefense3.handlers.Settings;
+import pl.plajer.villagedefense3.handlers.ShopManager;
+import pl.plajer.villagedefense3.handlers.TickProfiler;
 import pl.plajer.villagedefense3.kits.kitapi.KitRegistry;
 import pl.plajer.villagedefense3.user.User;
 import pl.plajer.villagedefense3.user.UserManager;
@@ -63,28 +68,46 @@ import pl.plajer.villagedefense3.villagedefenseapi.VillageGameStateChangeEvent;
 /**
  * Created by Tom on 12/08/2014.
  */
-public abstract class Arena extends BukkitRunnable {
+public abstract class Arena {
 
   protected final List<Location> zombieSpawns = new ArrayList<>();
-  private final List<Zombie> zombies = new ArrayList<>();
-  private final List<Wolf> wolfs = new ArrayList<>();
-  private final List<Villager> villagers = new ArrayList<>();
-  private final List<IronGolem> ironGolems = new ArrayList<>();
+  //insertion ordered for stable iteration, hash indexed for constant time removal on entity death
+  private final Set<Zombie> zombies = new LinkedHashSet<>();
+  private final Set<Wolf> wolfs = new LinkedHashSet<>();
+  private final Set<Villager> villagers = new LinkedHashSet<>();
+  private final Set<IronGolem> ironGolems = new LinkedHashSet<>();
   private final Main plugin;
   private final LinkedHashMap<Location, Byte> doorBlocks = new LinkedHashMap<>();
+  private DoorIndex doorIndex;
+  private final BlockJournal blockJournal = new BlockJournal();
+  private boolean restoringBlocks;
+  private ArenaRegion region;
+  private boolean regionConfigured;
+  private InstanceWorld instanceWorld;
   private final List<Location> villagerSpawnPoints = new ArrayList<>();
   private final Random random;
-  private final List<Zombie> glitchedZombies = new ArrayList<>();
-  private final Map<Zombie, Location> zombieCheckerLocations = new HashMap<>();
-  private final Set<UUID> players = new HashSet<>();
+  private final StuckZombieDetector stuckZombieDetector = new StuckZombieDetector(this);
+  private final StringBuilder scoreboardLineBuilder = new StringBuilder();
+  private final Deque<QueuedZombie> spawnQueue = new ArrayDeque<>();
+  private int spawnsPerTick = 1;
+  //plan of next wave, computed asynchronously while players wait between waves
+  private volatile WavePlan nextWavePlan;
+  private WavePlan wavePlan;
+  private int wavePlanPosition = 0;
+  private final Map<UUID, Player> players = new LinkedHashMap<>();
+  //read-only roster snapshots, replaced whenever player joins, leaves or changes fake dead state
+  private volatile Set<Player> playersView = Collections.emptySet();
+  private volatile List<Player> playersLeftView = Collections.emptyList();
+  private volatile Set<Player> fakeDeadPlayersView = Collections.emptySet();
   private int zombiesToSpawn;
   private boolean fighting = false;
   private int wave;
   private int barToggle = 0;
   private int rottenFleshAmount;
   private int rottenFleshLevel;
-  private int zombieChecker = 0;
-  private int spawnCounter = 0;
+  private int tickPhase = 0;
+  private int idleSeconds = 0;
+  private boolean hibernating = false;
   private int totalKilledZombies = 0;
   private int totalOrbsSpent = 0;
   private ArenaState arenaState;
@@ -159,22 +182,33 @@ public abstract class Arena extends BukkitRunnable {
     return doorBlocks;
   }
 
+  /**
+   * Arena tick, run once per second by {@link ArenaTickScheduler}.
+   */
   public void run() {
     //idle task
-    if (getPlayers().size() == 0 && getArenaState() == ArenaState.WAITING_FOR_PLAYERS) {
+    if (getPlayerSet().size() == 0 && getArenaState() == ArenaState.WAITING_FOR_PLAYERS) {
+      idleSeconds++;
+      int hibernationTime = Settings.get().getArenaHibernationTime();
+      if (hibernationTime > 0 && idleSeconds >= hibernationTime) {
+        hibernate();
+      }
       return;
     }
+    idleSeconds = 0;
+    long phaseStart = TickProfiler.start();
     updateScoreboard();
+    TickProfiler.stop(getID(), TickProfiler.Phase.SCOREBOARD, phaseStart);
     switch (getArenaState()) {
       case WAITING_FOR_PLAYERS:
         if (plugin.isBungeeActivated()) {
           plugin.getServer().setWhitelist(false);
         }
-        if (getPlayers().size() < getMinimumPlayers()) {
+        if (getPlayerSet().size() < getMinimumPlayers()) {
           if (getTimer() <= 0) {
             setTimer(15);
             String message = ChatManager.formatMessage(this, ChatManager.colorMessage("In-Game.Messages.Lobby-Messages.Waiting-For-Players"), getMinimumPlayers());
-            for (Player p : getPlayers()) {
+            for (Player p : getPlayerSet()) {
               p.sendMessage(ChatManager.PLUGIN_PREFIX + message);
             }
             return;
@@ -183,34 +217,39 @@ public abstract class Arena extends BukkitRunnable {
           if (plugin.isBossbarEnabled()) {
             gameBar.setTitle(ChatManager.colorMessage("Bossbar.Waiting-For-Players"));
           }
-          for (Player p : getPlayers()) {
+          for (Player p : getPlayerSet()) {
             p.sendMessage(ChatManager.PLUGIN_PREFIX + ChatManager.colorMessage("In-Game.Messages.Lobby-Messages.Enough-Players-To-Start"));
           }
           setArenaState(ArenaState.STARTING);
-          setTimer(Main.STARTING_TIMER_TIME);
+          setTimer(Settings.get().getStartingWaitingTime());
           this.showPlayers();
         }
         setTimer(getTimer() - 1);
         break;
       case STARTING:
         if (plugin.isBossbarEnabled()) {
+          phaseStart = TickProfiler.start();
           gameBar.setTitle(ChatManager.colorMessage("Bossbar.Starting-In").replace("%time%", String.valueOf(getTimer())));
-          gameBar.setProgress(getTimer() / plugin.getConfig().getDouble("Starting-Waiting-Time", 60));
+          gameBar.setProgress(getTimer() / (double) Settings.get().getStartingWaitingTime());
+          TickProfiler.stop(getID(), TickProfiler.Phase.BOSS_BAR, phaseStart);
         }
         if (getTimer() == 0) {
           VillageGameStartEvent villageGameStartEvent = new VillageGameStartEvent(this);
           Bukkit.getPluginManager().callEvent(villageGameStartEvent);
           setArenaState(ArenaState.IN_GAME);
+          if (instanceWorld != null) {
+            instanceWorld.markUsed();
+          }
           if (plugin.isBossbarEnabled()) {
             gameBar.setProgress(1.0);
           }
           setTimer(5);
           teleportAllToStartLocation();
-          for (Player player : getPlayers()) {
+          for (Player player : getPlayerSet()) {
             player.getInventory().clear();
             player.setGameMode(GameMode.SURVIVAL);
             User user = UserManager.getUser(player.getUniqueId());
-            user.setInt("orbs", plugin.getConfig().getInt("Orbs-Starting-Amount", 20));
+            user.setInt("orbs", Settings.get().getOrbsStartingAmount());
             ArenaUtils.hidePlayersOutsideTheGame(player, this);
             if (UserManager.getUser(player.getUniqueId()).getKit() != null) {
               UserManager.getUser(player.getUniqueId()).getKit().giveKitItems(player);
@@ -229,6 +268,7 @@ public abstract class Arena extends BukkitRunnable {
         break;
       case IN_GAME:
         if (plugin.isBossbarEnabled()) {
+          phaseStart = TickProfiler.start();
           if (barToggle > 5) {
             gameBar.setTitle(ChatManager.colorMessage("Bossbar.In-Game-Wave").replace("%wave%", String.valueOf(getWave())));
             barToggle++;
@@ -239,62 +279,23 @@ public abstract class Arena extends BukkitRunnable {
             gameBar.setTitle(ChatManager.colorMessage("Bossbar.In-Game-Info").replace("%wave%", String.valueOf(getWave())));
             barToggle++;
           }
+          TickProfiler.stop(getID(), TickProfiler.Phase.BOSS_BAR, phaseStart);
         }
         if (plugin.isBungeeActivated()) {
-          if (getMaximumPlayers() <= getPlayers().size()) {
+          if (getMaximumPlayers() <= getPlayerSet().size()) {
             plugin.getServer().setWhitelist(true);
           } else {
             plugin.getServer().setWhitelist(false);
           }
         }
-        zombieChecker++;
-        if (zombieChecker >= 60) {
-          List<Villager> remove = new ArrayList<>();
-          for (Villager villager : getVillagers()) {
-            if (villager.isDead()) {
-              remove.add(villager);
-            }
-          }
-          for (Villager villager : remove) {
-            removeVillager(villager);
-          }
-          remove.clear();
-          zombieChecker = 0;
-          List<Zombie> removeAfterLoop = new ArrayList<>();
-          for (Zombie zombie : getZombies()) {
-            if (zombie.isDead()) {
-              removeAfterLoop.add(zombie);
-              continue;
-            }
-            if (glitchedZombies.contains(zombie) && zombie.getLocation().distance(zombieCheckerLocations.get(zombie)) <= 1) {
-              removeAfterLoop.add(zombie);
-              zombieCheckerLocations.remove(zombie);
-              zombie.remove();
-            }
-            if (zombieCheckerLocations.get(zombie) == null) {
-              zombieCheckerLocations.put(zombie, zombie.getLocation());
-            } else {
-              Location location = zombieCheckerLocations.get(zombie);
-
-              if (zombie.getLocation().distance(location) <= 1) {
-                zombie.teleport(zombieSpawns.get(random.nextInt(zombieSpawns.size() - 1)));
-                zombieCheckerLocations.put(zombie, zombie.getLocation());
-                glitchedZombies.add(zombie);
-              }
-            }
-          }
-
-          for (Zombie zombie : removeAfterLoop) {
-            removeZombie(zombie);
-          }
-          removeAfterLoop.clear();
-
-        }
-        if (getVillagers().size() <= 0 || getPlayersLeft().size() <= 0) {
+        phaseStart = TickProfiler.start();
+        boolean gameLost = getVillagerSet().size() <= 0 || getPlayersLeft().size() <= 0;
+        TickProfiler.stop(getID(), TickProfiler.Phase.WIN_CHECK, phaseStart);
+        if (gameLost) {
           clearZombies();
           this.setArenaState(ArenaState.ENDING);
           ArenaManager.stopGame(false, this);
-          if (getVillagers().size() <= 0) {
+          if (getVillagerSet().size() <= 0) {
             showPlayers();
             this.setTimer(10);
           } else {
@@ -308,22 +309,28 @@ public abstract class Arena extends BukkitRunnable {
             ArenaManager.endWave(this);
           }
           if (zombiesToSpawn > 0) {
+            phaseStart = TickProfiler.start();
             spawnZombies();
+            //queued zombies are spawned evenly until next arena tick
+            spawnsPerTick = Math.max(1, (int) Math.ceil(spawnQueue.size() / 20.0));
+            TickProfiler.stop(getID(), TickProfiler.Phase.SPAWN, phaseStart);
             setTimer(500);
           } else {
             if (getTimer() == 0) {
+              phaseStart = TickProfiler.start();
               if (getZombiesLeft() <= 5) {
                 clearZombies();
                 zombiesToSpawn = 0;
-                for (Player p : getPlayers()) {
+                for (Player p : getPlayerSet()) {
                   p.sendMessage(ChatManager.PLUGIN_PREFIX + ChatManager.colorMessage("In-Game.Messages.Zombie-Got-Stuck-In-The-Map"));
                 }
               } else {
-                getZombies().clear();
-                for (int i = getZombiesLeft(); i > 0; i++) {
-                  spawnFastZombie(random);
-                }
+                //respawn stuck zombies through spawn queue
+                int stuckZombies = getZombieSet().size();
+                clearZombies();
+                zombiesToSpawn += stuckZombies;
               }
+              TickProfiler.stop(getID(), TickProfiler.Phase.ZOMBIE_CHECKER, phaseStart);
             }
           }
           if (zombiesToSpawn < 0) {
@@ -344,6 +351,7 @@ public abstract class Arena extends BukkitRunnable {
           plugin.getServer().setWhitelist(false);
         }
         if (getTimer() <= 0) {
+          phaseStart = TickProfiler.start();
           if (plugin.isBossbarEnabled()) {
             gameBar.setTitle(ChatManager.colorMessage("Bossbar.Game-Ended"));
           }
@@ -352,7 +360,7 @@ public abstract class Arena extends BukkitRunnable {
           clearGolems();
           clearWolfs();
 
-          for (Player player : getPlayers()) {
+          for (Player player : getPlayerSet()) {
             UserManager.getUser(player.getUniqueId()).removeScoreboard();
             player.setGameMode(GameMode.SURVIVAL);
             for (Player players : Bukkit.getOnlinePlayers()) {
@@ -385,12 +393,12 @@ public abstract class Arena extends BukkitRunnable {
           teleportAllToEndLocation();
 
           if (plugin.isInventoryManagerEnabled()) {
-            for (Player player : getPlayers()) {
+            for (Player player : getPlayerSet()) {
               plugin.getInventoryManager().loadInventory(player);
             }
           }
 
-          for (Player p : getPlayers()) {
+          for (Player p : getPlayerSet()) {
             p.sendMessage(ChatManager.PLUGIN_PREFIX + ChatManager.colorMessage("Commands.Teleported-To-The-Lobby"));
           }
 
@@ -400,25 +408,34 @@ public abstract class Arena extends BukkitRunnable {
             user.setFakeDead(false);
           }
           plugin.getRewardsHandler().performEndGameRewards(this);
-          players.clear();
+          clearPlayers();
           if (plugin.isBungeeActivated()) {
             if (ConfigurationManager.getConfig("bungee").getBoolean("Shutdown-When-Game-Ends")) {
               plugin.getServer().shutdown();
             }
           }
           setArenaState(ArenaState.RESTARTING);
+          TickProfiler.stop(getID(), TickProfiler.Phase.ENDING, phaseStart);
         }
         setTimer(getTimer() - 1);
         break;
       case RESTARTING:
+        //instanced arena restarts once fresh copy of template world is loaded
+        if (instanceWorld != null && (instanceWorld.isUsed() || !instanceWorld.isReady())) {
+          instanceWorld.prepare();
+          break;
+        }
         clearVillagers();
         this.restoreMap();
 
-        getPlayers().clear();
+        clearPlayers();
 
         setArenaState(ArenaState.WAITING_FOR_PLAYERS);
 
         wave = 1;
+        wavePlan = null;
+        nextWavePlan = null;
+        wavePlanPosition = 0;
         totalKilledZombies = 0;
         totalOrbsSpent = 0;
         if (plugin.isBungeeActivated()) {
@@ -432,69 +449,103 @@ public abstract class Arena extends BukkitRunnable {
     }
   }
 
+  /**
+   * Removes mobs that were removed without dying.
+   * Called by {@link ArenaTickScheduler} about every 60 seconds while in game.
+   */
+  void sweepMobs() {
+    //mobs are removed on death, this only catches entities removed without dying
+    List<Villager> remove = new ArrayList<>();
+    for (Villager villager : getVillagerSet()) {
+      if (!villager.isValid()) {
+        remove.add(villager);
+      }
+    }
+    for (Villager villager : remove) {
+      removeVillager(villager);
+    }
+    List<Zombie> removeAfterLoop = new ArrayList<>();
+    for (Zombie zombie : getZombieSet()) {
+      if (!zombie.isValid()) {
+        removeAfterLoop.add(zombie);
+      }
+    }
+
+    for (Zombie zombie : removeAfterLoop) {
+      removeZombie(zombie);
+    }
+    if (!remove.isEmpty() || !removeAfterLoop.isEmpty()) {
+      Main.debug("Arena " + getID() + " removed " + (remove.size() + removeAfterLoop.size()) + " untracked dead mobs", System.currentTimeMillis());
+    }
+  }
+
   private void updateScoreboard() {
-    if (getPlayers().size() == 0 || getArenaState() == ArenaState.RESTARTING) {
+    if (getPlayerSet().size() == 0 || getArenaState() == ArenaState.RESTARTING) {
       return;
     }
-    for (Player p : getPlayers()) {
+    ScoreboardTemplate template;
+    if (getArenaState() == ArenaState.IN_GAME) {
+      template = ScoreboardTemplate.get("Scoreboard.Content.Playing" + (fighting ? "" : "-Waiting"));
+    } else {
+      template = ScoreboardTemplate.get("Scoreboard.Content." + getArenaState().getFormattedName());
+    }
+    String title = ChatManager.colorMessage("Scoreboard.Title");
+    //arena placeholder values are computed once per tick, only orbs differ per player
+    int[] arenaValues = new int[ScoreboardTemplate.Placeholder.values().length];
+    arenaValues[ScoreboardTemplate.Placeholder.TIME.ordinal()] = getTimer();
+    arenaValues[ScoreboardTemplate.Placeholder.PLAYERS.ordinal()] = getPlayerSet().size();
+    arenaValues[ScoreboardTemplate.Placeholder.MIN_PLAYERS.ordinal()] = getMinimumPlayers();
+    arenaValues[ScoreboardTemplate.Placeholder.PLAYERS_LEFT.ordinal()] = getPlayersLeft().size();
+    arenaValues[ScoreboardTemplate.Placeholder.VILLAGERS.ordinal()] = getVillagerSet().size();
+    arenaValues[ScoreboardTemplate.Placeholder.ZOMBIES.ordinal()] = getZombiesLeft();
+    arenaValues[ScoreboardTemplate.Placeholder.ROTTEN_FLESH.ordinal()] = getRottenFlesh();
+    for (Player p : getPlayerSet()) {
       //temp only a temporary fix for Sitieno14
       if (p == null) {
         continue;
       }
       User user = UserManager.getUser(p.getUniqueId());
       if (getArenaState() == ArenaState.ENDING) {
-        user.removeScoreboard();
-        return;
-      }
-      ArenaBoard displayBoard = new ArenaBoard("VD3", "board", ChatManager.colorMessage("Scoreboard.Title"));
-      List<String> lines;
-      if (getArenaState() == ArenaState.IN_GAME) {
-        if (LanguageManager.getPluginLocale() == Locale.ENGLISH) {
-          lines = LanguageManager.getLanguageFile().getStringList("Scoreboard.Content.Playing" + (fighting ? "" : "-Waiting"));
-        } else {
-          lines = Arrays.asList(ChatManager.colorMessage("Scoreboard.Content.Playing" + (fighting ? "" : "-Waiting")).split(";"));
-        }
-      } else {
-        if (LanguageManager.getPluginLocale() == Locale.ENGLISH) {
-          lines = LanguageManager.getLanguageFile().getStringList("Scoreboard.Content." + getArenaState().getFormattedName());
-        } else {
-          lines = Arrays.asList(ChatManager.colorMessage("Scoreboard.Content." + getArenaState().getFormattedName()).split(";"));
+        if (user.hasArenaBoard()) {
+          user.removeScoreboard();
         }
+        continue;
       }
-      for (String line : lines) {
-        displayBoard.addRow(formatScoreboardLine(line, user));
+      ArenaBoard displayBoard = user.getArenaBoard();
+      displayBoard.setTitle(title);
+      int[] values = arenaValues.clone();
+      values[ScoreboardTemplate.Placeholder.ORBS.ordinal()] = user.getInt("orbs");
+      //lines are rendered again only when any of placeholder values changed
+      if (displayBoard.setInputs(template, values)) {
+        List<String> formattedLines = new ArrayList<>(template.size());
+        for (int i = 0; i < template.size(); i++) {
+          formattedLines.add(template.render(i, scoreboardLineBuilder, values));
+        }
+        displayBoard.setLines(formattedLines);
       }
-      displayBoard.finish();
       displayBoard.display(p);
     }
   }
 
-  private String formatScoreboardLine(String line, User user) {
-    String formattedLine = line;
-    formattedLine = formattedLine.replace("%TIME%", String.valueOf(getTimer()));
-    formattedLine = formattedLine.replace("%PLAYERS%", String.valueOf(getPlayers().size()));
-    formattedLine = formattedLine.replace("%MIN_PLAYERS%", String.valueOf(getMinimumPlayers()));
-    formattedLine = formattedLine.replace("%PLAYERS_LEFT%", String.valueOf(getPlayersLeft().size()));
-    formattedLine = formattedLine.replace("%VILLAGERS%", String.valueOf(getVillagers().size()));
-    formattedLine = formattedLine.replace("%ORBS%", String.valueOf(user.getInt("orbs")));
-    formattedLine = formattedLine.replace("%ZOMBIES%", String.valueOf(getZombiesLeft()));
-    formattedLine = formattedLine.replace("%ROTTEN_FLESH%", String.valueOf(getRottenFlesh()));
-    formattedLine = ChatManager.colorRawMessage(formattedLine);
-    return formattedLine;
-  }
-
   private void restoreMap() {
-    this.restoreDoors();
-    for (Zombie zombie : getZombies()) {
+    if (instanceWorld != null) {
+      //fresh world copy has nothing to restore
+      blockJournal.clear();
+    } else {
+      this.restoreDoors();
+      //changed blocks are restored gradually by ArenaTickScheduler
+      restoringBlocks = blockJournal.size() > 0;
+    }
+    for (Zombie zombie : getZombieSet()) {
       zombie.remove();
     }
-    for (IronGolem ironGolem : getIronGolems()) {
+    for (IronGolem ironGolem : getIronGolemSet()) {
       ironGolem.remove();
     }
-    for (Villager villager : getVillagers()) {
+    for (Villager villager : getVillagerSet()) {
       villager.remove();
     }
-    for (Wolf wolf : getWolfs()) {
+    for (Wolf wolf : getWolfSet()) {
       wolf.remove();
     }
     clearZombies();
@@ -506,7 +557,7 @@ public abstract class Arena extends BukkitRunnable {
   }
 
   private void spawnVillagers() {
-    if (getVillagers().size() > 10) {
+    if (getVillagerSet().size() > 10) {
       return;
     } else if (getVillagerSpawns() == null || getVillagerSpawns().size() <= 0) {
       Main.debug("No villager spawns for " + getID() + ", game won't start", System.currentTimeMillis());
@@ -514,7 +565,7 @@ public abstract class Arena extends BukkitRunnable {
       for (Location location : getVillagerSpawns()) {
         spawnVillager(location);
       }
-      if (getVillagers().size() != 0) {
+      if (getVillagerSet().size() != 0) {
         spawnVillagers();
       } else {
         Main.debug("Villager spawns can't be set up!", System.currentTimeMillis());
@@ -629,15 +680,23 @@ public abstract class Arena extends BukkitRunnable {
 
   /**
    * Get all players in arena.
+   * Returned set is read-only snapshot, it's safe to iterate it while players join or leave.
    *
    * @return set of players in arena
    */
+  public Set<Player> getPlayerSet() {
+    return playersView;
+  }
+
+  /**
+   * Get all players in arena.
+   *
+   * @return new set of players in arena
+   * @deprecated copies players on every call, use {@link #getPlayerSet()}
+   */
+  @Deprecated
   public HashSet<Player> getPlayers() {
-    HashSet<Player> list = new HashSet<>();
-    for (UUID uuid : players) {
-      list.add(Bukkit.getPlayer(uuid));
-    }
-    return list;
+    return new HashSet<>(playersView);
   }
 
   public void teleportToLobby(Player player) {
@@ -671,6 +730,7 @@ public abstract class Arena extends BukkitRunnable {
    */
   public void setLobbyLocation(Location loc) {
     gameLocations.put(GameLocation.LOBBY, loc);
+    invalidateRegion();
   }
 
   /**
@@ -689,6 +749,7 @@ public abstract class Arena extends BukkitRunnable {
    */
   public void setStartLocation(Location location) {
     gameLocations.put(GameLocation.START, location);
+    invalidateRegion();
   }
 
   public void teleportToStartLocation(Player player) {
@@ -700,7 +761,7 @@ public abstract class Arena extends BukkitRunnable {
   }
 
   private void teleportAllToStartLocation() {
-    for (Player player : getPlayers()) {
+    for (Player player : getPlayerSet()) {
       if (gameLocations.get(GameLocation.START) != null) {
         player.teleport(gameLocations.get(GameLocation.START));
       } else {
@@ -711,7 +772,7 @@ public abstract class Arena extends BukkitRunnable {
 
   public void teleportAllToEndLocation() {
     if (plugin.isBungeeActivated()) {
-      for (Player player : getPlayers()) {
+      for (Player player : getPlayerSet()) {
         plugin.getBungeeManager().connectToHub(player);
       }
       return;
@@ -722,7 +783,7 @@ public abstract class Arena extends BukkitRunnable {
       location = getLobbyLocation();
       System.out.print("EndLocation for arena " + getID() + " isn't intialized!");
     }
-    for (Player player : getPlayers()) {
+    for (Player player : getPlayerSet()) {
       player.teleport(location);
     }
   }
@@ -759,30 +820,206 @@ public abstract class Arena extends BukkitRunnable {
     gameLocations.put(GameLocation.END, endLoc);
   }
 
+  /**
+   * Get region arena is played in.
+   * If region isn't configured it's computed from lobby, start, spawn and door points
+   * expanded by Arena-Region-Margin blocks.
+   *
+   * @return arena region or null if start location isn't set
+   */
+  public ArenaRegion getRegion() {
+    if (region == null && getStartLocation() != null) {
+      List<Location> points = new ArrayList<>();
+      points.add(getLobbyLocation());
+      points.add(getStartLocation());
+      points.addAll(zombieSpawns);
+      points.addAll(villagerSpawnPoints);
+      points.addAll(doorBlocks.keySet());
+      region = ArenaRegion.of(getStartLocation().getWorld(), points, Settings.get().getArenaRegionMargin());
+    }
+    return region;
+  }
+
+  /**
+   * Set configured region of arena, null to compute region from arena points.
+   *
+   * @param region new region of arena
+   */
+  public void setRegion(ArenaRegion region) {
+    this.region = region;
+    this.regionConfigured = region != null;
+  }
+
+  boolean isRegionConfigured() {
+    return regionConfigured;
+  }
+
+  private void invalidateRegion() {
+    if (!regionConfigured) {
+      region = null;
+    }
+  }
+
+  int getTickPhase() {
+    return tickPhase;
+  }
+
+  void setTickPhase(int tickPhase) {
+    this.tickPhase = tickPhase;
+  }
+
   public void start() {
     Main.debug("Game instance started, arena " + this.getID(), System.currentTimeMillis());
-    this.runTaskTimer(plugin, 20L, 20L);
+    ArenaTickScheduler.schedule(this);
     this.setArenaState(ArenaState.RESTARTING);
+    keepChunksLoaded();
+    if (instanceWorld != null) {
+      instanceWorld.prepare();
+    }
+  }
+
+  void keepChunksLoaded() {
     for (Location location : villagerSpawnPoints) {
       plugin.getChunkManager().keepLoaded(location.getChunk());
     }
   }
 
+  void releaseChunks() {
+    for (Location location : villagerSpawnPoints) {
+      plugin.getChunkManager().release(location.getChunk());
+    }
+  }
+
+  /**
+   * Get template world copy arena is played in.
+   *
+   * @return instance world or null if arena is bound to fixed world
+   */
+  public InstanceWorld getInstanceWorld() {
+    return instanceWorld;
+  }
+
+  /**
+   * Set template world copies arena should be played in, must be set before arena is started.
+   *
+   * @param instanceWorld instance world of arena
+   */
+  public void setInstanceWorld(InstanceWorld instanceWorld) {
+    this.instanceWorld = instanceWorld;
+  }
+
   /**
-   * Get list of already spawned zombies.
+   * Moves in game points of arena from one world to another, points in other worlds stay untouched.
+   * Lobby and end locations always stay in their original worlds so players aren't sent into disposable copy.
+   *
+   * @param from world arena is bound to
+   * @param to   new world of arena
+   */
+  void bindWorld(World from, World to) {
+    rebind(gameLocations.get(GameLocation.START), from, to);
+    for (Location location : zombieSpawns) {
+      rebind(location, from, to);
+    }
+    for (Location location : villagerSpawnPoints) {
+      rebind(location, from, to);
+    }
+    //locations are map keys so map has to be rebuilt
+    Map<Location, Byte> doors = new LinkedHashMap<>(doorBlocks);
+    doorBlocks.clear();
+    for (Map.Entry<Location, Byte> entry : doors.entrySet()) {
+      rebind(entry.getKey(), from, to);
+      doorBlocks.put(entry.getKey(), entry.getValue());
+    }
+    doorIndex = null;
+    if (regionConfigured && region.getWorld() == from) {
+      region = region.inWorld(to);
+    }
+    invalidateRegion();
+    if (!hibernating) {
+      keepChunksLoaded();
+    }
+  }
+
+  private static void rebind(Location location, World from, World to) {
+    if (location != null && location.getWorld() == from) {
+      location.setWorld(to);
+    }
+  }
+
+  public boolean isHibernating() {
+    return hibernating;
+  }
+
+  /**
+   * Puts empty arena to sleep, arena stops ticking, releases its chunks,
+   * removes villagers and drops boss bar and shop inventory until it's woken up.
+   *
+   * @see #wakeUp()
+   */
+  void hibernate() {
+    if (hibernating) {
+      return;
+    }
+    Main.debug("Arena " + getID() + " hibernates after " + idleSeconds + " idle seconds", System.currentTimeMillis());
+    hibernating = true;
+    ArenaTickScheduler.unschedule(this);
+    clearVillagers();
+    releaseChunks();
+    if (gameBar != null) {
+      gameBar.removeAll();
+      gameBar = null;
+    }
+    ShopManager.unregisterShop(this);
+  }
+
+  /**
+   * Wakes up hibernating arena so it can be joined again, does nothing if arena is awake.
+   */
+  public void wakeUp() {
+    if (!hibernating) {
+      return;
+    }
+    Main.debug("Arena " + getID() + " woke up", System.currentTimeMillis());
+    hibernating = false;
+    idleSeconds = 0;
+    if (plugin.isBossbarEnabled()) {
+      gameBar = Bukkit.createBossBar(ChatManager.colorMessage("Bossbar.Main-Title"), BarColor.BLUE, BarStyle.SOLID);
+    }
+    keepChunksLoaded();
+    spawnVillagers();
+    ShopManager.loadShop(this);
+    ArenaTickScheduler.schedule(this);
+  }
+
+  /**
+   * Get set of already spawned zombies.
    * This will only return alive zombies not total zombies in current wave.
    *
-   * @return list of spawned zombies in arena
+   * @return set of spawned zombies in arena
    */
-  public List<Zombie> getZombies() {
+  public Set<Zombie> getZombieSet() {
     return zombies;
   }
 
+  /**
+   * Get already spawned zombies.
+   *
+   * @return new list of already spawned zombies
+   * @deprecated copies zombies on every call, use {@link #getZombieSet()}.
+   * Changes made to returned list (add, remove, clear) no longer reach the arena, use {@link #removeZombie(Zombie)} to remove zombie
+   */
+  @Deprecated
+  public List<Zombie> getZombies() {
+    return new ArrayList<>(zombies);
+  }
+
   public void removeZombie(Zombie zombie) {
     zombies.remove(zombie);
+    stuckZombieDetector.untrack(zombie);
+    ArenaEntityRegistry.unregister(zombie);
   }
 
-  private List<Location> getVillagerSpawns() {
+  List<Location> getVillagerSpawns() {
     return villagerSpawnPoints;
   }
 
@@ -792,26 +1029,40 @@ public abstract class Arena extends BukkitRunnable {
   public void clearGolems() {
     for (IronGolem ironGolem : ironGolems) {
       ironGolem.remove();
+      ArenaEntityRegistry.unregister(ironGolem);
     }
     this.ironGolems.clear();
   }
 
+  void removeIronGolem(IronGolem ironGolem) {
+    ironGolems.remove(ironGolem);
+    ArenaEntityRegistry.unregister(ironGolem);
+  }
+
   /**
    * Clear all wolves in arena.
    */
   public void clearWolfs() {
     for (Wolf wolf : wolfs) {
       wolf.remove();
+      ArenaEntityRegistry.unregister(wolf);
     }
     this.wolfs.clear();
   }
 
+  void removeWolf(Wolf wolf) {
+    wolfs.remove(wolf);
+    ArenaEntityRegistry.unregister(wolf);
+  }
+
   public void addVillagerSpawn(Location location) {
     this.villagerSpawnPoints.add(location);
+    invalidateRegion();
   }
 
   public void addZombieSpawn(Location location) {
     zombieSpawns.add(location);
+    invalidateRegion();
   }
 
   /**
@@ -820,113 +1071,68 @@ public abstract class Arena extends BukkitRunnable {
   public void clearZombies() {
     for (Zombie zombie : zombies) {
       zombie.remove();
+      ArenaEntityRegistry.unregister(zombie);
     }
     zombies.clear();
+    spawnQueue.clear();
+    stuckZombieDetector.clear();
   }
 
-  private int getZombiesLeft() {
-    return zombiesToSpawn + getZombies().size();
+  private boolean canQueueZombie() {
+    return zombiesToSpawn - spawnQueue.size() > 0;
   }
 
-  private void spawnZombies() {
-    Random random = new Random();
-    if (getZombies() == null || getZombies().size() <= 0) {
-      for (int i = 0; i <= wave; i++) {
-        if (zombiesToSpawn > 0) {
-          spawnFastZombie(random);
-        }
-      }
-    }
-    spawnCounter++;
-    if (spawnCounter == 20) {
-      spawnCounter = 0;
-    }
-    if (zombiesToSpawn < 5 && zombiesToSpawn > 0) {
-      spawnFastZombie(random);
-      return;
-    }
-    if (spawnCounter == 5) {
-      if (random.nextInt(3) != 2) {
-        for (int i = 0; i <= wave; i++) {
-          if (zombiesToSpawn > 0) {
-            if (wave > 7) {
-              if (random.nextInt(2) == 1) {
-                spawnSoftHardZombie(random);
-              }
-            } else if (wave > 14) {
-              if (random.nextInt(2) == 1) {
-                spawnHardZombie(random);
-              }
-            } else if (wave > 20) {
-              if (random.nextInt(3) == 1) {
-                spawnKnockbackResistantZombies(random);
-              }
-            } else if (wave > 23) {
-              if (random.nextInt(4) == 1) {
-                spawnVillagerSlayer(random);
-              }
-            } else {
-              spawnFastZombie(random);
-            }
-          }
-        }
-      } else {
-        for (int i = 0; i <= wave; i++) {
-          if (zombiesToSpawn > 0) {
-            spawnBabyZombie(random);
-          }
-        }
+  private void queueZombie(ZombieType type) {
+    spawnQueue.add(new QueuedZombie(type, System.currentTimeMillis()));
+  }
+
+  /**
+   * Spawns zombies waiting in spawn queue.
+   *
+   * @param limit maximum amount of zombies that can be spawned now
+   * @return amount of spawned zombies
+   */
+  int spawnQueuedZombies(int limit) {
+    int amount = Math.min(limit, spawnsPerTick);
+    int spawned = 0;
+    while (spawned < amount && !spawnQueue.isEmpty()) {
+      if (zombiesToSpawn <= 0) {
+        spawnQueue.clear();
+        break;
       }
+      QueuedZombie queued = spawnQueue.poll();
+      queued.type.spawn(this, random);
+      ZombieSpawnScheduler.recordSpawn(System.currentTimeMillis() - queued.queuedAt);
+      spawned++;
     }
-    if (spawnCounter == 15 && wave > 4) {
-      if (wave > 8) {
-        for (int i = 0; i < (wave - 7); i++) {
-          if (zombiesToSpawn > 0) {
-            spawnHardZombie(random);
-          }
-        }
-      } else {
-        for (int i = 0; i < (wave - 3); i++) {
-          if (zombiesToSpawn > 0) {
-            spawnSoftHardZombie(random);
-          }
-        }
-      }
+    return spawned;
+  }
 
-    }
+  int getSpawnQueueSize() {
+    return spawnQueue.size();
+  }
 
-    if (random.nextInt(8) == 0 && wave > 10) {
-      for (int i = 0; i < (wave - 8); i++) {
-        if (zombiesToSpawn > 0) {
-          spawnPlayerBuster(random);
-        }
-      }
-    }
-    if (random.nextInt(8) == 0 && wave > 7) {
-      for (int i = 0; i < (wave - 5); i++) {
-        if (zombiesToSpawn > 0) {
-          spawnHalfInvisibleZombie(random);
-        }
-      }
-    }
-    if (random.nextInt(8) == 0 && wave > 15) {
-      for (int i = 0; i < (wave - 13); i++) {
-        if (zombiesToSpawn > 0) {
-          spawnHalfInvisibleZombie(random);
-        }
-      }
-    }
-    if (random.nextInt(8) == 0 && wave > 23) {
-      if (zombiesToSpawn > 0) {
-        spawnHalfInvisibleZombie(random);
-      }
+  void clearSpawnQueue() {
+    spawnQueue.clear();
+  }
+
+  private int getZombiesLeft() {
+    return zombiesToSpawn + getZombieSet().size();
+  }
+
+  /**
+   * Queues next zombies of current wave plan, amount depends on plan spawn rate.
+   */
+  private void spawnZombies() {
+    if (wavePlan == null) {
+      setZombieAmount();
     }
-    if (random.nextInt(8) == 0 && getIronGolems().size() > 0 && wave >= 6) {
-      for (int i = 0; i < (wave - 4); i++) {
-        if (zombiesToSpawn > 0) {
-          spawnGolemBuster(random);
-        }
+    for (int i = 0; i < wavePlan.getZombiesPerSecond() && canQueueZombie(); i++) {
+      ZombieType type = wavePlan.getSpawn(wavePlanPosition++);
+      if (type == ZombieType.GOLEM_BUSTER && getIronGolemSet().isEmpty()) {
+        type = ZombieType.FAST;
       }
+      queueZombie(type);
     }
   }
 
@@ -955,26 +1161,105 @@ public abstract class Arena extends BukkitRunnable {
 
   public abstract void spawnGolem(Location location, Player player);
 
-  public abstract void spawnFastZombie(Random random);
+  /**
+   * Creates version specific zombie of given type at location and adds it to the world.
+   *
+   * @param type     type of zombie
+   * @param location spawn location
+   * @return spawned zombie
+   */
+  protected abstract Zombie createZombie(ZombieType type, Location location);
+
+  /**
+   * Spawns zombie of given type at random zombie spawn point
+   * and applies its template.
+   *
+   * @param type   type of zombie
+   * @param random random used to pick spawn point
+   */
+  public void spawnZombie(ZombieType type, Random random) {
+    Location location = zombieSpawns.get(random.nextInt(zombieSpawns.size()));
+    Zombie zombie = createZombie(type, location);
+    type.getTemplate().apply(zombie);
+    addZombie(zombie);
+    subtractZombiesToSpawn();
+  }
 
-  public abstract void spawnBabyZombie(Random random);
+  /**
+   * @deprecated use {@link #spawnZombie(ZombieType, Random)} with {@link ZombieType#FAST}
+   */
+  @Deprecated
+  public void spawnFastZombie(Random random) {
+    spawnZombie(ZombieType.FAST, random);
+  }
 
-  public abstract void spawnHardZombie(Random random);
+  /**
+   * @deprecated use {@link #spawnZombie(ZombieType, Random)} with {@link ZombieType#BABY}
+   */
+  @Deprecated
+  public void spawnBabyZombie(Random random) {
+    spawnZombie(ZombieType.BABY, random);
+  }
 
-  public abstract void spawnPlayerBuster(Random random);
+  /**
+   * @deprecated use {@link #spawnZombie(ZombieType, Random)} with {@link ZombieType#HARD}
+   */
+  @Deprecated
+  public void spawnHardZombie(Random random) {
+    spawnZombie(ZombieType.HARD, random);
+  }
 
-  public abstract void spawnGolemBuster(Random random);
+  /**
+   * @deprecated use {@link #spawnZombie(ZombieType, Random)} with {@link ZombieType#PLAYER_BUSTER}
+   */
+  @Deprecated
+  public void spawnPlayerBuster(Random random) {
+    spawnZombie(ZombieType.PLAYER_BUSTER, random);
+  }
 
-  public abstract void spawnSoftHardZombie(Random random);
+  /**
+   * @deprecated use {@link #spawnZombie(ZombieType, Random)} with {@link ZombieType#GOLEM_BUSTER}
+   */
+  @Deprecated
+  public void spawnGolemBuster(Random random) {
+    spawnZombie(ZombieType.GOLEM_BUSTER, random);
+  }
 
-  public abstract void spawnHalfInvisibleZombie(Random random);
+  /**
+   * @deprecated use {@link #spawnZombie(ZombieType, Random)} with {@link ZombieType#SOFT_HARD}
+   */
+  @Deprecated
+  public void spawnSoftHardZombie(Random random) {
+    spawnZombie(ZombieType.SOFT_HARD, random);
+  }
 
-  public abstract void spawnKnockbackResistantZombies(Random random);
+  /**
+   * @deprecated use {@link #spawnZombie(ZombieType, Random)} with {@link ZombieType#HALF_INVISIBLE}
+   */
+  @Deprecated
+  public void spawnHalfInvisibleZombie(Random random) {
+    spawnZombie(ZombieType.HALF_INVISIBLE, random);
+  }
 
-  public abstract void spawnVillagerSlayer(Random random);
+  /**
+   * @deprecated use {@link #spawnZombie(ZombieType, Random)} with {@link ZombieType#KNOCKBACK_RESISTANT}
+   */
+  @Deprecated
+  public void spawnKnockbackResistantZombies(Random random) {
+    spawnZombie(ZombieType.KNOCKBACK_RESISTANT, random);
+  }
+
+  /**
+   * @deprecated use {@link #spawnZombie(ZombieType, Random)} with {@link ZombieType#VILLAGER_SLAYER}
+   */
+  @Deprecated
+  public void spawnVillagerSlayer(Random random) {
+    spawnZombie(ZombieType.VILLAGER_SLAYER, random);
+  }
 
-  protected void addWolf(Wolf wolf) {
+  protected void addWolf(Wolf wolf, Player owner) {
     wolfs.add(wolf);
+    ArenaEntityRegistry.register(wolf, this, ArenaEntityType.WOLF, owner.getUniqueId());
   }
 
   /**
@@ -982,40 +1267,79 @@ public abstract class Arena extends BukkitRunnable {
    *
    * @return alive wolves in game
    */
-  public List<Wolf> getWolfs() {
+  public Set<Wolf> getWolfSet() {
     return wolfs;
   }
 
+  /**
+   * Get alive wolves.
+   *
+   * @return new list of alive wolves
+   * @deprecated copies wolves on every call, use {@link #getWolfSet()}.
+   * Changes made to returned list (add, remove, clear) no longer reach the arena
+   */
+  @Deprecated
+  public List<Wolf> getWolfs() {
+    return new ArrayList<>(wolfs);
+  }
+
   /**
    * Get alive iron golems.
    *
    * @return alive iron golems in game
    */
-  public List<IronGolem> getIronGolems() {
+  public Set<IronGolem> getIronGolemSet() {
     return ironGolems;
   }
 
+  /**
+   * Get alive iron golems.
+   *
+   * @return new list of alive iron golems
+   * @deprecated copies iron golems on every call, use {@link #getIronGolemSet()}.
+   * Changes made to returned list (add, remove, clear) no longer reach the arena
+   */
+  @Deprecated
+  public List<IronGolem> getIronGolems() {
+    return new ArrayList<>(ironGolems);
+  }
+
   /**
    * Get alive villagers.
    *
    * @return alive villagers in game
    */
-  public List<Villager> getVillagers() {
+  public Set<Villager> getVillagerSet() {
     return villagers;
   }
 
+  /**
+   * Get alive villagers.
+   *
+   * @return new list of alive villagers
+   * @deprecated copies villagers on every call, use {@link #getVillagerSet()}.
+   * Changes made to returned list (add, remove, clear) no longer reach the arena
+   */
+  @Deprecated
+  public List<Villager> getVillagers() {
+    return new ArrayList<>(villagers);
+  }
+
   /**
    * Clear all villagers in arena.
    */
   public void clearVillagers() {
     for (Villager villager : villagers) {
       villager.remove();
+      ArenaEntityRegistry.unregister(villager);
     }
     villagers.clear();
   }
 
   public void addDoor(Location location, byte data) {
     this.doorBlocks.put(location, data);
+    doorIndex = null;
+    invalidateRegion();
   }
 
   public void addRottenFlesh(int i) {
@@ -1031,15 +1355,35 @@ public abstract class Arena extends BukkitRunnable {
       rottenFleshLevel = 1;
       return true;
     }
-    if (rottenFleshLevel * 10 * getPlayers().size() + 10 < rottenFleshAmount) {
+    if (rottenFleshLevel * 10 * getPlayerSet().size() + 10 < rottenFleshAmount) {
       rottenFleshLevel++;
       return true;
     }
     return false;
   }
 
-  Map<Zombie, Location> getZombieCheckerLocations() {
-    return zombieCheckerLocations;
+  /**
+   * Samples next slice of zombies for stuck detection, called every server tick while in game.
+   */
+  void checkStuckZombies() {
+    stuckZombieDetector.tick();
+  }
+
+  /**
+   * Teleports stuck zombie back to zombie spawn, or removes it if it got stuck again.
+   *
+   * @param zombie stuck zombie
+   * @param remove true if zombie was already teleported and is still stuck
+   */
+  void handleStuckZombie(Zombie zombie, boolean remove) {
+    if (remove) {
+      Main.debug("Arena " + getID() + " removed zombie stuck again after teleport", System.currentTimeMillis());
+      zombie.remove();
+      removeZombie(zombie);
+      return;
+    }
+    zombie.teleport(zombieSpawns.get(random.nextInt(zombieSpawns.size())));
+    stuckZombieDetector.resetProgress(zombie);
   }
 
   protected void subtractZombiesToSpawn() {
@@ -1051,11 +1395,35 @@ public abstract class Arena extends BukkitRunnable {
   }
 
   void setZombieAmount() {
-    zombiesToSpawn = (int) Math.ceil((getPlayers().size() * 0.5) * (wave * wave) / 2);
+    zombiesToSpawn = getWaveZombieAmount(wave);
+    WavePlan plan = nextWavePlan;
+    nextWavePlan = null;
+    if (plan == null || plan.getWave() != wave || plan.getSize() != zombiesToSpawn) {
+      plan = WavePlanner.plan(wave, zombiesToSpawn, random);
+    }
+    wavePlan = plan;
+    wavePlanPosition = 0;
+  }
+
+  /**
+   * Computes plan of upcoming wave in background so wave start doesn't have to.
+   * Should be called after wave number was changed.
+   */
+  void prepareNextWavePlan() {
+    final int plannedWave = wave;
+    final int amount = getWaveZombieAmount(plannedWave);
+    nextWavePlan = null;
+    Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> nextWavePlan = WavePlanner.plan(plannedWave, amount, ThreadLocalRandom.current()));
+  }
+
+  private int getWaveZombieAmount(int wave) {
+    return (int) Math.ceil((getPlayerSet().size() * 0.5) * (wave * wave) / 2);
   }
 
   void addPlayer(Player player) {
-    players.add(player.getUniqueId());
+    players.put(player.getUniqueId(), player);
+    ArenaRegistry.bindPlayer(player.getUniqueId(), this);
+    refreshRoster();
   }
 
   void removePlayer(Player player) {
@@ -1063,21 +1431,56 @@ public abstract class Arena extends BukkitRunnable {
       return;
     }
     players.remove(player.getUniqueId());
+    ArenaRegistry.unbindPlayer(player.getUniqueId(), this);
+    refreshRoster();
   }
 
-  List<Player> getPlayersLeft() {
-    List<Player> players = new ArrayList<>();
-    for (User user : UserManager.getUsers(this)) {
-      if (!user.isFakeDead()) {
-        players.add(user.toPlayer());
+  private void clearPlayers() {
+    for (UUID uuid : players.keySet()) {
+      ArenaRegistry.unbindPlayer(uuid, this);
+    }
+    players.clear();
+    refreshRoster();
+  }
+
+  /**
+   * Rebuilds read-only player sets of this arena.
+   * Called when player joins, leaves or changes fake dead state.
+   */
+  public void refreshRoster() {
+    Set<Player> all = new LinkedHashSet<>();
+    Set<Player> left = new LinkedHashSet<>();
+    Set<Player> fakeDead = new LinkedHashSet<>();
+    for (Player player : players.values()) {
+      all.add(player);
+      if (UserManager.getUser(player.getUniqueId()).isFakeDead()) {
+        fakeDead.add(player);
+      } else {
+        left.add(player);
       }
     }
-    return players;
+    playersView = Collections.unmodifiableSet(all);
+    playersLeftView = Collections.unmodifiableList(new ArrayList<>(left));
+    fakeDeadPlayersView = Collections.unmodifiableSet(fakeDead);
+  }
+
+  /**
+   * @return read-only list of players that are still alive in game
+   */
+  List<Player> getPlayersLeft() {
+    return playersLeftView;
+  }
+
+  /**
+   * @return read-only set of players that died in current wave and are spectating
+   */
+  Set<Player> getFakeDeadPlayers() {
+    return fakeDeadPlayersView;
   }
 
   void showPlayers() {
-    for (Player player : getPlayers()) {
-      for (Player p : getPlayers()) {
+    for (Player player : getPlayerSet()) {
+      for (Player p : getPlayerSet()) {
         player.showPlayer(p);
         p.showPlayer(player);
       }
@@ -1086,6 +1489,8 @@ public abstract class Arena extends BukkitRunnable {
 
   protected void addZombie(Zombie zombie) {
     zombies.add(zombie);
+    stuckZombieDetector.track(zombie);
+    ArenaEntityRegistry.register(zombie, this, ArenaEntityType.ZOMBIE, null);
   }
 
   void addExperience(Player player, int i) {
@@ -1111,22 +1516,62 @@ public abstract class Arena extends BukkitRunnable {
 
   protected void addVillager(Villager villager) {
     villagers.add(villager);
-
+    ArenaEntityRegistry.register(villager, this, ArenaEntityType.VILLAGER, null);
   }
 
   void removeVillager(Villager villager) {
-    if (villagers.contains(villager)) {
+    if (villagers.remove(villager)) {
       villager.remove();
       villager.setHealth(0);
-      villagers.remove(villager);
     }
+    ArenaEntityRegistry.unregister(villager);
   }
 
-  protected void addIronGolem(IronGolem ironGolem) {
+  protected void addIronGolem(IronGolem ironGolem, Player owner) {
     ironGolems.add(ironGolem);
+    ArenaEntityRegistry.register(ironGolem, this, ArenaEntityType.IRON_GOLEM, owner.getUniqueId());
+  }
+
+  /**
+   * @return door blocks of arena indexed for lookups by block coordinates
+   */
+  public DoorIndex getDoorIndex() {
+    if (doorIndex == null) {
+      doorIndex = new DoorIndex(doorBlocks.keySet());
+    }
+    return doorIndex;
+  }
+
+  /**
+   * Get journal of blocks changed in current game.
+   * Blocks modified by plugin during the game should be recorded there before modification.
+   *
+   * @return block journal of arena
+   */
+  public BlockJournal getBlockJournal() {
+    return blockJournal;
+  }
+
+  /**
+   * Restores part of changed blocks if arena map is being restored.
+   *
+   * @param budget maximum amount of blocks to restore
+   * @return amount of restored blocks
+   */
+  int restoreBlocks(int budget) {
+    if (!restoringBlocks) {
+      return 0;
+    }
+    int restored = blockJournal.restore(budget);
+    if (blockJournal.size() == 0) {
+      restoringBlocks = false;
+      Main.debug("Blocks of arena " + getID() + " restored", System.currentTimeMillis());
+    }
+    return restored;
   }
 
   void restoreDoors() {
+    getDoorIndex().resetAllDamage();
     for (Location location : doorBlocks.keySet()) {
       Block block = location.getBlock();
       Byte doorData = doorBlocks.get(location);
@@ -1140,4 +1585,16 @@ public abstract class Arena extends BukkitRunnable {
     START, LOBBY, END
   }
 
+  private static class QueuedZombie {
+
+    private final ZombieType type;
+    private final long queuedAt;
+
+    QueuedZombie(ZombieType type, long queuedAt) {
+      this.type = type;
+      this.queuedAt = queuedAt;
+    }
+
+  }
+
 }
@@ -19,6 +19,7 @@
 package pl.plajer.villagedefense3.arena;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import javax.annotation.Nullable;
@@ -44,9 +45,9 @@ public class ArenaBoard {
   private final Scoreboard bukkitScoreboard;
   private final Objective obj;
   String title;
-  private Row[] rows = new Row[0];
-  private List<Row> rowCache = new ArrayList<>();
-  private boolean finished = false;
+  private final List<Row> rows = new ArrayList<>();
+  private ScoreboardTemplate lastTemplate;
+  private int[] lastInputs;
 
   public ArenaBoard(String name, String criterion, String title) {
     this.name = name;
@@ -60,8 +61,13 @@ public class ArenaBoard {
     this.obj.setDisplayName(title);
   }
 
+  /**
+   * Shows board to player, scoreboard is sent only if player isn't viewing it already
+   */
   public void display(Player player) {
-    player.setScoreboard(this.bukkitScoreboard);
+    if (player.getScoreboard() != this.bukkitScoreboard) {
+      player.setScoreboard(this.bukkitScoreboard);
+    }
   }
 
   public String getName() {
@@ -76,48 +82,64 @@ public class ArenaBoard {
     return title;
   }
 
-  public Row[] getRows() {
-    return rows;
-  }
-
-  public @Nullable
-  Row addRow(String message) {
-    if (this.finished) {
-      new NullPointerException("Can not add rows if scoreboard is already finished").printStackTrace();
-      return null;
+  public void setTitle(String title) {
+    if (title.equals(this.title)) {
+      return;
     }
+    this.title = title;
+    this.obj.setDisplayName(title);
+  }
 
-    try {
-      final Row row = new Row(this, message, rows.length);
-
-      this.rowCache.add(row);
+  public List<Row> getRows() {
+    return rows;
+  }
 
-      return row;
-    } catch (Exception e) {
-      return null;
+  /**
+   * Remembers inputs used to render board lines.
+   *
+   * @param template template used to render board lines
+   * @param inputs   placeholder values used to render board
+   * @return true if inputs differ from previous ones and lines must be rendered again
+   */
+  public boolean setInputs(ScoreboardTemplate template, int[] inputs) {
+    if (template == lastTemplate && Arrays.equals(inputs, lastInputs)) {
+      return false;
     }
+    this.lastTemplate = template;
+    this.lastInputs = inputs;
+    return true;
   }
 
-  public void finish() {
-    if (this.finished) {
-      new NullPointerException("Can not finish if scoreboard is already finished").printStackTrace();
-      return;
+  /**
+   * Updates board lines, only rows with changed content are sent to the player.
+   * Rows are added or removed if amount of lines changed.
+   *
+   * @param lines new board lines, top to bottom
+   */
+  public void setLines(List<String> lines) {
+    int size = Math.min(lines.size(), ChatColor.values().length);
+    boolean resized = size != rows.size();
+    while (rows.size() > size) {
+      Row row = rows.remove(rows.size() - 1);
+      bukkitScoreboard.resetScores(row.entry);
+      row.team.unregister();
     }
-
-    this.finished = true;
-
-    for (int i = rowCache.size() - 1; i >= 0; i--) {
-      final Row row = rowCache.get(i);
-
+    for (int i = 0; i < size; i++) {
+      if (i < rows.size()) {
+        rows.get(i).setMessage(lines.get(i));
+        continue;
+      }
       final Team team = this.bukkitScoreboard.registerNewTeam(name + "." + criterion + "." + (i + 1));
-      team.addEntry(ChatColor.values()[i] + "");
-      this.obj.getScore(ChatColor.values()[i] + "").setScore(rowCache.size() - i);
-
-      row.team = team;
-      row.setMessage(row.message);
+      final Row row = new Row(this, team, ChatColor.values()[i] + "", i);
+      team.addEntry(row.entry);
+      rows.add(row);
+      row.setMessage(lines.get(i));
+    }
+    if (resized) {
+      for (Row row : rows) {
+        this.obj.getScore(row.entry).setScore(size - row.rowInScoreboard);
+      }
     }
-
-    this.rows = rowCache.toArray(new Row[0]);
   }
 
 
@@ -125,13 +147,15 @@ public class ArenaBoard {
 
     private final ArenaBoard scoreboard;
     private final int rowInScoreboard;
-    private Team team;
+    private final Team team;
+    private final String entry;
     private String message;
 
-    public Row(ArenaBoard sb, String message, int row) {
+    Row(ArenaBoard sb, Team team, String entry, int row) {
       this.scoreboard = sb;
+      this.team = team;
+      this.entry = entry;
       this.rowInScoreboard = row;
-      this.message = message;
     }
 
     private static String[] splitStringWithChatcolorInHalf(String str) {
@@ -199,12 +223,16 @@ public class ArenaBoard {
     }
 
     public void setMessage(String message) {
+      if (message.equals(this.message)) {
+        return;
+      }
       this.message = message;
 
-      if (scoreboard.finished) {
-        final String[] parts = splitStringWithChatcolorInHalf(message);
-
+      final String[] parts = splitStringWithChatcolorInHalf(message);
+      if (!parts[0].equals(team.getPrefix())) {
         this.team.setPrefix(parts[0]);
+      }
+      if (!parts[1].equals(team.getSuffix())) {
         this.team.setSuffix(parts[1]);
       }
     }
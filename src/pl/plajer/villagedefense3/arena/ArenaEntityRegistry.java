@@ -0,0 +1,120 @@
+/*
+ * Village Defense 3 - Protect villagers from hordes of zombies
+ * Copyright (C) 2018  Plajer's Lair - maintained by Plajer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.plajer.villagedefense3.arena;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import javax.annotation.Nullable;
+
+import org.bukkit.entity.Entity;
+
+/**
+ * Keeps track of entities spawned by arenas so listeners can tell
+ * which arena owns the entity and what it is without scanning arena lists.
+ *
+ * @author Plajer
+ * <p>
+ * Created at 18.10.2018
+ */
+public class ArenaEntityRegistry {
+
+  private static final Map<UUID, ArenaEntity> entities = new HashMap<>();
+
+  static void register(Entity entity, Arena arena, ArenaEntityType type, @Nullable UUID owner) {
+    entities.put(entity.getUniqueId(), new ArenaEntity(arena, type, owner));
+  }
+
+  static void unregister(Entity entity) {
+    entities.remove(entity.getUniqueId());
+  }
+
+  /**
+   * Removes all entities of given arena from registry.
+   *
+   * @param arena arena to remove entities of
+   */
+  static void unregisterAll(Arena arena) {
+    entities.values().removeIf(entity -> entity.arena == arena);
+  }
+
+  /**
+   * Returns arena that spawned given entity
+   *
+   * @param entity entity to check
+   * @return Arena or null if entity doesn't belong to any arena
+   */
+  @Nullable
+  public static Arena getArena(Entity entity) {
+    ArenaEntity arenaEntity = entities.get(entity.getUniqueId());
+    return arenaEntity == null ? null : arenaEntity.arena;
+  }
+
+  /**
+   * Returns role of given entity in its arena
+   *
+   * @param entity entity to check
+   * @return type of entity or null if entity doesn't belong to any arena
+   */
+  @Nullable
+  public static ArenaEntityType getType(Entity entity) {
+    ArenaEntity arenaEntity = entities.get(entity.getUniqueId());
+    return arenaEntity == null ? null : arenaEntity.type;
+  }
+
+  /**
+   * Checks if entity was spawned by any arena as given type
+   *
+   * @param entity entity to check
+   * @param type   expected type of entity
+   * @return true if entity belongs to arena and is of given type
+   */
+  public static boolean isArenaEntity(Entity entity, ArenaEntityType type) {
+    ArenaEntity arenaEntity = entities.get(entity.getUniqueId());
+    return arenaEntity != null && arenaEntity.type == type;
+  }
+
+  /**
+   * Returns UUID of player that spawned given golem or wolf
+   *
+   * @param entity entity to check
+   * @return UUID of owner or null if entity has no owner
+   */
+  @Nullable
+  public static UUID getOwner(Entity entity) {
+    ArenaEntity arenaEntity = entities.get(entity.getUniqueId());
+    return arenaEntity == null ? null : arenaEntity.owner;
+  }
+
+  private static class ArenaEntity {
+
+    private final Arena arena;
+    private final ArenaEntityType type;
+    private final UUID owner;
+
+    ArenaEntity(Arena arena, ArenaEntityType type, UUID owner) {
+      this.arena = arena;
+      this.type = type;
+      this.owner = owner;
+    }
+
+  }
+
+}
@@ -25,7 +25,7 @@ import org.bukkit.ChatColor;
 import org.bukkit.GameMode;
 import org.bukkit.Material;
 import org.bukkit.attribute.Attribute;
-import org.bukkit.entity.EntityType;
+import org.bukkit.entity.IronGolem;
 import org.bukkit.entity.LivingEntity;
 import org.bukkit.entity.Player;
 import org.bukkit.entity.Villager;
@@ -68,10 +68,11 @@ public class ArenaEvents implements Listener {
   @EventHandler(priority = EventPriority.HIGHEST)
   public void onVillagerDamage(EntityDamageByEntityEvent e) {
     if (e.getEntity() instanceof Villager && e.getDamager() instanceof Zombie) {
-      for (Arena a : ArenaRegistry.getArenas()) {
-        if (a.getVillagers().contains(e.getEntity()) && a.getZombies().contains(e.getDamager())) {
-          e.setCancelled(false);
-        }
+      Arena arena = ArenaEntityRegistry.getArena(e.getEntity());
+      if (arena != null && arena == ArenaEntityRegistry.getArena(e.getDamager())
+              && ArenaEntityRegistry.isArenaEntity(e.getEntity(), ArenaEntityType.VILLAGER)
+              && ArenaEntityRegistry.isArenaEntity(e.getDamager(), ArenaEntityType.ZOMBIE)) {
+        e.setCancelled(false);
       }
     }
   }
@@ -80,20 +81,19 @@ public class ArenaEvents implements Listener {
   public void onDieEntity(EntityDamageByEntityEvent e) {
     if (e.getEntity() instanceof LivingEntity && e.getDamager() instanceof Wolf && e.getEntity() instanceof Zombie) {
       //trick to get non player killer of zombie
-      for (Arena a : ArenaRegistry.getArenas()) {
-        if (a.getZombies().contains(e.getEntity())) {
-          if (e.getDamage() >= ((LivingEntity) e.getEntity()).getHealth()) {
-            //prevent offline player cast error
-            if (((Wolf) e.getDamager()).getOwner() == null || !(((Wolf) e.getDamager()).getOwner() instanceof Player)) {
-              return;
-            }
-            Player player = (Player) ((Wolf) e.getDamager()).getOwner();
-            if (ArenaRegistry.getArena(player) != null) {
-              a.addStat(player, "kills");
-              a.addExperience(player, 2);
-            }
-            return;
-          }
+      Arena a = ArenaEntityRegistry.getArena(e.getEntity());
+      if (a == null || !ArenaEntityRegistry.isArenaEntity(e.getEntity(), ArenaEntityType.ZOMBIE)) {
+        return;
+      }
+      if (e.getDamage() >= ((LivingEntity) e.getEntity()).getHealth()) {
+        //prevent offline player cast error
+        if (((Wolf) e.getDamager()).getOwner() == null || !(((Wolf) e.getDamager()).getOwner() instanceof Player)) {
+          return;
+        }
+        Player player = (Player) ((Wolf) e.getDamager()).getOwner();
+        if (ArenaRegistry.getArena(player) != null) {
+          a.addStat(player, "kills");
+          a.addExperience(player, 2);
         }
       }
     }
@@ -101,34 +101,34 @@ public class ArenaEvents implements Listener {
 
   @EventHandler
   public void onDieEntity(EntityDeathEvent event) {
-    if (event.getEntity().getType() == EntityType.ZOMBIE || event.getEntity().getType() == EntityType.VILLAGER) {
-      for (Arena a : ArenaRegistry.getArenas()) {
-        switch (event.getEntityType()) {
-          case ZOMBIE:
-            if (a.getZombies().contains(event.getEntity())) {
-              a.removeZombie((Zombie) event.getEntity());
-              a.setTotalKilledZombies(a.getTotalKilledZombies() + 1);
-              if (ArenaRegistry.getArena(event.getEntity().getKiller()) != null) {
-                a.addStat(event.getEntity().getKiller(), "kills");
-                a.addExperience(event.getEntity().getKiller(), 2);
-                plugin.getRewardsHandler().performZombieKillReward(event.getEntity().getKiller());
-                plugin.getPowerupManager().spawnPowerup(event.getEntity().getLocation(), ArenaRegistry.getArena(event.getEntity().getKiller()));
-              }
-              return;
-            }
-            break;
-          case VILLAGER:
-            if (a.getVillagers().contains(event.getEntity())) {
-              a.getStartLocation().getWorld().strikeLightningEffect(event.getEntity().getLocation());
-              a.removeVillager((Villager) event.getEntity());
-              for (Player p : a.getPlayers()) {
-                p.sendMessage(ChatManager.PLUGIN_PREFIX + ChatManager.colorMessage("In-Game.Messages.Villager-Died"));
-              }
-              return;
-            }
-            break;
+    Arena a = ArenaEntityRegistry.getArena(event.getEntity());
+    if (a == null) {
+      return;
+    }
+    switch (ArenaEntityRegistry.getType(event.getEntity())) {
+      case ZOMBIE:
+        a.removeZombie((Zombie) event.getEntity());
+        a.setTotalKilledZombies(a.getTotalKilledZombies() + 1);
+        if (ArenaRegistry.getArena(event.getEntity().getKiller()) != null) {
+          a.addStat(event.getEntity().getKiller(), "kills");
+          a.addExperience(event.getEntity().getKiller(), 2);
+          plugin.getRewardsHandler().performZombieKillReward(event.getEntity().getKiller());
+          plugin.getPowerupManager().spawnPowerup(event.getEntity().getLocation(), ArenaRegistry.getArena(event.getEntity().getKiller()));
         }
-      }
+        break;
+      case VILLAGER:
+        a.getStartLocation().getWorld().strikeLightningEffect(event.getEntity().getLocation());
+        a.removeVillager((Villager) event.getEntity());
+        for (Player p : a.getPlayerSet()) {
+          p.sendMessage(ChatManager.PLUGIN_PREFIX + ChatManager.colorMessage("In-Game.Messages.Villager-Died"));
+        }
+        break;
+      case IRON_GOLEM:
+        a.removeIronGolem((IronGolem) event.getEntity());
+        break;
+      case WOLF:
+        a.removeWolf((Wolf) event.getEntity());
+        break;
     }
   }
 
@@ -190,11 +190,11 @@ public class ArenaEvents implements Listener {
 
     player.getInventory().setItem(8, SpecialItemManager.getSpecialItem("Leave").getItemStack());
     //tryin to untarget dead player bcuz they will still target him
-    for (Zombie zombie : arena.getZombies()) {
+    for (Zombie zombie : arena.getZombieSet()) {
       if (zombie.getTarget() != null) {
         if (zombie.getTarget().equals(player)) {
           //set new target as villager so zombies won't stay still waiting for nothing
-          for (Villager villager : arena.getVillagers()) {
+          for (Villager villager : arena.getVillagerSet()) {
             zombie.setTarget(villager);
           }
         }
@@ -208,7 +208,7 @@ public class ArenaEvents implements Listener {
     if (arena == null) {
       return;
     }
-    if (arena.getPlayers().contains(e.getPlayer())) {
+    if (arena.getPlayerSet().contains(e.getPlayer())) {
       Player player = e.getPlayer();
       User user = UserManager.getUser(player.getUniqueId());
       player.setAllowFlight(true);
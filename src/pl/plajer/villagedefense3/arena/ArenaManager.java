@@ -18,7 +18,6 @@
 
 package pl.plajer.villagedefense3.arena;
 
-import java.util.Arrays;
 import java.util.List;
 
 import org.apache.commons.lang3.StringUtils;
@@ -26,7 +25,6 @@ import org.bukkit.Bukkit;
 import org.bukkit.GameMode;
 import org.bukkit.Material;
 import org.bukkit.attribute.Attribute;
-import org.bukkit.entity.Entity;
 import org.bukkit.entity.EntityType;
 import org.bukkit.entity.IronGolem;
 import org.bukkit.entity.Player;
@@ -43,9 +41,10 @@ import org.bukkit.scheduler.BukkitRunnable;
 import pl.plajer.villagedefense3.Main;
 import pl.plajer.villagedefense3.handlers.ChatManager;
 import pl.plajer.villagedefense3.handlers.PermissionsManager;
+import pl.plajer.villagedefense3.handlers.Settings;
+import pl.plajer.villagedefense3.handlers.TickProfiler;
 import pl.plajer.villagedefense3.handlers.items.SpecialItemManager;
 import pl.plajer.villagedefense3.handlers.language.LanguageManager;
-import pl.plajer.villagedefense3.handlers.language.Locale;
 import pl.plajer.villagedefense3.kits.kitapi.KitRegistry;
 import pl.plajer.villagedefense3.kits.level.GolemFriendKit;
 import pl.plajer.villagedefense3.user.User;
@@ -83,6 +82,10 @@ public class ArenaManager {
       p.sendMessage(ChatManager.PLUGIN_PREFIX + ChatManager.colorMessage("In-Game.Arena-Not-Configured"));
       return;
     }
+    if (arena.getInstanceWorld() != null && !arena.getInstanceWorld().isReady()) {
+      p.sendMessage(ChatManager.PLUGIN_PREFIX + ChatManager.colorMessage("In-Game.Arena-Preparing"));
+      return;
+    }
     if (villageGameJoinAttemptEvent.isCancelled()) {
       p.sendMessage(ChatManager.PLUGIN_PREFIX + ChatManager.colorMessage("In-Game.Join-Cancelled-Via-API"));
       return;
@@ -94,6 +97,8 @@ public class ArenaManager {
       }
     }
     Main.debug("Final join attempt, " + p.getName(), System.currentTimeMillis());
+    //only joins that passed all checks wake hibernated arena up
+    arena.wakeUp();
     if ((arena.getArenaState() == ArenaState.IN_GAME || (arena.getArenaState() == ArenaState.STARTING && arena.getTimer() <= 3) || arena.getArenaState() == ArenaState.ENDING)) {
       if (plugin.isInventoryManagerEnabled()) {
         p.setLevel(0);
@@ -130,7 +135,7 @@ public class ArenaManager {
       p.addPotionEffect(new PotionEffect(PotionEffectType.NIGHT_VISION, Integer.MAX_VALUE, 1));
       ArenaUtils.hidePlayer(p, arena);
 
-      for (Player spectator : arena.getPlayers()) {
+      for (Player spectator : arena.getPlayerSet()) {
         if (UserManager.getUser(spectator.getUniqueId()).isSpectator()) {
           p.hidePlayer(spectator);
         } else {
@@ -166,7 +171,7 @@ public class ArenaManager {
       p.getInventory().setItem(SpecialItemManager.getSpecialItem("Leave").getSlot(), SpecialItemManager.getSpecialItem("Leave").getItemStack());
     }
     p.updateInventory();
-    for (Player player : arena.getPlayers()) {
+    for (Player player : arena.getPlayerSet()) {
       ArenaUtils.showPlayer(player, arena);
     }
     arena.showPlayers();
@@ -196,9 +201,10 @@ public class ArenaManager {
     user.setSpectator(false);
     user.removeScoreboard();
     if (user.getKit() instanceof GolemFriendKit) {
-      for (IronGolem ironGolem : arena.getIronGolems()) {
-        if (ironGolem.getCustomName().contains(user.toPlayer().getName())) {
+      for (IronGolem ironGolem : arena.getIronGolemSet()) {
+        if (p.getUniqueId().equals(ArenaEntityRegistry.getOwner(ironGolem))) {
           ironGolem.remove();
+          ArenaEntityRegistry.unregister(ironGolem);
         }
       }
     }
@@ -214,7 +220,7 @@ public class ArenaManager {
       p.removePotionEffect(effect.getType());
     }
     p.setFireTicks(0);
-    if (arena.getPlayers().size() == 0) {
+    if (arena.getPlayerSet().size() == 0) {
       arena.setArenaState(ArenaState.ENDING);
       arena.setTimer(0);
     }
@@ -240,6 +246,7 @@ public class ArenaManager {
    */
   public static void stopGame(boolean quickStop, Arena arena) {
     Main.debug("Game stop event initiate, arena " + arena.getID(), System.currentTimeMillis());
+    long start = TickProfiler.start();
     VillageGameStopEvent villageGameStopEvent = new VillageGameStopEvent(arena);
     Bukkit.getPluginManager().callEvent(villageGameStopEvent);
     String summaryEnding;
@@ -248,13 +255,8 @@ public class ArenaManager {
     } else {
       summaryEnding = ChatManager.colorMessage("In-Game.Messages.Game-End-Messages.Summary-Players-Died");
     }
-    List<String> summaryMessages;
-    if (LanguageManager.getPluginLocale() == Locale.ENGLISH) {
-      summaryMessages = LanguageManager.getLanguageFile().getStringList("In-Game.Messages.Game-End-Messages.Summary-Message");
-    } else {
-      summaryMessages = Arrays.asList(ChatManager.colorMessage("In-Game.Messages.Game-End-Messages.Summary-Message").split(";"));
-    }
-    for (final Player p : arena.getPlayers()) {
+    List<String> summaryMessages = LanguageManager.getLanguageList("In-Game.Messages.Game-End-Messages.Summary-Message");
+    for (final Player p : arena.getPlayerSet()) {
       User user = UserManager.getUser(p.getUniqueId());
       if (user.getInt("highestwave") <= arena.getWave()) {
         user.setInt("highestwave", arena.getWave());
@@ -266,12 +268,12 @@ public class ArenaManager {
 
       UserManager.getUser(p.getUniqueId()).removeScoreboard();
       if (!quickStop) {
-        if (plugin.getConfig().getBoolean("Firework-When-Game-Ends", true)) {
+        if (Settings.get().isFireworkWhenGameEnds()) {
           new BukkitRunnable() {
             int i = 0;
 
             public void run() {
-              if (i == 4 || !arena.getPlayers().contains(p)) {
+              if (i == 4 || !arena.getPlayerSet().contains(p)) {
                 this.cancel();
               }
               Utils.spawnRandomFirework(p.getLocation());
@@ -284,30 +286,31 @@ public class ArenaManager {
     arena.setRottenFleshAmount(0);
     arena.setRottenFleshLevel(0);
     arena.restoreDoors();
-    for (Zombie zombie : arena.getZombies()) {
+    for (Zombie zombie : arena.getZombieSet()) {
       zombie.remove();
     }
-    arena.getZombies().clear();
-    for (IronGolem ironGolem : arena.getIronGolems()) {
+    arena.clearZombies();
+    for (IronGolem ironGolem : arena.getIronGolemSet()) {
       ironGolem.remove();
     }
-    arena.getIronGolems().clear();
-    for (Villager villager : arena.getVillagers()) {
+    arena.clearGolems();
+    for (Villager villager : arena.getVillagerSet()) {
       villager.remove();
     }
-    arena.getVillagers().clear();
-    for (Wolf wolf : arena.getWolfs()) {
+    arena.clearVillagers();
+    for (Wolf wolf : arena.getWolfSet()) {
       wolf.remove();
     }
-    arena.getWolfs().clear();
-    for (Entity entity : arena.getStartLocation().getWorld().getEntities()) {
-      if (entity.getWorld().getName().equalsIgnoreCase(arena.getStartLocation().getWorld().getName())
-              && entity.getLocation().distance(arena.getStartLocation()) < 300) {
+    arena.clearWolfs();
+    ArenaEntityRegistry.unregisterAll(arena);
+    if (arena.getRegion() != null) {
+      arena.getRegion().forEachEntity(entity -> {
         if (entity.getType() != EntityType.PLAYER) {
           entity.remove();
         }
-      }
+      });
     }
+    TickProfiler.stop(arena.getID(), TickProfiler.Phase.STOP_GAME, start);
     Main.debug("Game stop event finish, arena " + arena.getID(), System.currentTimeMillis());
   }
 
@@ -328,25 +331,27 @@ public class ArenaManager {
    * @see VillageWaveEndEvent
    */
   public static void endWave(Arena arena) {
+    long start = TickProfiler.start();
     plugin.getRewardsHandler().performEndWaveRewards(arena, arena.getWave());
     arena.setTimer(25);
-    arena.getZombieCheckerLocations().clear();
     arena.setWave(arena.getWave() + 1);
+    arena.prepareNextWavePlan();
     VillageWaveEndEvent villageWaveEndEvent = new VillageWaveEndEvent(arena, arena.getWave());
     Bukkit.getPluginManager().callEvent(villageWaveEndEvent);
-    for (Player player : arena.getPlayers()) {
+    for (Player player : arena.getPlayerSet()) {
       player.sendMessage(ChatManager.PLUGIN_PREFIX + ChatManager.formatMessage(arena, ChatManager.colorMessage("In-Game.Messages.Next-Wave-In"), arena.getTimer()));
       player.sendMessage(ChatManager.PLUGIN_PREFIX + ChatManager.colorMessage("In-Game.Messages.You-Feel-Refreshed"));
       player.setHealth(player.getAttribute(Attribute.GENERIC_MAX_HEALTH).getBaseValue());
       User user = UserManager.getUser(player.getUniqueId());
       user.addInt("orbs", arena.getWave() * 10);
     }
-    if (plugin.getConfig().getBoolean("Respawn-After-Wave", true)) {
+    if (Settings.get().isRespawnAfterWave()) {
       ArenaUtils.bringDeathPlayersBack(arena);
     }
     for (Player player : arena.getPlayersLeft()) {
       arena.addExperience(player, 5);
     }
+    TickProfiler.stop(arena.getID(), TickProfiler.Phase.END_WAVE, start);
   }
 
   /**
@@ -356,19 +361,21 @@ public class ArenaManager {
    * @see VillageWaveStartEvent
    */
   public static void startWave(Arena arena) {
+    long start = TickProfiler.start();
     VillageWaveStartEvent villageWaveStartEvent = new VillageWaveStartEvent(arena, arena.getWave());
     Bukkit.getPluginManager().callEvent(villageWaveStartEvent);
     arena.setZombieAmount();
-    if (plugin.getConfig().getBoolean("Respawn-After-Wave", true)) {
+    if (Settings.get().isRespawnAfterWave()) {
       ArenaUtils.bringDeathPlayersBack(arena);
     }
     for (User user : UserManager.getUsers(arena)) {
       user.getKit().reStock(user.toPlayer());
     }
     String message = ChatManager.formatMessage(arena, ChatManager.colorMessage("In-Game.Messages.Wave-Started"), arena.getWave());
-    for (Player p : arena.getPlayers()) {
+    for (Player p : arena.getPlayerSet()) {
       p.sendMessage(ChatManager.PLUGIN_PREFIX + message);
     }
+    TickProfiler.stop(arena.getID(), TickProfiler.Phase.START_WAVE, start);
   }
 
 }
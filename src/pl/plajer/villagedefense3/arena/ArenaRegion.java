@@ -0,0 +1,171 @@
+/*
+ * Village Defense 3 - Protect villagers from hordes of zombies
+ * Copyright (C) 2018  Plajer's Lair - maintained by Plajer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.plajer.villagedefense3.arena;
+
+import java.util.Collection;
+import java.util.function.Consumer;
+
+import org.bukkit.Chunk;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+
+/**
+ * Axis aligned box arena is played in.
+ * <p>
+ * Region is either configured in arenas.yml or computed from arena lobby, start,
+ * spawn and door points, cleanup walks only loaded chunks of region instead of whole world.
+ *
+ * @author Plajer
+ * <p>
+ * Created at 18.10.2018
+ */
+public class ArenaRegion {
+
+  private final World world;
+  private final double minX, minY, minZ;
+  private final double maxX, maxY, maxZ;
+  private final Location location = new Location(null, 0, 0, 0);
+
+  /**
+   * Creates region between two corners, corners may be given in any order.
+   */
+  public ArenaRegion(Location first, Location second) {
+    this(first.getWorld(), Math.min(first.getX(), second.getX()), Math.min(first.getY(), second.getY()), Math.min(first.getZ(), second.getZ()),
+            Math.max(first.getX(), second.getX()), Math.max(first.getY(), second.getY()), Math.max(first.getZ(), second.getZ()));
+  }
+
+  private ArenaRegion(World world, double minX, double minY, double minZ, double maxX, double maxY, double maxZ) {
+    this.world = world;
+    this.minX = minX;
+    this.minY = minY;
+    this.minZ = minZ;
+    this.maxX = maxX;
+    this.maxY = maxY;
+    this.maxZ = maxZ;
+  }
+
+  /**
+   * Computes region containing all given points of world expanded by margin,
+   * points from other worlds are ignored.
+   *
+   * @param world  world of arena
+   * @param points arena points
+   * @param margin expansion of region in blocks on every side
+   * @return region or null if there are no points in world
+   */
+  static ArenaRegion of(World world, Collection<Location> points, double margin) {
+    double minX = Double.MAX_VALUE, minY = Double.MAX_VALUE, minZ = Double.MAX_VALUE;
+    double maxX = -Double.MAX_VALUE, maxY = -Double.MAX_VALUE, maxZ = -Double.MAX_VALUE;
+    boolean empty = true;
+    for (Location point : points) {
+      if (point == null || point.getWorld() != world) {
+        continue;
+      }
+      empty = false;
+      minX = Math.min(minX, point.getX());
+      minY = Math.min(minY, point.getY());
+      minZ = Math.min(minZ, point.getZ());
+      maxX = Math.max(maxX, point.getX());
+      maxY = Math.max(maxY, point.getY());
+      maxZ = Math.max(maxZ, point.getZ());
+    }
+    if (empty) {
+      return null;
+    }
+    return new ArenaRegion(world, minX - margin, minY - margin, minZ - margin, maxX + margin, maxY + margin, maxZ + margin);
+  }
+
+  /**
+   * @return the same region in another world
+   */
+  ArenaRegion inWorld(World world) {
+    return new ArenaRegion(world, minX, minY, minZ, maxX, maxY, maxZ);
+  }
+
+  public World getWorld() {
+    return world;
+  }
+
+  public boolean contains(Location location) {
+    return location.getWorld() == world
+            && location.getX() >= minX && location.getX() <= maxX
+            && location.getY() >= minY && location.getY() <= maxY
+            && location.getZ() >= minZ && location.getZ() <= maxZ;
+  }
+
+  /**
+   * Checks entity position without allocating new location, must be called from main thread.
+   */
+  public boolean contains(Entity entity) {
+    return contains(entity.getLocation(location));
+  }
+
+  /**
+   * @return true if any column of chunk lies inside region
+   */
+  public boolean intersects(Chunk chunk) {
+    return chunk.getWorld() == world
+            && chunk.getX() >= getMinChunkX() && chunk.getX() <= getMaxChunkX()
+            && chunk.getZ() >= getMinChunkZ() && chunk.getZ() <= getMaxChunkZ();
+  }
+
+  /**
+   * Runs action for every entity inside region, only already loaded chunks are visited.
+   * Action may remove entities.
+   *
+   * @param action action to run for entities in region
+   */
+  public void forEachEntity(Consumer<Entity> action) {
+    for (int chunkX = getMinChunkX(); chunkX <= getMaxChunkX(); chunkX++) {
+      for (int chunkZ = getMinChunkZ(); chunkZ <= getMaxChunkZ(); chunkZ++) {
+        if (!world.isChunkLoaded(chunkX, chunkZ)) {
+          continue;
+        }
+        for (Entity entity : world.getChunkAt(chunkX, chunkZ).getEntities()) {
+          if (contains(entity)) {
+            action.accept(entity);
+          }
+        }
+      }
+    }
+  }
+
+  private int getMinChunkX() {
+    return (int) Math.floor(minX) >> 4;
+  }
+
+  private int getMinChunkZ() {
+    return (int) Math.floor(minZ) >> 4;
+  }
+
+  private int getMaxChunkX() {
+    return (int) Math.floor(maxX) >> 4;
+  }
+
+  private int getMaxChunkZ() {
+    return (int) Math.floor(maxZ) >> 4;
+  }
+
+  @Override
+  public String toString() {
+    return world.getName() + " [" + (int) minX + ", " + (int) minY + ", " + (int) minZ + "] - [" + (int) maxX + ", " + (int) maxY + ", " + (int) maxZ + "]";
+  }
+
+}
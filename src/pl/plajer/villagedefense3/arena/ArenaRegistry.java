@@ -20,8 +20,12 @@ package pl.plajer.villagedefense3.arena;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.bukkit.Bukkit;
+import org.bukkit.Location;
 import org.bukkit.entity.Player;
 import org.bukkit.plugin.java.JavaPlugin;
 
@@ -43,6 +47,8 @@ public class ArenaRegistry {
 
   private static Main plugin = JavaPlugin.getPlugin(Main.class);
   private static List<Arena> arenas = new ArrayList<>();
+  //reverse index of players, maintained by Arena#addPlayer and Arena#removePlayer
+  private static final Map<UUID, Arena> playerArenas = new ConcurrentHashMap<>();
 
   /**
    * Checks if player is in any arena
@@ -51,12 +57,7 @@ public class ArenaRegistry {
    * @return [b]true[/b] when player is in arena, [b]false[/b] if otherwise
    */
   public static boolean isInArena(Player player) {
-    for (Arena arena : arenas) {
-      if (arena.getPlayers().contains(player)) {
-        return true;
-      }
-    }
-    return false;
+    return player != null && playerArenas.containsKey(player.getUniqueId());
   }
 
   /**
@@ -67,19 +68,28 @@ public class ArenaRegistry {
    * @see #isInArena(Player) to check if player is playing
    */
   public static Arena getArena(Player p) {
-    Arena arena = null;
     if (p == null || !p.isOnline()) {
       return null;
     }
-    for (Arena loopArena : arenas) {
-      for (Player player : loopArena.getPlayers()) {
-        if (player.getUniqueId() == p.getUniqueId()) {
-          arena = loopArena;
-          break;
-        }
-      }
-    }
-    return arena;
+    return playerArenas.get(p.getUniqueId());
+  }
+
+  /**
+   * Returns arena where the player with given UUID is
+   *
+   * @param uuid UUID of target player
+   * @return Arena or null if not playing
+   */
+  public static Arena getArena(UUID uuid) {
+    return playerArenas.get(uuid);
+  }
+
+  static void bindPlayer(UUID uuid, Arena arena) {
+    playerArenas.put(uuid, arena);
+  }
+
+  static void unbindPlayer(UUID uuid, Arena arena) {
+    playerArenas.remove(uuid, arena);
   }
 
   public static void registerArena(Arena arena) {
@@ -90,6 +100,13 @@ public class ArenaRegistry {
   public static void unregisterArena(Arena arena) {
     Main.debug("Unegistering game instance, " + arena.getID(), System.currentTimeMillis());
     arenas.remove(arena);
+    ArenaTickScheduler.unschedule(arena);
+    arena.getBlockJournal().restoreAll();
+    if (arena.getInstanceWorld() != null) {
+      arena.getInstanceWorld().dispose();
+    }
+    playerArenas.values().removeIf(playerArena -> playerArena == arena);
+    ArenaEntityRegistry.unregisterAll(arena);
   }
 
   /**
@@ -111,6 +128,7 @@ public class ArenaRegistry {
 
   public static void registerArenas() {
     Main.debug("Initial arenas registration", System.currentTimeMillis());
+    WavePlanner.loadTables();
     if (ArenaRegistry.getArenas() != null) {
       if (ArenaRegistry.getArenas().size() > 0) {
         for (Arena arena : ArenaRegistry.getArenas()) {
@@ -118,38 +136,37 @@ public class ArenaRegistry {
           arena.clearVillagers();
           arena.clearWolfs();
           arena.clearGolems();
+          arena.getBlockJournal().restoreAll();
+          if (arena.getInstanceWorld() != null) {
+            arena.getInstanceWorld().dispose();
+          }
         }
       }
     }
     ArenaRegistry.getArenas().clear();
+    ArenaTickScheduler.unscheduleAll();
+    playerArenas.clear();
     if (!ConfigurationManager.getConfig("arenas").contains("instances")) {
       Bukkit.getConsoleSender().sendMessage(ChatManager.colorMessage("Validator.No-Instances-Created"));
       return;
     }
 
     for (String ID : ConfigurationManager.getConfig("arenas").getConfigurationSection("instances").getKeys(false)) {
-      Arena arena;
       String s = "instances." + ID + ".";
       if (s.contains("default")) {
         continue;
       }
-      if (plugin.is1_9_R1()) {
-        arena = new ArenaInitializer1_9_R1(ID, plugin);
-      } else if (plugin.is1_10_R1()) {
-        arena = new ArenaInitializer1_10_R1(ID, plugin);
-      } else if (plugin.is1_11_R1()) {
-        arena = new ArenaInitializer1_11_R1(ID, plugin);
-      } else if (plugin.is1_12_R1()) {
-        arena = new ArenaInitializer1_12_R1(ID, plugin);
-      } else {
-        arena = new ArenaInitializer1_13_R1(ID, plugin);
-      }
+      Arena arena = createArena(ID);
       arena.setMinimumPlayers(ConfigurationManager.getConfig("arenas").getInt(s + "minimumplayers"));
       arena.setMaximumPlayers(ConfigurationManager.getConfig("arenas").getInt(s + "maximumplayers"));
       arena.setMapName(ConfigurationManager.getConfig("arenas").getString(s + "mapname"));
       arena.setLobbyLocation(Utils.getLocation(false, ConfigurationManager.getConfig("arenas").getString(s + "lobbylocation")));
       arena.setStartLocation(Utils.getLocation(false, ConfigurationManager.getConfig("arenas").getString(s + "Startlocation")));
       arena.setEndLocation(Utils.getLocation(false, ConfigurationManager.getConfig("arenas").getString(s + "Endlocation")));
+      if (ConfigurationManager.getConfig("arenas").contains(s + "regionmin") && ConfigurationManager.getConfig("arenas").contains(s + "regionmax")) {
+        arena.setRegion(new ArenaRegion(Utils.getLocation(false, ConfigurationManager.getConfig("arenas").getString(s + "regionmin")),
+                Utils.getLocation(false, ConfigurationManager.getConfig("arenas").getString(s + "regionmax"))));
+      }
 
       if (!ConfigurationManager.getConfig("arenas").getBoolean(s + "isdone")) {
         Bukkit.getConsoleSender().sendMessage(ChatManager.colorMessage("Validator.Invalid-Arena-Configuration").replace("%arena%", ID).replace("%error%", "NOT VALIDATED"));
@@ -193,6 +210,16 @@ public class ArenaRegistry {
         ArenaRegistry.registerArena(arena);
         continue;
       }
+      if (ConfigurationManager.getConfig("arenas").isSet(s + "templateworld")) {
+        arena.setInstanceWorld(new InstanceWorld(arena, ConfigurationManager.getConfig("arenas").getString(s + "templateworld")));
+        //every copy plays in its own copy of template world
+        for (int copy = 2; copy <= ConfigurationManager.getConfig("arenas").getInt(s + "copies", 1); copy++) {
+          Arena arenaCopy = copyArena(arena, ID + "-" + copy);
+          ArenaRegistry.registerArena(arenaCopy);
+          arenaCopy.start();
+          Bukkit.getConsoleSender().sendMessage(ChatManager.colorMessage("Validator.Instance-Started").replace("%arena%", arenaCopy.getID()));
+        }
+      }
       ArenaRegistry.registerArena(arena);
       arena.start();
       Bukkit.getConsoleSender().sendMessage(ChatManager.colorMessage("Validator.Instance-Started").replace("%arena%", ID));
@@ -201,6 +228,51 @@ public class ArenaRegistry {
     Main.debug("Arenas registration completed", System.currentTimeMillis());
   }
 
+  private static Arena createArena(String ID) {
+    if (plugin.is1_9_R1()) {
+      return new ArenaInitializer1_9_R1(ID, plugin);
+    } else if (plugin.is1_10_R1()) {
+      return new ArenaInitializer1_10_R1(ID, plugin);
+    } else if (plugin.is1_11_R1()) {
+      return new ArenaInitializer1_11_R1(ID, plugin);
+    } else if (plugin.is1_12_R1()) {
+      return new ArenaInitializer1_12_R1(ID, plugin);
+    } else {
+      return new ArenaInitializer1_13_R1(ID, plugin);
+    }
+  }
+
+  /**
+   * Creates copy of instanced arena with its own template world copies.
+   *
+   * @param arena arena to copy
+   * @param ID    name of copy
+   * @return copy of arena
+   */
+  private static Arena copyArena(Arena arena, String ID) {
+    Arena copy = createArena(ID);
+    copy.setMinimumPlayers(arena.getMinimumPlayers());
+    copy.setMaximumPlayers(arena.getMaximumPlayers());
+    copy.setMapName(arena.getMapName());
+    copy.setLobbyLocation(arena.getLobbyLocation().clone());
+    copy.setStartLocation(arena.getStartLocation().clone());
+    copy.setEndLocation(arena.getEndLocation().clone());
+    for (Location location : arena.zombieSpawns) {
+      copy.addZombieSpawn(location.clone());
+    }
+    for (Location location : arena.getVillagerSpawns()) {
+      copy.addVillagerSpawn(location.clone());
+    }
+    for (Map.Entry<Location, Byte> door : arena.getDoorLocations().entrySet()) {
+      copy.addDoor(door.getKey().clone(), door.getValue());
+    }
+    if (arena.isRegionConfigured()) {
+      copy.setRegion(arena.getRegion());
+    }
+    copy.setInstanceWorld(new InstanceWorld(copy, arena.getInstanceWorld().getTemplate()));
+    return copy;
+  }
+
   public static List<Arena> getArenas() {
     return arenas;
   }
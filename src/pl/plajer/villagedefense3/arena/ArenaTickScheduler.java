@@ -0,0 +1,205 @@
+/*
+ * Village Defense 3 - Protect villagers from hordes of zombies
+ * Copyright (C) 2018  Plajer's Lair - maintained by Plajer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.plajer.villagedefense3.arena;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.bukkit.scheduler.BukkitRunnable;
+
+import pl.plajer.villagedefense3.Main;
+import pl.plajer.villagedefense3.handlers.Settings;
+import pl.plajer.villagedefense3.handlers.TickProfiler;
+
+/**
+ * Ticks all started arenas from single task.
+ * <p>
+ * Every arena ticks once per second but arenas are spread across the 20 server ticks
+ * of every second so they don't all run at once. Mob sweeps are run for one arena
+ * at a time in round-robin order instead of every arena at the same second,
+ * stuck zombie detection of in game arenas advances every tick.
+ * Changed blocks of restarted arenas are restored with limited amount of blocks per tick.
+ *
+ * @author Plajer
+ * <p>
+ * Created at 18.10.2018
+ */
+public class ArenaTickScheduler extends BukkitRunnable {
+
+  private static final int TICKS_PER_SECOND = 20;
+  private static final int SWEEP_PERIOD_TICKS = 60 * TICKS_PER_SECOND;
+  //ticks longer than that are reported in debug
+  private static final long SLOW_TICK_NANOS = 10_000_000L;
+  private static final List<Arena> arenas = new ArrayList<>();
+  private static final Map<Arena, TickCost> tickCosts = new HashMap<>();
+  //copy of arenas iterated by ticks, rebuilt only when arenas are scheduled or unscheduled
+  //so arenas can be unregistered while ticking
+  private static Arena[] snapshot = new Arena[0];
+  private int tick = 0;
+  private int sweepCursor = 0;
+
+  /**
+   * Starts ticking arena in least occupied tick phase.
+   *
+   * @param arena arena to tick
+   */
+  static void schedule(Arena arena) {
+    if (arenas.contains(arena)) {
+      return;
+    }
+    int[] occupied = new int[TICKS_PER_SECOND];
+    for (Arena scheduled : arenas) {
+      occupied[scheduled.getTickPhase()]++;
+    }
+    int phase = 0;
+    for (int i = 1; i < TICKS_PER_SECOND; i++) {
+      if (occupied[i] < occupied[phase]) {
+        phase = i;
+      }
+    }
+    arena.setTickPhase(phase);
+    arenas.add(arena);
+    snapshot = arenas.toArray(new Arena[0]);
+    tickCosts.put(arena, new TickCost());
+    Main.debug("Arena " + arena.getID() + " scheduled in tick phase " + phase, System.currentTimeMillis());
+  }
+
+  static void unschedule(Arena arena) {
+    arenas.remove(arena);
+    snapshot = arenas.toArray(new Arena[0]);
+    tickCosts.remove(arena);
+  }
+
+  static void unscheduleAll() {
+    arenas.clear();
+    snapshot = new Arena[0];
+    tickCosts.clear();
+  }
+
+  /**
+   * @return arenas currently ticked by scheduler
+   */
+  public static List<Arena> getScheduledArenas() {
+    return Collections.unmodifiableList(arenas);
+  }
+
+  /**
+   * @param arena arena to check
+   * @return average arena tick cost in nanoseconds or 0 if arena isn't scheduled
+   */
+  public static double getAverageTickCost(Arena arena) {
+    TickCost cost = tickCosts.get(arena);
+    return cost == null || cost.ticks == 0 ? 0 : (double) cost.totalNanos / cost.ticks;
+  }
+
+  /**
+   * @param arena arena to check
+   * @return longest arena tick in nanoseconds or 0 if arena isn't scheduled
+   */
+  public static long getMaxTickCost(Arena arena) {
+    TickCost cost = tickCosts.get(arena);
+    return cost == null ? 0 : cost.maxNanos;
+  }
+
+  /**
+   * @param arena arena to check
+   * @return last arena tick in nanoseconds or 0 if arena isn't scheduled
+   */
+  public static long getLastTickCost(Arena arena) {
+    TickCost cost = tickCosts.get(arena);
+    return cost == null ? 0 : cost.lastNanos;
+  }
+
+  @Override
+  public void run() {
+    int phase = tick % TICKS_PER_SECOND;
+    Arena[] ticked = snapshot;
+    for (Arena arena : ticked) {
+      if (arena.getTickPhase() != phase) {
+        continue;
+      }
+      long start = System.nanoTime();
+      try {
+        arena.run();
+      } catch (Exception ex) {
+        //one broken arena shouldn't stop others from ticking
+        ex.printStackTrace();
+      }
+      record(arena, System.nanoTime() - start);
+    }
+    for (Arena arena : ticked) {
+      if (arena.getArenaState() == ArenaState.IN_GAME) {
+        long start = TickProfiler.start();
+        arena.checkStuckZombies();
+        TickProfiler.stop(arena.getID(), TickProfiler.Phase.ZOMBIE_CHECKER, start);
+      }
+    }
+    int restoreBudget = Settings.get().getBlockRestoreLimitPerTick();
+    for (Arena arena : ticked) {
+      if (restoreBudget <= 0) {
+        break;
+      }
+      restoreBudget -= arena.restoreBlocks(restoreBudget);
+    }
+    if (ticked.length > 0 && tick % Math.max(1, SWEEP_PERIOD_TICKS / ticked.length) == 0) {
+      if (sweepCursor >= ticked.length) {
+        sweepCursor = 0;
+      }
+      Arena arena = ticked[sweepCursor++];
+      if (arena.getArenaState() == ArenaState.IN_GAME) {
+        long start = TickProfiler.start();
+        arena.sweepMobs();
+        TickProfiler.stop(arena.getID(), TickProfiler.Phase.ZOMBIE_CHECKER, start);
+      }
+    }
+    tick++;
+    if (tick == Integer.MAX_VALUE) {
+      tick = 0;
+    }
+  }
+
+  private void record(Arena arena, long nanos) {
+    TickCost cost = tickCosts.get(arena);
+    if (cost == null) {
+      return;
+    }
+    cost.ticks++;
+    cost.totalNanos += nanos;
+    cost.lastNanos = nanos;
+    if (nanos > cost.maxNanos) {
+      cost.maxNanos = nanos;
+    }
+    if (nanos > SLOW_TICK_NANOS) {
+      Main.debug("Arena " + arena.getID() + " tick took " + (nanos / 1_000_000.0) + "ms", System.currentTimeMillis());
+    }
+  }
+
+  private static class TickCost {
+
+    private long ticks;
+    private long totalNanos;
+    private long lastNanos;
+    private long maxNanos;
+
+  }
+
+}
@@ -38,20 +38,20 @@ public class ArenaUtils {
   private static Main plugin = JavaPlugin.getPlugin(Main.class);
 
   public static void hidePlayer(Player p, Arena arena) {
-    for (Player player : arena.getPlayers()) {
+    for (Player player : arena.getPlayerSet()) {
       player.hidePlayer(p);
     }
   }
 
   public static void showPlayer(Player p, Arena arena) {
-    for (Player player : arena.getPlayers()) {
+    for (Player player : arena.getPlayerSet()) {
       player.showPlayer(p);
     }
   }
 
   public static void hidePlayersOutsideTheGame(Player player, Arena arena) {
     for (Player players : plugin.getServer().getOnlinePlayers()) {
-      if (arena.getPlayers().contains(players)) {
+      if (arena.getPlayerSet().contains(players)) {
         continue;
       }
       player.hidePlayer(players);
@@ -60,22 +60,20 @@ public class ArenaUtils {
   }
 
   public static void bringDeathPlayersBack(Arena arena) {
-    for (Player player : arena.getPlayers()) {
-      if (!arena.getPlayersLeft().contains(player)) {
-        User user = UserManager.getUser(player.getUniqueId());
-        user.setFakeDead(false);
-        user.setSpectator(false);
+    for (Player player : arena.getFakeDeadPlayers()) {
+      User user = UserManager.getUser(player.getUniqueId());
+      user.setFakeDead(false);
+      user.setSpectator(false);
 
-        arena.teleportToStartLocation(player);
-        player.setFlying(false);
-        player.setAllowFlight(false);
-        player.setGameMode(GameMode.SURVIVAL);
-        player.removePotionEffect(PotionEffectType.NIGHT_VISION);
-        arena.showPlayers();
-        player.getInventory().clear();
-        user.getKit().giveKitItems(player);
-        player.sendMessage(ChatManager.colorMessage("In-Game.Back-In-Game"));
-      }
+      arena.teleportToStartLocation(player);
+      player.setFlying(false);
+      player.setAllowFlight(false);
+      player.setGameMode(GameMode.SURVIVAL);
+      player.removePotionEffect(PotionEffectType.NIGHT_VISION);
+      arena.showPlayers();
+      player.getInventory().clear();
+      user.getKit().giveKitItems(player);
+      player.sendMessage(ChatManager.colorMessage("In-Game.Back-In-Game"));
     }
   }
 
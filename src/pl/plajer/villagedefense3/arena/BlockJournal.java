@@ -0,0 +1,106 @@
+/*
+ * Village Defense 3 - Protect villagers from hordes of zombies
+ * Copyright (C) 2018  Plajer's Lair - maintained by Plajer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.plajer.villagedefense3.arena;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.bukkit.block.Block;
+import org.bukkit.block.BlockState;
+
+/**
+ * Journal of blocks changed during the game.
+ * <p>
+ * Original state of block is captured the first time its position is modified,
+ * journal is then restored gradually with limited amount of blocks per tick.
+ *
+ * @author Plajer
+ * <p>
+ * Created at 18.10.2018
+ */
+public class BlockJournal {
+
+  private final Map<Long, BlockState> originals = new LinkedHashMap<>();
+
+  /**
+   * Records original state of block, must be called before block is modified.
+   * Block already recorded keeps its first state.
+   *
+   * @param block block about to be modified
+   */
+  public void record(Block block) {
+    long key = DoorIndex.pack(block.getX(), block.getY(), block.getZ());
+    if (!originals.containsKey(key)) {
+      originals.put(key, block.getState());
+    }
+  }
+
+  /**
+   * Records original state of block that has been already modified,
+   * useful for events like block place where only replaced state is known.
+   *
+   * @param original state of block before modification
+   */
+  public void record(BlockState original) {
+    long key = DoorIndex.pack(original.getX(), original.getY(), original.getZ());
+    if (!originals.containsKey(key)) {
+      originals.put(key, original);
+    }
+  }
+
+  /**
+   * Restores up to given amount of recorded blocks, oldest first.
+   *
+   * @param budget maximum amount of blocks to restore
+   * @return amount of restored blocks
+   */
+  public int restore(int budget) {
+    int restored = 0;
+    Iterator<BlockState> iterator = originals.values().iterator();
+    while (restored < budget && iterator.hasNext()) {
+      iterator.next().update(true, false);
+      iterator.remove();
+      restored++;
+    }
+    return restored;
+  }
+
+  /**
+   * Restores all recorded blocks at once.
+   */
+  public void restoreAll() {
+    restore(Integer.MAX_VALUE);
+  }
+
+  /**
+   * Forgets all recorded blocks without restoring them.
+   */
+  public void clear() {
+    originals.clear();
+  }
+
+  /**
+   * @return amount of blocks waiting to be restored
+   */
+  public int size() {
+    return originals.size();
+  }
+
+}
@@ -0,0 +1,153 @@
+/*
+ * Village Defense 3 - Protect villagers from hordes of zombies
+ * Copyright (C) 2018  Plajer's Lair - maintained by Plajer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.plajer.villagedefense3.arena;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+
+/**
+ * Arena door blocks indexed by packed block coordinates.
+ * <p>
+ * Keys are kept sorted in primitive array so lookups are binary searches without boxing,
+ * bounding box of all doors allows quick rejection of zombies far from any door.
+ * Damage dealt by zombies is accumulated per door block.
+ *
+ * @author Plajer
+ * <p>
+ * Created at 18.10.2018
+ */
+public class DoorIndex {
+
+  private final World world;
+  private final long[] keys;
+  private final Location[] locations;
+  private final byte[] damage;
+  private int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE, minZ = Integer.MAX_VALUE;
+  private int maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE, maxZ = Integer.MIN_VALUE;
+
+  DoorIndex(Collection<Location> doors) {
+    Location[] sorted = doors.toArray(new Location[0]);
+    Arrays.sort(sorted, (first, second) -> Long.compare(pack(first), pack(second)));
+    this.locations = sorted;
+    this.keys = new long[sorted.length];
+    this.damage = new byte[sorted.length];
+    this.world = sorted.length == 0 ? null : sorted[0].getWorld();
+    for (int i = 0; i < sorted.length; i++) {
+      Location location = sorted[i];
+      keys[i] = pack(location);
+      minX = Math.min(minX, location.getBlockX());
+      minY = Math.min(minY, location.getBlockY());
+      minZ = Math.min(minZ, location.getBlockZ());
+      maxX = Math.max(maxX, location.getBlockX());
+      maxY = Math.max(maxY, location.getBlockY());
+      maxZ = Math.max(maxZ, location.getBlockZ());
+    }
+  }
+
+  private static long pack(Location location) {
+    return pack(location.getBlockX(), location.getBlockY(), location.getBlockZ());
+  }
+
+  /**
+   * Packs block coordinates into single long, 26 bits for x and z and 12 bits for y
+   */
+  public static long pack(int x, int y, int z) {
+    return ((long) x & 0x3FFFFFF) << 38 | ((long) z & 0x3FFFFFF) << 12 | (long) y & 0xFFF;
+  }
+
+  public boolean isEmpty() {
+    return keys.length == 0;
+  }
+
+  /**
+   * Checks whether location is inside bounding box of all doors expanded by given radius.
+   *
+   * @param location location to check
+   * @param radius   expansion of doors bounding box in blocks
+   * @return true if location may be near a door
+   */
+  public boolean isNear(Location location, double radius) {
+    if (keys.length == 0 || location.getWorld() != world) {
+      return false;
+    }
+    return location.getX() >= minX - radius && location.getX() <= maxX + 1 + radius
+            && location.getY() >= minY - radius && location.getY() <= maxY + 1 + radius
+            && location.getZ() >= minZ - radius && location.getZ() <= maxZ + 1 + radius;
+  }
+
+  /**
+   * Checks whether location is within given radius of any door block.
+   *
+   * @param location location to check
+   * @param radius   maximum distance from door block in blocks
+   * @return true if location is near a door
+   */
+  public boolean isNearDoor(Location location, double radius) {
+    if (!isNear(location, radius)) {
+      return false;
+    }
+    double radiusSquared = radius * radius;
+    for (Location door : locations) {
+      double dx = location.getX() - (door.getBlockX() + 0.5);
+      double dy = location.getY() - (door.getBlockY() + 0.5);
+      double dz = location.getZ() - (door.getBlockZ() + 0.5);
+      if (dx * dx + dy * dy + dz * dz <= radiusSquared) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * @return index of door at given block or -1 if there is no door block
+   */
+  public int indexOf(int x, int y, int z) {
+    int index = Arrays.binarySearch(keys, pack(x, y, z));
+    return index < 0 ? -1 : index;
+  }
+
+  public Location getLocation(int index) {
+    return locations[index];
+  }
+
+  /**
+   * Adds one hit to door block.
+   *
+   * @param index door index
+   * @return hits door block received since last reset
+   */
+  public int damage(int index) {
+    if (damage[index] < Byte.MAX_VALUE) {
+      damage[index]++;
+    }
+    return damage[index];
+  }
+
+  public void resetDamage(int index) {
+    damage[index] = 0;
+  }
+
+  void resetAllDamage() {
+    Arrays.fill(damage, (byte) 0);
+  }
+
+}
@@ -0,0 +1,257 @@
+/*
+ * Village Defense 3 - Protect villagers from hordes of zombies
+ * Copyright (C) 2018  Plajer's Lair - maintained by Plajer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.plajer.villagedefense3.arena;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.WorldCreator;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import pl.plajer.villagedefense3.Main;
+import pl.plajer.villagedefense3.handlers.ChatManager;
+
+/**
+ * Fresh copy of template world arena is played in.
+ * <p>
+ * Template world folder is copied asynchronously under unique name and loaded for every game,
+ * used copy is unloaded and deleted when game ends so map never needs to be restored.
+ *
+ * @author Plajer
+ * <p>
+ * Created at 18.10.2018
+ */
+public class InstanceWorld {
+
+  private static final Main plugin = JavaPlugin.getPlugin(Main.class);
+  private final Arena arena;
+  private final String template;
+  //world arena locations currently point to, template world until first copy is loaded
+  private World boundWorld;
+  private World world;
+  private int copyCounter = 0;
+  private boolean preparing = false;
+  private boolean used = false;
+  //set once arena is unregistered, copy being prepared is deleted instead of loaded
+  private volatile boolean disposed = false;
+
+  public InstanceWorld(Arena arena, String template) {
+    this.arena = arena;
+    this.template = template;
+  }
+
+  public String getTemplate() {
+    return template;
+  }
+
+  /**
+   * @return true if fresh copy is loaded and arena is bound to it
+   */
+  public boolean isReady() {
+    return world != null && !preparing;
+  }
+
+  /**
+   * @return true if game was played in current copy and copy must be replaced
+   */
+  boolean isUsed() {
+    return used;
+  }
+
+  void markUsed() {
+    used = true;
+  }
+
+  /**
+   * Unloads current copy and prepares new one, arena is bound to new copy once it's loaded.
+   * Does nothing if copy is already being prepared.
+   */
+  void prepare() {
+    if (preparing) {
+      return;
+    }
+    preparing = true;
+    used = false;
+    if (boundWorld == null) {
+      //arena points are set up in template world
+      boundWorld = arena.getStartLocation().getWorld();
+    }
+    arena.releaseChunks();
+    File oldFolder = unloadCopy();
+    //loaded template world is saved first so its files aren't copied while being written
+    World templateWorld = Bukkit.getWorld(template);
+    if (templateWorld != null) {
+      templateWorld.save();
+    }
+    String name = template + "_vd_" + arena.getID() + "_" + copyCounter++;
+    File container = Bukkit.getWorldContainer();
+    Path target = new File(container, name).toPath();
+    Main.debug("Preparing world " + name + " for arena " + arena.getID(), System.currentTimeMillis());
+    Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+      try {
+        if (oldFolder != null) {
+          delete(oldFolder.toPath());
+        }
+        delete(target);
+        if (disposed) {
+          return;
+        }
+        copy(new File(container, template).toPath(), target);
+      } catch (IOException ex) {
+        ex.printStackTrace();
+        deleteQuietly(target);
+        Bukkit.getScheduler().runTask(plugin, () -> {
+          Bukkit.getConsoleSender().sendMessage(ChatManager.PLUGIN_PREFIX + "Failed to copy template world " + template + " for arena " + arena.getID() + "!");
+          fallBackToTemplate();
+        });
+        return;
+      }
+      Bukkit.getScheduler().runTask(plugin, () -> {
+        if (disposed) {
+          //arena was unregistered while copying
+          Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> deleteQuietly(target));
+          return;
+        }
+        World created = new WorldCreator(name).createWorld();
+        if (created == null) {
+          Bukkit.getConsoleSender().sendMessage(ChatManager.PLUGIN_PREFIX + "Failed to load world " + name + " of arena " + arena.getID() + "!");
+          Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> deleteQuietly(target));
+          fallBackToTemplate();
+          return;
+        }
+        created.setAutoSave(false);
+        arena.bindWorld(boundWorld, created);
+        boundWorld = created;
+        world = created;
+        preparing = false;
+        Main.debug("World " + name + " of arena " + arena.getID() + " is ready", System.currentTimeMillis());
+      });
+    });
+  }
+
+  /**
+   * Stops instancing after copy failed, arena is played in template world restored by block journal.
+   * Without this restarting arena would copy template world again every second.
+   */
+  private void fallBackToTemplate() {
+    preparing = false;
+    if (disposed) {
+      return;
+    }
+    World templateWorld = Bukkit.getWorld(template);
+    if (templateWorld == null) {
+      templateWorld = new WorldCreator(template).createWorld();
+    }
+    arena.setInstanceWorld(null);
+    //journaled blocks belong to unloaded copy
+    arena.getBlockJournal().clear();
+    if (templateWorld == null) {
+      Bukkit.getConsoleSender().sendMessage(ChatManager.PLUGIN_PREFIX + "Template world " + template + " can't be loaded, arena " + arena.getID() + " is disabled!");
+      arena.setReady(false);
+      return;
+    }
+    Bukkit.getConsoleSender().sendMessage(ChatManager.PLUGIN_PREFIX + "Arena " + arena.getID() + " will be played in template world " + template + " without instancing!");
+    arena.bindWorld(boundWorld, templateWorld);
+    boundWorld = templateWorld;
+  }
+
+  /**
+   * Unloads and deletes current copy synchronously, used when plugin disables or arena is unregistered.
+   * Copy which is still being prepared is deleted once copying finishes.
+   */
+  void dispose() {
+    disposed = true;
+    File folder = unloadCopy();
+    if (folder == null) {
+      return;
+    }
+    try {
+      delete(folder.toPath());
+    } catch (IOException ex) {
+      ex.printStackTrace();
+    }
+  }
+
+  /**
+   * @return folder of unloaded copy or null if there was no copy to delete
+   */
+  private File unloadCopy() {
+    if (world == null) {
+      return null;
+    }
+    World copy = world;
+    world = null;
+    Location end = arena.getEndLocation();
+    for (Player player : copy.getPlayers()) {
+      player.teleport(end != null && end.getWorld() != copy ? end : Bukkit.getWorlds().get(0).getSpawnLocation());
+    }
+    if (!Bukkit.unloadWorld(copy, false)) {
+      Bukkit.getConsoleSender().sendMessage(ChatManager.PLUGIN_PREFIX + "Failed to unload world " + copy.getName() + " of arena " + arena.getID() + "!");
+      return null;
+    }
+    return copy.getWorldFolder();
+  }
+
+  private static void copy(Path source, Path target) throws IOException {
+    try (Stream<Path> paths = Files.walk(source)) {
+      for (Path path : (Iterable<Path>) paths::iterator) {
+        String fileName = path.getFileName().toString();
+        //copies can't share lock and unique id of template world
+        if (fileName.equals("session.lock") || fileName.equals("uid.dat")) {
+          continue;
+        }
+        Path destination = target.resolve(source.relativize(path).toString());
+        if (Files.isDirectory(path)) {
+          Files.createDirectories(destination);
+        } else {
+          Files.copy(path, destination, StandardCopyOption.REPLACE_EXISTING);
+        }
+      }
+    }
+  }
+
+  private static void deleteQuietly(Path path) {
+    try {
+      delete(path);
+    } catch (IOException ex) {
+      ex.printStackTrace();
+    }
+  }
+
+  private static void delete(Path path) throws IOException {
+    if (!Files.exists(path)) {
+      return;
+    }
+    try (Stream<Path> paths = Files.walk(path)) {
+      for (Path file : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+        Files.delete(file);
+      }
+    }
+  }
+
+}
@@ -0,0 +1,155 @@
+/*
+ * Village Defense 3 - Protect villagers from hordes of zombies
+ * Copyright (C) 2018  Plajer's Lair - maintained by Plajer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.plajer.villagedefense3.arena;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import pl.plajer.villagedefense3.handlers.ChatManager;
+import pl.plajer.villagedefense3.handlers.language.LanguageManager;
+
+/**
+ * Scoreboard lines parsed into literal segments and placeholder slots.
+ * <p>
+ * Templates are compiled once per loaded language and rendered from
+ * placeholder values computed once per arena tick.
+ *
+ * @author Plajer
+ * <p>
+ * Created at 18.10.2018
+ */
+public class ScoreboardTemplate {
+
+  private static final Map<String, ScoreboardTemplate> templates = new HashMap<>();
+  //language catalog version cached templates were compiled from
+  private static int catalogVersion = -1;
+
+  private final List<Line> lines;
+
+  private ScoreboardTemplate(List<String> source) {
+    List<Line> compiled = new ArrayList<>(source.size());
+    for (String line : source) {
+      compiled.add(new Line(line));
+    }
+    this.lines = Collections.unmodifiableList(compiled);
+  }
+
+  /**
+   * Returns compiled scoreboard content from language file,
+   * content is compiled again only if language was reloaded.
+   *
+   * @param path language path of scoreboard content
+   * @return compiled template
+   */
+  static ScoreboardTemplate get(String path) {
+    if (catalogVersion != LanguageManager.getCatalogVersion()) {
+      catalogVersion = LanguageManager.getCatalogVersion();
+      templates.clear();
+    }
+    ScoreboardTemplate template = templates.get(path);
+    if (template == null) {
+      template = new ScoreboardTemplate(LanguageManager.getLanguageList(path));
+      templates.put(path, template);
+    }
+    return template;
+  }
+
+  int size() {
+    return lines.size();
+  }
+
+  /**
+   * Renders line with given placeholder values.
+   *
+   * @param index   line index
+   * @param builder reused builder, it's cleared before rendering
+   * @param values  placeholder values indexed by {@link Placeholder#ordinal()}
+   * @return rendered line
+   */
+  String render(int index, StringBuilder builder, int[] values) {
+    Line line = lines.get(index);
+    if (line.slots.length == 0) {
+      return line.literals[0];
+    }
+    builder.setLength(0);
+    for (int i = 0; i < line.slots.length; i++) {
+      builder.append(line.literals[i]).append(values[line.slots[i].ordinal()]);
+    }
+    builder.append(line.literals[line.slots.length]);
+    return builder.toString();
+  }
+
+  public enum Placeholder {
+    TIME("%TIME%"), PLAYERS("%PLAYERS%"), MIN_PLAYERS("%MIN_PLAYERS%"), PLAYERS_LEFT("%PLAYERS_LEFT%"), VILLAGERS("%VILLAGERS%"),
+    ORBS("%ORBS%"), ZOMBIES("%ZOMBIES%"), ROTTEN_FLESH("%ROTTEN_FLESH%");
+
+    private final String token;
+
+    Placeholder(String token) {
+      this.token = token;
+    }
+
+    public String getToken() {
+      return token;
+    }
+  }
+
+  private static class Line {
+
+    //literals always have one element more than slots, slot i is placed after literal i
+    private final String[] literals;
+    private final Placeholder[] slots;
+
+    Line(String raw) {
+      List<String> literalList = new ArrayList<>();
+      List<Placeholder> slotList = new ArrayList<>();
+      StringBuilder literal = new StringBuilder();
+      int i = 0;
+      while (i < raw.length()) {
+        Placeholder placeholder = raw.charAt(i) == '%' ? findPlaceholder(raw, i) : null;
+        if (placeholder == null) {
+          literal.append(raw.charAt(i));
+          i++;
+          continue;
+        }
+        literalList.add(ChatManager.colorRawMessage(literal.toString()));
+        slotList.add(placeholder);
+        literal.setLength(0);
+        i += placeholder.getToken().length();
+      }
+      literalList.add(ChatManager.colorRawMessage(literal.toString()));
+      this.literals = literalList.toArray(new String[0]);
+      this.slots = slotList.toArray(new Placeholder[0]);
+    }
+
+    private static Placeholder findPlaceholder(String raw, int index) {
+      for (Placeholder placeholder : Placeholder.values()) {
+        if (raw.startsWith(placeholder.getToken(), index)) {
+          return placeholder;
+        }
+      }
+      return null;
+    }
+
+  }
+
+}
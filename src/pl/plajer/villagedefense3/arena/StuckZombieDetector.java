@@ -0,0 +1,255 @@
+/*
+ * Village Defense 3 - Protect villagers from hordes of zombies
+ * Copyright (C) 2018  Plajer's Lair - maintained by Plajer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.plajer.villagedefense3.arena;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.bukkit.Location;
+import org.bukkit.entity.LivingEntity;
+import org.bukkit.entity.Villager;
+import org.bukkit.entity.Zombie;
+
+import pl.plajer.villagedefense3.handlers.Settings;
+
+/**
+ * Detects zombies that stopped making progress towards villagers.
+ * <p>
+ * Zombies are sampled a slice per server tick so each of them is checked once
+ * per Stuck-Zombies.Check-Interval. Sample state is kept in primitive arrays
+ * and positions are read into reused locations. Zombie is stuck if it didn't get
+ * closer to nearest villager by Stuck-Zombies.Min-Progress blocks, isn't breaking a door
+ * and isn't fighting target in attack range; after two such samples in row it's teleported to zombie spawn,
+ * when it gets stuck again it's removed.
+ *
+ * @author Plajer
+ * <p>
+ * Created at 18.10.2018
+ */
+class StuckZombieDetector {
+
+  //zombies this close to villager are attacking, not stuck
+  private static final double ATTACK_RANGE_SQUARED = 3.5 * 3.5;
+  //zombies this close to door are breaking it, which takes many seconds
+  private static final double DOOR_RANGE = 2.5;
+  //stationary samples in row before zombie is teleported
+  private static final int STRIKES_TO_TELEPORT = 2;
+
+  private final Arena arena;
+  private final Map<Zombie, Integer> indexes = new HashMap<>();
+  private final Location location = new Location(null, 0, 0, 0);
+  private final Location otherLocation = new Location(null, 0, 0, 0);
+  private final List<Zombie> stuckZombies = new ArrayList<>();
+  private Zombie[] zombies = new Zombie[64];
+  private double[] lastDistancesSquared = new double[64];
+  private byte[] strikes = new byte[64];
+  private boolean[] teleported = new boolean[64];
+  private int size = 0;
+  private int cursor = 0;
+  private int tick = 0;
+  private double[] villagerX = new double[16];
+  private double[] villagerY = new double[16];
+  private double[] villagerZ = new double[16];
+  private int villagerCount = 0;
+
+  StuckZombieDetector(Arena arena) {
+    this.arena = arena;
+  }
+
+  void track(Zombie zombie) {
+    if (indexes.containsKey(zombie)) {
+      return;
+    }
+    if (size == zombies.length) {
+      zombies = Arrays.copyOf(zombies, size * 2);
+      lastDistancesSquared = Arrays.copyOf(lastDistancesSquared, size * 2);
+      strikes = Arrays.copyOf(strikes, size * 2);
+      teleported = Arrays.copyOf(teleported, size * 2);
+    }
+    zombies[size] = zombie;
+    lastDistancesSquared[size] = Double.NaN;
+    strikes[size] = 0;
+    teleported[size] = false;
+    indexes.put(zombie, size);
+    size++;
+  }
+
+  void untrack(Zombie zombie) {
+    Integer index = indexes.remove(zombie);
+    if (index == null) {
+      return;
+    }
+    //move last zombie into freed slot
+    int last = size - 1;
+    if (index != last) {
+      zombies[index] = zombies[last];
+      lastDistancesSquared[index] = lastDistancesSquared[last];
+      strikes[index] = strikes[last];
+      teleported[index] = teleported[last];
+      indexes.put(zombies[index], index);
+    }
+    zombies[last] = null;
+    size--;
+  }
+
+  void clear() {
+    Arrays.fill(zombies, 0, size, null);
+    indexes.clear();
+    size = 0;
+    cursor = 0;
+  }
+
+  /**
+   * Samples next slice of zombies, should be called every server tick while game is running.
+   */
+  void tick() {
+    if (size == 0) {
+      return;
+    }
+    int intervalTicks = Settings.get().getStuckZombieCheckInterval() * 20;
+    //snapshot villager positions once per second, they are needed for every sample
+    if (tick++ % 20 == 0) {
+      snapshotVillagers(arena.getVillagerSet());
+    }
+    if (villagerCount == 0) {
+      return;
+    }
+    int slice = (size + intervalTicks - 1) / intervalTicks;
+    double minProgress = Settings.get().getStuckZombieMinProgress();
+    for (int i = 0; i < slice && size > 0; i++) {
+      if (cursor >= size) {
+        cursor = 0;
+      }
+      sample(cursor, minProgress);
+      cursor++;
+    }
+    for (Zombie zombie : stuckZombies) {
+      arena.handleStuckZombie(zombie, teleported[indexes.get(zombie)]);
+    }
+    stuckZombies.clear();
+  }
+
+  /**
+   * Resets progress and strikes of zombie so it's measured again from current position, used after teleports.
+   * Zombie is marked as teleported so next time it gets stuck it's removed.
+   */
+  void resetProgress(Zombie zombie) {
+    Integer index = indexes.get(zombie);
+    if (index != null) {
+      lastDistancesSquared[index] = Double.NaN;
+      strikes[index] = 0;
+      teleported[index] = true;
+    }
+  }
+
+  private void sample(int index, double minProgress) {
+    Zombie zombie = zombies[index];
+    if (!zombie.isValid()) {
+      return;
+    }
+    zombie.getLocation(location);
+    double distanceSquared = getNearestVillagerDistanceSquared();
+    double lastDistanceSquared = lastDistancesSquared[index];
+    lastDistancesSquared[index] = distanceSquared;
+    //first sample after spawn or teleport is only a starting point
+    if (Double.isNaN(lastDistanceSquared)) {
+      return;
+    }
+    if (distanceSquared <= ATTACK_RANGE_SQUARED || isFightingTarget(zombie)
+            || madeProgress(distanceSquared, lastDistanceSquared, minProgress)
+            || arena.getDoorIndex().isNearDoor(location, DOOR_RANGE)) {
+      strikes[index] = 0;
+      return;
+    }
+    strikes[index]++;
+    //single stationary sample may be just a pause
+    if (strikes[index] >= STRIKES_TO_TELEPORT) {
+      stuckZombies.add(zombie);
+    }
+  }
+
+  /**
+   * Zombies fighting living target in attack range (player or golem blocking them) aren't stuck,
+   * zombies only targeting something they can't reach are.
+   */
+  private boolean isFightingTarget(Zombie zombie) {
+    LivingEntity target = zombie.getTarget();
+    if (target == null || !target.isValid() || target.isDead() || target.getWorld() != location.getWorld()) {
+      return false;
+    }
+    target.getLocation(otherLocation);
+    return squaredDistance(otherLocation.getX(), otherLocation.getY(), otherLocation.getZ()) <= ATTACK_RANGE_SQUARED;
+  }
+
+  /**
+   * Checks distance + minProgress <= lastDistance using squared distances only.
+   * Squaring it gives 2 * distance * minProgress <= lastDistance^2 - distance^2 - minProgress^2
+   * which is squared once more when right side isn't negative.
+   */
+  private static boolean madeProgress(double distanceSquared, double lastDistanceSquared, double minProgress) {
+    double minProgressSquared = minProgress * minProgress;
+    double difference = lastDistanceSquared - distanceSquared - minProgressSquared;
+    if (difference < 0) {
+      return false;
+    }
+    return 4 * minProgressSquared * distanceSquared <= difference * difference;
+  }
+
+  private double getNearestVillagerDistanceSquared() {
+    double nearest = Double.MAX_VALUE;
+    for (int i = 0; i < villagerCount; i++) {
+      double distance = squaredDistance(villagerX[i], villagerY[i], villagerZ[i]);
+      if (distance < nearest) {
+        nearest = distance;
+      }
+    }
+    return nearest;
+  }
+
+  private double squaredDistance(double x, double y, double z) {
+    double dx = location.getX() - x;
+    double dy = location.getY() - y;
+    double dz = location.getZ() - z;
+    return dx * dx + dy * dy + dz * dz;
+  }
+
+  private void snapshotVillagers(Set<Villager> villagers) {
+    if (villagers.size() > villagerX.length) {
+      villagerX = new double[villagers.size()];
+      villagerY = new double[villagers.size()];
+      villagerZ = new double[villagers.size()];
+    }
+    villagerCount = 0;
+    for (Villager villager : villagers) {
+      if (!villager.isValid()) {
+        continue;
+      }
+      villager.getLocation(otherLocation);
+      villagerX[villagerCount] = otherLocation.getX();
+      villagerY[villagerCount] = otherLocation.getY();
+      villagerZ[villagerCount] = otherLocation.getZ();
+      villagerCount++;
+    }
+  }
+
+}
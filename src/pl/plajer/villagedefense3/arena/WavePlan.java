@@ -0,0 +1,69 @@
+/*
+ * Village Defense 3 - Protect villagers from hordes of zombies
+ * Copyright (C) 2018  Plajer's Lair - maintained by Plajer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.plajer.villagedefense3.arena;
+
+/**
+ * Precomputed spawn schedule of single wave.
+ *
+ * @author Plajer
+ * <p>
+ * Created at 18.10.2018
+ */
+public class WavePlan {
+
+  private final int wave;
+  private final ZombieType[] spawns;
+  private final int zombiesPerSecond;
+
+  WavePlan(int wave, ZombieType[] spawns, int zombiesPerSecond) {
+    this.wave = wave;
+    this.spawns = spawns;
+    this.zombiesPerSecond = zombiesPerSecond;
+  }
+
+  public int getWave() {
+    return wave;
+  }
+
+  /**
+   * @return amount of zombies planned for this wave
+   */
+  public int getSize() {
+    return spawns.length;
+  }
+
+  /**
+   * Returns zombie planned at given position.
+   * Plan starts over if more zombies are needed than were planned.
+   *
+   * @param position position in wave
+   * @return type of zombie to spawn
+   */
+  public ZombieType getSpawn(int position) {
+    if (spawns.length == 0) {
+      return ZombieType.FAST;
+    }
+    return spawns[position % spawns.length];
+  }
+
+  public int getZombiesPerSecond() {
+    return zombiesPerSecond;
+  }
+
+}
@@ -0,0 +1,152 @@
+/*
+ * Village Defense 3 - Protect villagers from hordes of zombies
+ * Copyright (C) 2018  Plajer's Lair - maintained by Plajer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.plajer.villagedefense3.arena;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.bukkit.Bukkit;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.FileConfiguration;
+
+import pl.plajer.villagedefense3.Main;
+import pl.plajer.villagedefense3.handlers.ConfigurationManager;
+
+/**
+ * Builds wave spawn schedules from composition tables in waves.yml.
+ * <p>
+ * Loaded tables are immutable so plans can be built asynchronously.
+ *
+ * @author Plajer
+ * <p>
+ * Created at 18.10.2018
+ */
+public class WavePlanner {
+
+  private static volatile List<WaveTable> tables = Collections.emptyList();
+
+  /**
+   * Loads composition tables from waves.yml
+   */
+  public static void loadTables() {
+    FileConfiguration config = ConfigurationManager.getConfig("waves");
+    List<WaveTable> loaded = new ArrayList<>();
+    ConfigurationSection section = config.getConfigurationSection("Waves");
+    if (section != null) {
+      for (String key : section.getKeys(false)) {
+        String path = "Waves." + key + ".";
+        Map<ZombieType, Integer> weights = new EnumMap<>(ZombieType.class);
+        if (config.isConfigurationSection(path + "Weights")) {
+          for (String type : config.getConfigurationSection(path + "Weights").getKeys(false)) {
+            try {
+              int weight = config.getInt(path + "Weights." + type);
+              if (weight > 0) {
+                weights.put(ZombieType.valueOf(type.toUpperCase()), weight);
+              }
+            } catch (IllegalArgumentException ex) {
+              Bukkit.getConsoleSender().sendMessage("[Village Defense] Unknown zombie type " + type + " in waves.yml (" + key + ")!");
+            }
+          }
+        }
+        if (weights.isEmpty()) {
+          Bukkit.getConsoleSender().sendMessage("[Village Defense] Wave range " + key + " in waves.yml has no zombies, skipping!");
+          continue;
+        }
+        loaded.add(new WaveTable(config.getInt(path + "From-Wave", 1), config.getDouble(path + "Zombies-Per-Second", 1.0),
+                config.getDouble(path + "Zombies-Per-Second-Per-Wave", 0.0), weights));
+      }
+    }
+    loaded.sort((first, second) -> Integer.compare(first.fromWave, second.fromWave));
+    tables = Collections.unmodifiableList(loaded);
+    Main.debug("Loaded " + loaded.size() + " wave composition tables", System.currentTimeMillis());
+  }
+
+  /**
+   * Builds complete spawn schedule of given wave.
+   * Safe to call from any thread.
+   *
+   * @param wave   wave to plan
+   * @param amount amount of zombies in wave
+   * @param random random used to roll zombie types
+   * @return wave plan
+   */
+  public static WavePlan plan(int wave, int amount, Random random) {
+    WaveTable table = getTable(wave);
+    ZombieType[] spawns = new ZombieType[Math.max(amount, 0)];
+    if (table == null) {
+      for (int i = 0; i < spawns.length; i++) {
+        spawns[i] = ZombieType.FAST;
+      }
+      return new WavePlan(wave, spawns, 1);
+    }
+    for (int i = 0; i < spawns.length; i++) {
+      spawns[i] = table.roll(random);
+    }
+    int perSecond = (int) Math.max(1, Math.round(table.zombiesPerSecond + table.zombiesPerSecondPerWave * wave));
+    return new WavePlan(wave, spawns, perSecond);
+  }
+
+  private static WaveTable getTable(int wave) {
+    WaveTable found = null;
+    for (WaveTable table : tables) {
+      if (table.fromWave <= wave) {
+        found = table;
+      }
+    }
+    return found;
+  }
+
+  private static class WaveTable {
+
+    private final int fromWave;
+    private final double zombiesPerSecond;
+    private final double zombiesPerSecondPerWave;
+    private final ZombieType[] types;
+    private final int[] cumulativeWeights;
+
+    WaveTable(int fromWave, double zombiesPerSecond, double zombiesPerSecondPerWave, Map<ZombieType, Integer> weights) {
+      this.fromWave = fromWave;
+      this.zombiesPerSecond = zombiesPerSecond;
+      this.zombiesPerSecondPerWave = zombiesPerSecondPerWave;
+      this.types = weights.keySet().toArray(new ZombieType[0]);
+      this.cumulativeWeights = new int[types.length];
+      int total = 0;
+      for (int i = 0; i < types.length; i++) {
+        total += weights.get(types[i]);
+        cumulativeWeights[i] = total;
+      }
+    }
+
+    ZombieType roll(Random random) {
+      int rolled = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+      for (int i = 0; i < cumulativeWeights.length; i++) {
+        if (rolled < cumulativeWeights[i]) {
+          return types[i];
+        }
+      }
+      return types[types.length - 1];
+    }
+
+  }
+
+}
@@ -0,0 +1,123 @@
+/*
+ * Village Defense 3 - Protect villagers from hordes of zombies
+ * Copyright (C) 2018  Plajer's Lair - maintained by Plajer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.plajer.villagedefense3.arena;
+
+import java.util.List;
+
+import org.bukkit.scheduler.BukkitRunnable;
+
+import pl.plajer.villagedefense3.handlers.Settings;
+import pl.plajer.villagedefense3.handlers.TickProfiler;
+
+/**
+ * Drains zombie spawn queues of all arenas every tick.
+ * <p>
+ * Amount of zombies spawned in one tick across all arenas is limited
+ * by Zombie-Spawn-Limit-Per-Tick so big waves don't spawn in one burst.
+ *
+ * @author Plajer
+ * <p>
+ * Created at 18.10.2018
+ */
+public class ZombieSpawnScheduler extends BukkitRunnable {
+
+  private static long spawnedZombies;
+  private static long totalSpawnLatency;
+  private static long maxSpawnLatency;
+  private static int queueDepth;
+  private static int maxQueueDepth;
+  private int nextArena;
+
+  static void recordSpawn(long latencyMillis) {
+    spawnedZombies++;
+    totalSpawnLatency += latencyMillis;
+    if (latencyMillis > maxSpawnLatency) {
+      maxSpawnLatency = latencyMillis;
+    }
+  }
+
+  /**
+   * @return amount of zombies spawned from queues since server start
+   */
+  public static long getSpawnedZombies() {
+    return spawnedZombies;
+  }
+
+  /**
+   * @return average time in milliseconds zombie waited in queue before spawning
+   */
+  public static double getAverageSpawnLatency() {
+    return spawnedZombies == 0 ? 0 : (double) totalSpawnLatency / spawnedZombies;
+  }
+
+  /**
+   * @return longest time in milliseconds zombie waited in queue before spawning
+   */
+  public static long getMaxSpawnLatency() {
+    return maxSpawnLatency;
+  }
+
+  /**
+   * @return amount of zombies waiting in queues of all arenas at the end of last tick
+   */
+  public static int getQueueDepth() {
+    return queueDepth;
+  }
+
+  /**
+   * @return highest amount of zombies waiting in queues of all arenas in single tick
+   */
+  public static int getMaxQueueDepth() {
+    return maxQueueDepth;
+  }
+
+  @Override
+  public void run() {
+    List<Arena> arenas = ArenaRegistry.getArenas();
+    int budget = Settings.get().getZombieSpawnLimitPerTick();
+    int depth = 0;
+    int size = arenas.size();
+    if (nextArena >= size) {
+      nextArena = 0;
+    }
+    //start from different arena every tick so none of them is always last in line
+    for (int i = 0; i < size; i++) {
+      Arena arena = arenas.get((nextArena + i) % size);
+      if (arena.getSpawnQueueSize() == 0) {
+        continue;
+      }
+      if (arena.getArenaState() != ArenaState.IN_GAME) {
+        arena.clearSpawnQueue();
+        continue;
+      }
+      if (budget > 0) {
+        long start = TickProfiler.start();
+        budget -= arena.spawnQueuedZombies(budget);
+        TickProfiler.stop(arena.getID(), TickProfiler.Phase.SPAWN, start);
+      }
+      depth += arena.getSpawnQueueSize();
+    }
+    nextArena++;
+    queueDepth = depth;
+    if (depth > maxQueueDepth) {
+      maxQueueDepth = depth;
+    }
+  }
+
+}
@@ -0,0 +1,72 @@
+/*
+ * Village Defense 3 - Protect villagers from hordes of zombies
+ * Copyright (C) 2018  Plajer's Lair - maintained by Plajer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.plajer.villagedefense3.arena;
+
+import java.util.Random;
+
+import org.bukkit.Material;
+import org.bukkit.potion.PotionEffectType;
+
+import pl.plajer.villagedefense3.creatures.EntityTemplate;
+
+/**
+ * @author Plajer
+ * <p>
+ * Types of zombies that can be spawned in waves, names are used in waves.yml.
+ * Every type holds prebuilt template applied to spawned zombie.
+ */
+public enum ZombieType {
+  FAST(EntityTemplate.builder()),
+  BABY(EntityTemplate.builder()),
+  HARD(EntityTemplate.builder()
+          .armor(Material.DIAMOND_HELMET, Material.DIAMOND_CHESTPLATE, Material.DIAMOND_LEGGINGS, Material.DIAMOND_BOOTS)),
+  SOFT_HARD(EntityTemplate.builder()
+          .armor(Material.IRON_HELMET, Material.IRON_CHESTPLATE, Material.IRON_LEGGINGS, Material.IRON_BOOTS)),
+  PLAYER_BUSTER(EntityTemplate.builder()
+          .armor(Material.TNT, Material.GOLD_CHESTPLATE, Material.GOLD_LEGGINGS, Material.GOLD_BOOTS)
+          .noEquipmentDrops()),
+  GOLEM_BUSTER(EntityTemplate.builder()
+          .helmet(Material.TNT)
+          .noEquipmentDrops()),
+  HALF_INVISIBLE(EntityTemplate.builder()
+          .boots(Material.CHAINMAIL_BOOTS)
+          .effect(PotionEffectType.INVISIBILITY, Integer.MAX_VALUE, 1)),
+  KNOCKBACK_RESISTANT(EntityTemplate.builder()
+          .armor(Material.DIAMOND_HELMET, Material.DIAMOND_CHESTPLATE, Material.DIAMOND_LEGGINGS, Material.DIAMOND_BOOTS)
+          .mainHand(Material.GOLD_AXE)
+          .knockbackResistance(1.0)),
+  VILLAGER_SLAYER(EntityTemplate.builder()
+          .armor(Material.CHAINMAIL_HELMET, Material.CHAINMAIL_CHESTPLATE, Material.CHAINMAIL_LEGGINGS, Material.CHAINMAIL_BOOTS)
+          .mainHand(Material.EMERALD)
+          .noEquipmentDrops());
+
+  private final EntityTemplate template;
+
+  ZombieType(EntityTemplate.Builder template) {
+    this.template = template.build();
+  }
+
+  public EntityTemplate getTemplate() {
+    return template;
+  }
+
+  void spawn(Arena arena, Random random) {
+    arena.spawnZombie(this, random);
+  }
+}
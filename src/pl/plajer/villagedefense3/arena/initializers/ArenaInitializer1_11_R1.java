@@ -18,25 +18,23 @@
 
 package pl.plajer.villagedefense3.arena.initializers;
 
-import java.util.Random;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Function;
 
-import net.minecraft.server.v1_11_R1.GenericAttributes;
+import net.minecraft.server.v1_11_R1.EntityZombie;
 
 import org.bukkit.Location;
-import org.bukkit.Material;
 import org.bukkit.craftbukkit.v1_11_R1.CraftWorld;
 import org.bukkit.entity.Player;
 import org.bukkit.entity.Villager;
 import org.bukkit.entity.Wolf;
 import org.bukkit.entity.Zombie;
 import org.bukkit.event.entity.CreatureSpawnEvent;
-import org.bukkit.inventory.ItemStack;
-import org.bukkit.potion.PotionEffect;
-import org.bukkit.potion.PotionEffectType;
 
 import pl.plajer.villagedefense3.Main;
 import pl.plajer.villagedefense3.arena.Arena;
-import pl.plajer.villagedefense3.creatures.CreatureUtils;
+import pl.plajer.villagedefense3.arena.ZombieType;
 import pl.plajer.villagedefense3.creatures.v1_11_R1.BabyZombie;
 import pl.plajer.villagedefense3.creatures.v1_11_R1.FastZombie;
 import pl.plajer.villagedefense3.creatures.v1_11_R1.GolemBuster;
@@ -51,164 +49,31 @@ import pl.plajer.villagedefense3.handlers.ChatManager;
 
 public class ArenaInitializer1_11_R1 extends Arena {
 
-  public ArenaInitializer1_11_R1(String ID, Main plugin) {
-    super(ID, plugin);
-  }
-
-  public void spawnFastZombie(Random random) {
-    Location location = zombieSpawns.get(random.nextInt(zombieSpawns.size()));
-    net.minecraft.server.v1_11_R1.World mcWorld = ((CraftWorld) location.getWorld()).getHandle();
-    FastZombie fastZombie = new FastZombie(location.getWorld());
-    fastZombie.setPosition(location.getX(), location.getY(), location.getZ());
-    mcWorld.addEntity(fastZombie, CreatureSpawnEvent.SpawnReason.CUSTOM);
-    Zombie zombie = (Zombie) fastZombie.getBukkitEntity();
-    zombie.setRemoveWhenFarAway(false);
-    CreatureUtils.applyHealthBar(zombie);
-    this.addZombie((Zombie) fastZombie.getBukkitEntity());
-
-    super.subtractZombiesToSpawn();
-  }
-
-  @Override
-  public void spawnHalfInvisibleZombie(Random random) {
-    Location location = zombieSpawns.get(random.nextInt(zombieSpawns.size()));
-    net.minecraft.server.v1_11_R1.World mcWorld = ((CraftWorld) location.getWorld()).getHandle();
-    FastZombie fastZombie = new FastZombie(location.getWorld());
-    fastZombie.setPosition(location.getX(), location.getY(), location.getZ());
-    mcWorld.addEntity(fastZombie, CreatureSpawnEvent.SpawnReason.CUSTOM);
-    Zombie zombie = (Zombie) fastZombie.getBukkitEntity();
-    zombie.setRemoveWhenFarAway(false);
-    zombie.getEquipment().setBoots(new ItemStack(Material.CHAINMAIL_BOOTS));
-    zombie.addPotionEffect(new PotionEffect(PotionEffectType.INVISIBILITY, Integer.MAX_VALUE, 1));
-    CreatureUtils.applyHealthBar(zombie);
-    this.addZombie((Zombie) fastZombie.getBukkitEntity());
-
-    super.subtractZombiesToSpawn();
+  private static final Map<ZombieType, Function<org.bukkit.World, EntityZombie>> ZOMBIE_FACTORIES = new EnumMap<>(ZombieType.class);
+
+  static {
+    ZOMBIE_FACTORIES.put(ZombieType.FAST, FastZombie::new);
+    ZOMBIE_FACTORIES.put(ZombieType.HALF_INVISIBLE, FastZombie::new);
+    ZOMBIE_FACTORIES.put(ZombieType.BABY, BabyZombie::new);
+    ZOMBIE_FACTORIES.put(ZombieType.HARD, HardZombie::new);
+    ZOMBIE_FACTORIES.put(ZombieType.SOFT_HARD, HardZombie::new);
+    ZOMBIE_FACTORIES.put(ZombieType.KNOCKBACK_RESISTANT, TankerZombie::new);
+    ZOMBIE_FACTORIES.put(ZombieType.GOLEM_BUSTER, GolemBuster::new);
+    ZOMBIE_FACTORIES.put(ZombieType.PLAYER_BUSTER, PlayerBuster::new);
+    ZOMBIE_FACTORIES.put(ZombieType.VILLAGER_SLAYER, VillagerSlayer::new);
   }
 
-  @Override
-  public void spawnKnockbackResistantZombies(Random random) {
-    Location location = zombieSpawns.get(random.nextInt(zombieSpawns.size()));
-    net.minecraft.server.v1_11_R1.World mcWorld = ((CraftWorld) location.getWorld()).getHandle();
-    TankerZombie fastZombie = new TankerZombie(location.getWorld());
-    fastZombie.getAttributeInstance(GenericAttributes.c).setValue(Double.MAX_VALUE);
-    fastZombie.setPosition(location.getX(), location.getY(), location.getZ());
-    mcWorld.addEntity(fastZombie, CreatureSpawnEvent.SpawnReason.CUSTOM);
-    Zombie zombie = (Zombie) fastZombie.getBukkitEntity();
-    zombie.getEquipment().setItemInMainHand(new ItemStack(Material.GOLD_AXE));
-    zombie.getEquipment().setBoots(new ItemStack(Material.DIAMOND_BOOTS));
-    zombie.getEquipment().setLeggings(new ItemStack(Material.DIAMOND_LEGGINGS));
-    zombie.getEquipment().setChestplate(new ItemStack(Material.DIAMOND_CHESTPLATE));
-    zombie.getEquipment().setHelmet(new ItemStack(Material.DIAMOND_HELMET));
-    zombie.setRemoveWhenFarAway(false);
-    CreatureUtils.applyHealthBar(zombie);
-    this.addZombie((Zombie) fastZombie.getBukkitEntity());
-
-    super.subtractZombiesToSpawn();
-  }
-
-  public void spawnBabyZombie(Random random) {
-    Location location = zombieSpawns.get(random.nextInt(zombieSpawns.size()));
-    net.minecraft.server.v1_11_R1.World mcWorld = ((CraftWorld) location.getWorld()).getHandle();
-    BabyZombie fastZombie = new BabyZombie(location.getWorld());
-    fastZombie.setPosition(location.getX(), location.getY(), location.getZ());
-    Zombie zombie = (Zombie) fastZombie.getBukkitEntity();
-    CreatureUtils.applyHealthBar(zombie);
-    zombie.setRemoveWhenFarAway(false);
-    mcWorld.addEntity(fastZombie, CreatureSpawnEvent.SpawnReason.CUSTOM);
-    this.addZombie((Zombie) fastZombie.getBukkitEntity());
-
-    super.subtractZombiesToSpawn();
-  }
-
-  public void spawnHardZombie(Random random) {
-    Location location = zombieSpawns.get(random.nextInt(zombieSpawns.size()));
-    net.minecraft.server.v1_11_R1.World mcWorld = ((CraftWorld) location.getWorld()).getHandle();
-    HardZombie fastZombie = new HardZombie(location.getWorld());
-    fastZombie.setPosition(location.getX(), location.getY(), location.getZ());
-    mcWorld.addEntity(fastZombie, CreatureSpawnEvent.SpawnReason.CUSTOM);
-    Zombie zombie = (Zombie) fastZombie.getBukkitEntity();
-    zombie.getEquipment().setBoots(new ItemStack(Material.DIAMOND_BOOTS));
-    zombie.getEquipment().setLeggings(new ItemStack(Material.DIAMOND_LEGGINGS));
-    zombie.getEquipment().setChestplate(new ItemStack(Material.DIAMOND_CHESTPLATE));
-    zombie.getEquipment().setHelmet(new ItemStack(Material.DIAMOND_HELMET));
-    zombie.setRemoveWhenFarAway(false);
-    CreatureUtils.applyHealthBar(zombie);
-    this.addZombie(zombie);
-    super.subtractZombiesToSpawn();
+  public ArenaInitializer1_11_R1(String ID, Main plugin) {
+    super(ID, plugin);
   }
 
   @Override
-  public void spawnSoftHardZombie(Random random) {
-    Location location = zombieSpawns.get(random.nextInt(zombieSpawns.size()));
+  protected Zombie createZombie(ZombieType type, Location location) {
     net.minecraft.server.v1_11_R1.World mcWorld = ((CraftWorld) location.getWorld()).getHandle();
-    HardZombie fastZombie = new HardZombie(location.getWorld());
-    fastZombie.setPosition(location.getX(), location.getY(), location.getZ());
-    mcWorld.addEntity(fastZombie, CreatureSpawnEvent.SpawnReason.CUSTOM);
-    Zombie zombie = (Zombie) fastZombie.getBukkitEntity();
-    zombie.getEquipment().setBoots(new ItemStack(Material.IRON_BOOTS));
-    zombie.getEquipment().setLeggings(new ItemStack(Material.IRON_LEGGINGS));
-    zombie.getEquipment().setChestplate(new ItemStack(Material.IRON_CHESTPLATE));
-    zombie.getEquipment().setHelmet(new ItemStack(Material.IRON_HELMET));
-    zombie.setRemoveWhenFarAway(false);
-    CreatureUtils.applyHealthBar(zombie);
-    this.addZombie(zombie);
-    super.subtractZombiesToSpawn();
-  }
-
-  public void spawnGolemBuster(Random random) {
-    Location location = zombieSpawns.get(random.nextInt(zombieSpawns.size()));
-    net.minecraft.server.v1_11_R1.World mcWorld = ((CraftWorld) location.getWorld()).getHandle();
-    GolemBuster fastZombie = new GolemBuster(location.getWorld());
-    fastZombie.setPosition(location.getX(), location.getY(), location.getZ());
-    mcWorld.addEntity(fastZombie, CreatureSpawnEvent.SpawnReason.CUSTOM);
-    Zombie zombie = (Zombie) fastZombie.getBukkitEntity();
-    zombie.getEquipment().setHelmet(new ItemStack(Material.TNT));
-    zombie.getEquipment().setHelmetDropChance(0.0F);
-    zombie.getEquipment().setItemInMainHandDropChance(0F);
-    zombie.setRemoveWhenFarAway(false);
-    CreatureUtils.applyHealthBar(zombie);
-    this.addZombie(zombie);
-
-    super.subtractZombiesToSpawn();
-  }
-
-  public void spawnPlayerBuster(Random random) {
-    Location location = zombieSpawns.get(random.nextInt(zombieSpawns.size()));
-    net.minecraft.server.v1_11_R1.World mcWorld = ((CraftWorld) location.getWorld()).getHandle();
-    PlayerBuster fastZombie = new PlayerBuster(location.getWorld());
-    fastZombie.setPosition(location.getX(), location.getY(), location.getZ());
-    mcWorld.addEntity(fastZombie, CreatureSpawnEvent.SpawnReason.CUSTOM);
-    Zombie zombie = (Zombie) fastZombie.getBukkitEntity();
-    zombie.getEquipment().setHelmet(new ItemStack(Material.TNT));
-    zombie.getEquipment().setHelmetDropChance(0.0F);
-    zombie.getEquipment().setItemInMainHandDropChance(0F);
-    zombie.getEquipment().setBoots(new ItemStack(Material.GOLD_BOOTS));
-    zombie.getEquipment().setLeggings(new ItemStack(Material.GOLD_LEGGINGS));
-    zombie.getEquipment().setChestplate(new ItemStack(Material.GOLD_CHESTPLATE));
-    CreatureUtils.applyHealthBar(zombie);
-    this.addZombie(zombie);
-
-    super.subtractZombiesToSpawn();
-  }
-
-  public void spawnVillagerSlayer(Random random) {
-    Location location = zombieSpawns.get(random.nextInt(zombieSpawns.size() - 1));
-    net.minecraft.server.v1_11_R1.World mcWorld = ((CraftWorld) location.getWorld()).getHandle();
-    VillagerSlayer villagerSlayer = new VillagerSlayer(location.getWorld());
-    villagerSlayer.setPosition(location.getX(), location.getY(), location.getZ());
-    mcWorld.addEntity(villagerSlayer, CreatureSpawnEvent.SpawnReason.CUSTOM);
-    Zombie zombie = (Zombie) villagerSlayer.getBukkitEntity();
-    zombie.getEquipment().setItemInMainHand(new ItemStack(Material.EMERALD));
-    zombie.getEquipment().setItemInMainHandDropChance(0F);
-    zombie.getEquipment().setBoots(new ItemStack(Material.CHAINMAIL_BOOTS));
-    zombie.getEquipment().setLeggings(new ItemStack(Material.CHAINMAIL_LEGGINGS));
-    zombie.getEquipment().setChestplate(new ItemStack(Material.CHAINMAIL_CHESTPLATE));
-    zombie.getEquipment().setHelmet(new ItemStack(Material.CHAINMAIL_HELMET));
-    CreatureUtils.applyHealthBar(zombie);
-    this.addZombie(zombie);
-
-    super.subtractZombiesToSpawn();
+    EntityZombie entityZombie = ZOMBIE_FACTORIES.get(type).apply(location.getWorld());
+    entityZombie.setPosition(location.getX(), location.getY(), location.getZ());
+    mcWorld.addEntity(entityZombie, CreatureSpawnEvent.SpawnReason.CUSTOM);
+    return (Zombie) entityZombie.getBukkitEntity();
   }
 
   public void spawnVillager(Location location) {
@@ -228,7 +93,7 @@ public class ArenaInitializer1_11_R1 extends Arena {
     ironGolem.setCustomName(ChatManager.colorMessage("In-Game.Spawned-Golem-Name").replace("%player%", player.getName()));
     ironGolem.setCustomNameVisible(true);
     mcWorld.addEntity(ironGolem, CreatureSpawnEvent.SpawnReason.CUSTOM);
-    this.addIronGolem((org.bukkit.entity.IronGolem) ironGolem.getBukkitEntity());
+    this.addIronGolem((org.bukkit.entity.IronGolem) ironGolem.getBukkitEntity(), player);
   }
 
   public void spawnWolf(Location location, Player player) {
@@ -241,7 +106,7 @@ public class ArenaInitializer1_11_R1 extends Arena {
     wolf.setInvisible(false);
     ((Wolf) wolf.getBukkitEntity()).setOwner(player);
 
-    this.addWolf((Wolf) wolf.getBukkitEntity());
+    this.addWolf((Wolf) wolf.getBukkitEntity(), player);
   }
 }
 
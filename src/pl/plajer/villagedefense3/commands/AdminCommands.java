@@ -18,6 +18,9 @@
 
 package pl.plajer.villagedefense3.commands;
 
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -49,9 +52,17 @@ import pl.plajer.villagedefense3.arena.Arena;
 import pl.plajer.villagedefense3.arena.ArenaManager;
 import pl.plajer.villagedefense3.arena.ArenaRegistry;
 import pl.plajer.villagedefense3.arena.ArenaState;
+import pl.plajer.villagedefense3.arena.ArenaTickScheduler;
 import pl.plajer.villagedefense3.arena.ArenaUtils;
+import pl.plajer.villagedefense3.arena.ZombieSpawnScheduler;
+import pl.plajer.villagedefense3.database.DatabaseExecutor;
+import pl.plajer.villagedefense3.database.MySQLConnectionManager;
+import pl.plajer.villagedefense3.database.MySQLStatsFlusher;
 import pl.plajer.villagedefense3.handlers.ChatManager;
 import pl.plajer.villagedefense3.handlers.ConfigurationManager;
+import pl.plajer.villagedefense3.handlers.Settings;
+import pl.plajer.villagedefense3.handlers.TickProfiler;
+import pl.plajer.villagedefense3.handlers.language.LanguageManager;
 import pl.plajer.villagedefense3.user.User;
 import pl.plajer.villagedefense3.user.UserManager;
 import pl.plajer.villagedefense3.utils.Utils;
@@ -88,6 +99,8 @@ public class AdminCommands extends MainCommand {
             gray + "Set price of holding item, it's required for game shop\n" + gold + "Permission: " + gray + "villagedefense.admin.setprice"));
     command.add(new CommandData("/vda reload", "/vda reload", gray + "Reload all game arenas\n" + gray + "" + ChatColor.BOLD
             + "They will be stopped!\n" + gold + "Permission: " + gray + "villagedefense.admin.reload"));
+    command.add(new CommandData("/vda reloadlanguage", "/vda reloadlanguage", gray + "Reload messages from language file\n" + gray
+            + "Games won't be stopped\n" + gold + "Permission: " + gray + "villagedefense.admin.reload"));
     command.add(new CommandData("/vda delete " + gold + "<arena>", "/vda delete <arena>",
             gray + "Deletes specified arena\n" + gold + "Permission: " + gray + "villagedefense.admin.delete"));
     command.add(new CommandData("/vda tp " + gold + "<arena> <location type>", "/vda tp <arena> <location>",
@@ -101,6 +114,9 @@ public class AdminCommands extends MainCommand {
                     + "Permission: " + gray + "villagedefense.admin.addorbs (for yourself)\n" + gold + "Permission: " + gray + "villagedefense.admin.addorbs.others (for others)"));
     command.add(new CommandData("/vda setwave " + gold + "<number>", "/vda setwave <num>",
             gray + "Set wave number in arena you're in\n" + gold + "Permission: " + gray + "villagedefense.admin.setwave"));
+    command.add(new CommandData("/vda timings " + ChatColor.RED + "[on/off/reset/dump]", "/vda timings",
+            gray + "Shows time spent in arena tick phases\n" + gray + "Profiling must be turned on first\n" + gold + "Permission: "
+                    + gray + "villagedefense.admin.timings"));
   }
 
   private Main plugin;
@@ -136,11 +152,13 @@ public class AdminCommands extends MainCommand {
     sender.sendMessage(ChatColor.WHITE + "/vda spychat" + ChatColor.GRAY + ": Toggle all games chat visibility (only multi-arena)");
     sender.sendMessage(ChatColor.WHITE + "/vda setprice " + ChatColor.GOLD + "<amount>" + ChatColor.GRAY + ": Sets holding item price (for shop)");
     sender.sendMessage(ChatColor.WHITE + "/vda reload" + ChatColor.GRAY + ": Stops and reloads all game instances");
+    sender.sendMessage(ChatColor.WHITE + "/vda reloadlanguage" + ChatColor.GRAY + ": Reloads messages from language file");
     sender.sendMessage(ChatColor.WHITE + "/vda delete " + ChatColor.GOLD + "<arena>" + ChatColor.GRAY + ": Remove existing arena");
     sender.sendMessage(ChatColor.WHITE + "/vda tp " + ChatColor.GOLD + "<arena> <location type>" + ChatColor.GRAY + ": Teleport you to provided arena location");
     sender.sendMessage(ChatColor.WHITE + "/vda clear " + ChatColor.GOLD + "<zombie/villager/golem>" + ChatColor.GRAY + ": Remove target mob type from your arena");
     sender.sendMessage(ChatColor.WHITE + "/vda addorbs " + ChatColor.GOLD + "<amount> " + ChatColor.RED + "[player]" + ChatColor.GRAY + ": Give yourself or player the given amount of orbs");
     sender.sendMessage(ChatColor.WHITE + "/vda setwave " + ChatColor.GOLD + "<number>" + ChatColor.GRAY + ": Set the wave number");
+    sender.sendMessage(ChatColor.WHITE + "/vda timings " + ChatColor.RED + "[on/off/reset/dump]" + ChatColor.GRAY + ": Show or control arena tick timings");
   }
 
   public void printList(CommandSender sender) {
@@ -149,15 +167,21 @@ public class AdminCommands extends MainCommand {
     }
     sender.sendMessage(ChatManager.colorMessage("Commands.Admin-Commands.List-Command.Header"));
     int i = 0;
+    int hibernating = 0;
     for (Arena arena : ArenaRegistry.getArenas()) {
       sender.sendMessage(ChatManager.colorMessage("Commands.Admin-Commands.List-Command.Format").replace("%arena%", arena.getID())
-              .replace("%status%", arena.getArenaState().getFormattedName()).replace("%players%", String.valueOf(arena.getPlayers().size()))
+              .replace("%status%", arena.getArenaState().getFormattedName()).replace("%players%", String.valueOf(arena.getPlayerSet().size()))
               .replace("%maxplayers%", String.valueOf(arena.getMaximumPlayers())));
+      if (arena.isHibernating()) {
+        hibernating++;
+      }
       i++;
     }
     if (i == 0) {
       sender.sendMessage(ChatManager.colorMessage("Commands.Admin-Commands.List-Command.No-Arenas"));
+      return;
     }
+    sender.sendMessage(ChatColor.GRAY + "Active: " + ChatColor.GREEN + (i - hibernating) + ChatColor.GRAY + ", hibernated: " + ChatColor.YELLOW + hibernating);
   }
 
   public void stopGame(CommandSender sender) {
@@ -181,7 +205,7 @@ public class AdminCommands extends MainCommand {
     if (arena.getArenaState() == ArenaState.WAITING_FOR_PLAYERS || arena.getArenaState() == ArenaState.STARTING) {
       arena.setArenaState(ArenaState.STARTING);
       arena.setTimer(0);
-      for (Player p : ArenaRegistry.getArena((Player) sender).getPlayers()) {
+      for (Player p : ArenaRegistry.getArena((Player) sender).getPlayerSet()) {
         p.sendMessage(ChatManager.PLUGIN_PREFIX + ChatManager.colorMessage("In-Game.Messages.Admin-Messages.Set-Starting-In-To-0"));
       }
     }
@@ -216,7 +240,7 @@ public class AdminCommands extends MainCommand {
       return;
     }
     Arena arena = ArenaRegistry.getArena((Player) sender);
-    for (Player loopPlayer : arena.getPlayers()) {
+    for (Player loopPlayer : arena.getPlayerSet()) {
       if (player.equalsIgnoreCase(loopPlayer.getName())) {
         loopPlayer.setGameMode(GameMode.SURVIVAL);
         loopPlayer.removePotionEffect(PotionEffectType.NIGHT_VISION);
@@ -251,10 +275,24 @@ public class AdminCommands extends MainCommand {
     if (!hasPermission(sender, "villagedefense.admin.reload")) {
       return;
     }
+    plugin.reloadConfig();
+    Settings.reload(plugin.getConfig());
+    Main.STARTING_TIMER_TIME = Settings.get().getStartingWaitingTime();
+    ConfigurationManager.reloadConfig("arenas");
     ArenaRegistry.registerArenas();
     sender.sendMessage(ChatManager.PLUGIN_PREFIX + ChatManager.colorMessage("Commands.Admin-Commands.Success-Reload"));
   }
 
+  public void reloadLanguage(CommandSender sender) {
+    if (!hasPermission(sender, "villagedefense.admin.reload")) {
+      return;
+    }
+    int loaded = LanguageManager.reloadLanguage();
+    ChatManager.PLUGIN_PREFIX = ChatManager.colorMessage("In-Game.Plugin-Prefix");
+    sender.sendMessage(ChatManager.PLUGIN_PREFIX + ChatColor.GREEN + "Language reloaded! Loaded " + loaded + " messages for locale "
+            + LanguageManager.getPluginLocale().getFormattedName());
+  }
+
   public void addSign(CommandSender sender, String arena) {
     if (checkSenderIsConsole(sender)) {
       return;
@@ -353,18 +391,18 @@ public class AdminCommands extends MainCommand {
       return;
     }
     Arena arena = ArenaRegistry.getArena((Player) sender);
-    if (arena.getZombies() != null) {
-      for (Zombie zombie : arena.getZombies()) {
+    if (arena.getZombieSet() != null) {
+      for (Zombie zombie : arena.getZombieSet()) {
         zombie.getWorld().spawnParticle(Particle.LAVA, zombie.getLocation(), 20);
         zombie.remove();
       }
-      arena.getZombies().clear();
+      arena.clearZombies();
     } else {
       sender.sendMessage(ChatManager.colorMessage("Kits.Cleaner.Nothing-To-Clean"));
       return;
     }
     Utils.sendSound((Player) sender, "ENTITY_ZOMBIE_DEATH", "ENTITY_ZOMBIE_DEATH");
-    for (Player loopPlayer : arena.getPlayers()) {
+    for (Player loopPlayer : arena.getPlayerSet()) {
       String message = ChatManager.formatMessage(arena, ChatManager.colorMessage("In-Game.Messages.Admin-Messages.Removed-Zombies"), new Player[]{(loopPlayer)});
       loopPlayer.sendMessage(ChatManager.PLUGIN_PREFIX + message);
     }
@@ -376,18 +414,18 @@ public class AdminCommands extends MainCommand {
       return;
     }
     Arena arena = ArenaRegistry.getArena((Player) sender);
-    if (arena.getVillagers() != null) {
-      for (Villager villager : arena.getVillagers()) {
+    if (arena.getVillagerSet() != null) {
+      for (Villager villager : arena.getVillagerSet()) {
         villager.getWorld().spawnParticle(Particle.LAVA, villager.getLocation(), 20);
         villager.remove();
       }
-      arena.getVillagers().clear();
+      arena.clearVillagers();
     } else {
       sender.sendMessage(ChatManager.colorMessage("Kits.Cleaner.Nothing-To-Clean"));
       return;
     }
     Utils.sendSound((Player) sender, "ENTITY_VILLAGER_DEATH", "ENTITY_VILLAGER_DEATH");
-    for (Player loopPlayer : arena.getPlayers()) {
+    for (Player loopPlayer : arena.getPlayerSet()) {
       String message = ChatManager.formatMessage(arena, ChatManager.colorMessage("In-Game.Messages.Admin-Messages.Removed-Villagers"), new Player[]{(loopPlayer)});
       loopPlayer.sendMessage(ChatManager.PLUGIN_PREFIX + message);
     }
@@ -399,19 +437,19 @@ public class AdminCommands extends MainCommand {
       return;
     }
     Arena arena = ArenaRegistry.getArena((Player) sender);
-    if (arena.getIronGolems() != null) {
-      for (IronGolem golem : arena.getIronGolems()) {
+    if (arena.getIronGolemSet() != null) {
+      for (IronGolem golem : arena.getIronGolemSet()) {
         golem.getWorld().spawnParticle(Particle.LAVA, golem.getLocation(), 20);
         golem.remove();
       }
-      arena.getIronGolems().clear();
+      arena.clearGolems();
 
     } else {
       sender.sendMessage(ChatManager.colorMessage("Kits.Cleaner.Nothing-To-Clean"));
       return;
     }
     Utils.sendSound((Player) sender, "ENTITY_IRONGOLEM_DEATH", "ENTITY_IRON_GOLEM_DEATH");
-    for (Player loopPlayer : arena.getPlayers()) {
+    for (Player loopPlayer : arena.getPlayerSet()) {
       String message = ChatManager.formatMessage(arena, ChatManager.colorMessage("In-Game.Messages.Admin-Messages.Removed-Golems"), new Player[]{(loopPlayer)});
       loopPlayer.sendMessage(ChatManager.PLUGIN_PREFIX + message);
     }
@@ -455,6 +493,79 @@ public class AdminCommands extends MainCommand {
     createArenaCommand((Player) sender, args);
   }
 
+  public void timings(CommandSender sender, String action) {
+    if (!hasPermission(sender, "villagedefense.admin.timings")) {
+      return;
+    }
+    if (action.equalsIgnoreCase("on")) {
+      TickProfiler.setEnabled(true);
+      sender.sendMessage(ChatManager.PLUGIN_PREFIX + ChatColor.GREEN + "Timings enabled!");
+      return;
+    }
+    if (action.equalsIgnoreCase("off")) {
+      TickProfiler.setEnabled(false);
+      sender.sendMessage(ChatManager.PLUGIN_PREFIX + ChatColor.RED + "Timings disabled!");
+      return;
+    }
+    if (action.equalsIgnoreCase("reset")) {
+      TickProfiler.reset();
+      sender.sendMessage(ChatManager.PLUGIN_PREFIX + ChatColor.GREEN + "Timings reset!");
+      return;
+    }
+    if (action.equalsIgnoreCase("dump")) {
+      List<String> report = new ArrayList<>(TickProfiler.getReport());
+      report.add("Arena tick cost (last/average/max):");
+      for (Arena arena : ArenaTickScheduler.getScheduledArenas()) {
+        report.add(String.format("  %s: %.3fms/%.3fms/%.3fms", arena.getID(), ArenaTickScheduler.getLastTickCost(arena) / 1_000_000.0,
+                ArenaTickScheduler.getAverageTickCost(arena) / 1_000_000.0, ArenaTickScheduler.getMaxTickCost(arena) / 1_000_000.0));
+      }
+      report.add("Zombie spawn queue: spawned " + ZombieSpawnScheduler.getSpawnedZombies() + ", depth " + ZombieSpawnScheduler.getQueueDepth()
+              + ", max depth " + ZombieSpawnScheduler.getMaxQueueDepth() + ", average latency " + String.format("%.1fms", ZombieSpawnScheduler.getAverageSpawnLatency())
+              + ", max latency " + ZombieSpawnScheduler.getMaxSpawnLatency() + "ms");
+      report.add("Configuration cache: hits " + ConfigurationManager.getCacheHits() + ", misses " + ConfigurationManager.getCacheMisses()
+              + ", reloads " + ConfigurationManager.getCacheReloads());
+      if (plugin.isDatabaseActivated()) {
+        report.add("MySQL stats flusher: flushes " + MySQLStatsFlusher.getFlushes() + ", written players " + MySQLStatsFlusher.getWrittenPlayers()
+                + ", pending players " + plugin.getMySQLDatabase().getStatsFlusher().getPendingPlayers()
+                + ", batch size last/max " + MySQLStatsFlusher.getLastBatchSize() + "/" + MySQLStatsFlusher.getMaxBatchSize()
+                + ", latency last/average/max " + MySQLStatsFlusher.getLastFlushTime() + "ms/" + String.format("%.1fms", MySQLStatsFlusher.getAverageFlushTime())
+                + "/" + MySQLStatsFlusher.getMaxFlushTime() + "ms");
+        report.add(String.format("MySQL connection pool: wait average %.2fms, max %.2fms",
+                MySQLConnectionManager.getAverageConnectionWait(), MySQLConnectionManager.getMaxConnectionWait()));
+      }
+      //executor is shared by MySQL and SQLite statistics storage
+      DatabaseExecutor executor = plugin.getDatabaseExecutor();
+      if (executor != null) {
+        report.add("Database executor: queue depth " + executor.getQueueDepth() + ", max depth " + executor.getMaxQueueDepth()
+                + ", completed " + executor.getCompletedTasks() + ", retried " + executor.getRetriedTasks() + ", failed " + executor.getFailedTasks()
+                + ", rejected " + executor.getRejectedTasks());
+      }
+      Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+        try {
+          File file = TickProfiler.dump(plugin.getDataFolder(), report);
+          Bukkit.getScheduler().runTask(plugin, () -> sender.sendMessage(ChatManager.PLUGIN_PREFIX + ChatColor.GREEN + "Timings saved to " + file.getName()));
+        } catch (IOException e) {
+          e.printStackTrace();
+          Bukkit.getScheduler().runTask(plugin, () -> sender.sendMessage(ChatManager.PLUGIN_PREFIX + ChatColor.RED + "Couldn't save timings, check console!"));
+        }
+      });
+      return;
+    }
+    if (!TickProfiler.isEnabled()) {
+      sender.sendMessage(ChatManager.PLUGIN_PREFIX + ChatColor.RED + "Timings are disabled, enable them with /vda timings on");
+      return;
+    }
+    List<String> report = TickProfiler.getReport();
+    if (report.isEmpty()) {
+      sender.sendMessage(ChatManager.PLUGIN_PREFIX + ChatColor.GRAY + "No timings recorded yet.");
+      return;
+    }
+    sender.sendMessage(ChatColor.GREEN + "Village Defense timings " + ChatColor.GRAY + "(p50, p95 and max of last samples)");
+    for (String line : report) {
+      sender.sendMessage(ChatColor.GRAY + line);
+    }
+  }
+
   public void setWave(CommandSender sender, String number) {
     if (checkSenderIsConsole(sender) || !checkIsInGameInstance((Player) sender)
             || !hasPermission(sender, "villagedefense.admin.setwave")) {
@@ -465,21 +576,21 @@ public class AdminCommands extends MainCommand {
       arena.setWave(Integer.parseInt(number) - 1);
       ArenaManager.endWave(arena);
       String message = ChatManager.formatMessage(arena, ChatManager.colorMessage("In-Game.Messages.Admin-Messages.Changed-Wave"), arena.getWave());
-      for (Player player1 : arena.getPlayers()) {
+      for (Player player1 : arena.getPlayerSet()) {
         player1.sendMessage(ChatManager.PLUGIN_PREFIX + message);
       }
-      if (arena.getZombies() != null) {
-        for (Zombie zombie : arena.getZombies()) {
+      if (arena.getZombieSet() != null) {
+        for (Zombie zombie : arena.getZombieSet()) {
           zombie.getWorld().spawnParticle(Particle.LAVA, zombie.getLocation(), 20);
           zombie.remove();
         }
-        arena.getZombies().clear();
+        arena.clearZombies();
       } else {
         sender.sendMessage(ChatManager.colorMessage("Kits.Cleaner.Nothing-To-Clean"));
         return;
       }
       Utils.sendSound((Player) sender, "ENTITY_ZOMBIE_DEATH", "ENTITY_ZOMBIE_DEATH");
-      for (Player loopPlayer : arena.getPlayers()) {
+      for (Player loopPlayer : arena.getPlayerSet()) {
         String message1 = ChatManager.formatMessage(arena, ChatManager.colorMessage("In-Game.Messages.Admin-Messages.Removed-Zombies"), new Player[]{(loopPlayer)});
         loopPlayer.sendMessage(ChatManager.PLUGIN_PREFIX + message1);
       }
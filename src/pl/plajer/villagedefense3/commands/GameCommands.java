@@ -18,9 +18,10 @@
 
 package pl.plajer.villagedefense3.commands;
 
-import java.sql.ResultSet;
-import java.sql.SQLException;
-import java.util.LinkedHashMap;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import org.apache.commons.lang.StringUtils;
@@ -34,6 +35,7 @@ import pl.plajer.villagedefense3.arena.ArenaManager;
 import pl.plajer.villagedefense3.arena.ArenaRegistry;
 import pl.plajer.villagedefense3.arena.ArenaState;
 import pl.plajer.villagedefense3.handlers.ChatManager;
+import pl.plajer.villagedefense3.handlers.Settings;
 import pl.plajer.villagedefense3.user.User;
 import pl.plajer.villagedefense3.user.UserManager;
 import pl.plajer.villagedefense3.villagedefenseapi.StatsStorage;
@@ -45,6 +47,7 @@ import pl.plajer.villagedefense3.villagedefenseapi.StatsStorage;
  */
 public class GameCommands extends MainCommand {
 
+  private static final String TOP_STATISTICS_KEY = "top statistics";
   private Main plugin;
 
   public GameCommands(Main plugin) {
@@ -87,53 +90,53 @@ public class GameCommands extends MainCommand {
   }
 
   public void sendTopStatistics(CommandSender sender, String stat) {
+    StatsStorage.StatisticType statisticType;
     try {
-      StatsStorage.StatisticType statisticType = StatsStorage.StatisticType.valueOf(stat.toUpperCase());
-      if (statisticType == StatsStorage.StatisticType.XP) {
-        sender.sendMessage(ChatManager.colorMessage("Commands.Statistics.Invalid-Name"));
-        return;
-      }
-      LinkedHashMap<UUID, Integer> stats = (LinkedHashMap<UUID, Integer>) StatsStorage.getStats(statisticType);
-      sender.sendMessage(ChatManager.colorMessage("Commands.Statistics.Header"));
-      for (int i = 0; i < 10; i++) {
-        try {
-          UUID current = (UUID) stats.keySet().toArray()[stats.keySet().toArray().length - 1];
-          sender.sendMessage(ChatManager.colorMessage("Commands.Statistics.Format")
-                  .replace("%position%", String.valueOf(i + 1))
-                  .replace("%name%", Bukkit.getOfflinePlayer(current).getName())
-                  .replace("%value%", String.valueOf(stats.get(current)))
-                  .replace("%statistic%", StringUtils.capitalize(statisticType.toString().toLowerCase().replace("_", " ")))); //Games_played > Games played etc
-          stats.remove(current);
-        } catch (IndexOutOfBoundsException ex) {
-          sender.sendMessage(ChatManager.colorMessage("Commands.Statistics.Format")
-                  .replace("%position%", String.valueOf(i + 1))
-                  .replace("%name%", "Empty")
-                  .replace("%value%", "0")
-                  .replace("%statistic%", StringUtils.capitalize(statisticType.toString().toLowerCase().replace("_", " "))));
-        } catch (NullPointerException ex) {
-          UUID current = (UUID) stats.keySet().toArray()[stats.keySet().toArray().length - 1];
-          if (plugin.isDatabaseActivated()) {
-            ResultSet set = plugin.getMySQLDatabase().executeQuery("SELECT name FROM playerstats WHERE UUID='" + current.toString() + "'");
-            try {
-              if (set.next()) {
-                sender.sendMessage(ChatManager.colorMessage("Commands.Statistics.Format")
-                        .replace("%position%", String.valueOf(i + 1))
-                        .replace("%name%", set.getString(1))
-                        .replace("%value%", String.valueOf(stats.get(current)))
-                        .replace("%statistic%", StringUtils.capitalize(statisticType.toString().toLowerCase().replace("_", " "))));
-                return;
-              }
-            } catch (SQLException ignored) {}
-          }
-          sender.sendMessage(ChatManager.colorMessage("Commands.Statistics.Format")
-                  .replace("%position%", String.valueOf(i + 1))
-                  .replace("%name%", "Unknown Player")
-                  .replace("%value%", String.valueOf(stats.get(current)))
-                  .replace("%statistic%", StringUtils.capitalize(statisticType.toString().toLowerCase().replace("_", " "))));
-        }
-      }
+      statisticType = StatsStorage.StatisticType.valueOf(stat.toUpperCase());
     } catch (IllegalArgumentException e) {
       sender.sendMessage(ChatManager.colorMessage("Commands.Statistics.Invalid-Name"));
+      return;
+    }
+    if (statisticType == StatsStorage.StatisticType.XP) {
+      sender.sendMessage(ChatManager.colorMessage("Commands.Statistics.Invalid-Name"));
+      return;
+    }
+    if (plugin.getDatabaseExecutor() == null) {
+      sendTopStatistics(sender, statisticType, getTopStatistics(statisticType));
+      return;
+    }
+    //database is queried on database executor, result is sent back on main thread
+    plugin.getDatabaseExecutor().submit(TOP_STATISTICS_KEY, "top " + statisticType.getName() + " statistics", () -> {
+      List<Map.Entry<String, Integer>> top = getTopStatistics(statisticType);
+      Bukkit.getScheduler().runTask(plugin, () -> sendTopStatistics(sender, statisticType, top));
+    });
+  }
+
+  /**
+   * @return names and values of 10 players with highest statistic, in descending order
+   */
+  private List<Map.Entry<String, Integer>> getTopStatistics(StatsStorage.StatisticType statisticType) {
+    List<Map.Entry<String, Integer>> top = new ArrayList<>();
+    for (Map.Entry<UUID, Integer> entry : plugin.getStatsBackend().getTop(statisticType.getName(), 10).entrySet()) {
+      String name = Bukkit.getOfflinePlayer(entry.getKey()).getName();
+      if (name == null) {
+        name = plugin.getStatsBackend().getName(entry.getKey());
+      }
+      top.add(new AbstractMap.SimpleEntry<>(name == null ? "Unknown Player" : name, entry.getValue()));
+    }
+    return top;
+  }
+
+  private void sendTopStatistics(CommandSender sender, StatsStorage.StatisticType statisticType, List<Map.Entry<String, Integer>> top) {
+    //Games_played > Games played etc
+    String statistic = StringUtils.capitalize(statisticType.toString().toLowerCase().replace("_", " "));
+    sender.sendMessage(ChatManager.colorMessage("Commands.Statistics.Header"));
+    for (int i = 0; i < 10; i++) {
+      sender.sendMessage(ChatManager.colorMessage("Commands.Statistics.Format")
+              .replace("%position%", String.valueOf(i + 1))
+              .replace("%name%", i < top.size() ? top.get(i).getKey() : "Empty")
+              .replace("%value%", i < top.size() ? String.valueOf(top.get(i).getValue()) : "0")
+              .replace("%statistic%", statistic));
     }
   }
 
@@ -141,7 +144,7 @@ public class GameCommands extends MainCommand {
     if (checkSenderIsConsole(sender)) {
       return;
     }
-    if (!plugin.getConfig().getBoolean("Disable-Leave-Command", false)) {
+    if (!Settings.get().isDisableLeaveCommand()) {
       Player p = (Player) sender;
       if (!checkIsInGameInstance((Player) sender)) {
         return;
@@ -131,6 +131,9 @@ public class MainCommand implements CommandExecutor {
       } else if (args[0].equalsIgnoreCase("reload")) {
         adminCommands.reloadInstances(sender);
         return true;
+      } else if (args[0].equalsIgnoreCase("reloadlanguage")) {
+        adminCommands.reloadLanguage(sender);
+        return true;
       } else if (args[0].equalsIgnoreCase("delete")) {
         if (args.length != 1) {
           adminCommands.deleteArena(sender, args[1]);
@@ -190,10 +193,13 @@ public class MainCommand implements CommandExecutor {
         }
         adminCommands.setWave(sender, args[1]);
         return true;
+      } else if (args[0].equalsIgnoreCase("timings")) {
+        adminCommands.timings(sender, args.length == 1 ? "" : args[1]);
+        return true;
       }
       adminCommands.sendHelp(sender);
       List<StringMatcher.Match> matches = StringMatcher.match(args[0], Arrays.asList("stop", "list", "forcestart", "respawn", "spychat",
-              "reload", "setshopchest", "delete", "setprice", "tp", "clear", "addorbs", "setwave"));
+              "reload", "reloadlanguage", "setshopchest", "delete", "setprice", "tp", "clear", "addorbs", "setwave", "timings"));
       if (!matches.isEmpty()) {
         sender.sendMessage(ChatManager.colorMessage("Commands.Did-You-Mean").replace("%command%", "vda " + matches.get(0).getMatch()));
       }
@@ -281,6 +287,9 @@ public class MainCommand implements CommandExecutor {
         } else if (args[1].equalsIgnoreCase("reload")) {
           adminCommands.reloadInstances(sender);
           return true;
+        } else if (args[1].equalsIgnoreCase("reloadlanguage")) {
+          adminCommands.reloadLanguage(sender);
+          return true;
         } else if (args[1].equalsIgnoreCase("delete")) {
           if (args.length != 2) {
             adminCommands.deleteArena(sender, args[2]);
@@ -340,10 +349,13 @@ public class MainCommand implements CommandExecutor {
           }
           adminCommands.setWave(sender, args[2]);
           return true;
+        } else if (args[1].equalsIgnoreCase("timings")) {
+          adminCommands.timings(sender, args.length == 2 ? "" : args[2]);
+          return true;
         }
         adminCommands.sendHelp(sender);
         List<StringMatcher.Match> matches = StringMatcher.match(args[1], Arrays.asList("stop", "list", "forcestart", "respawn", "spychat",
-                "reload", "setshopchest", "delete", "setprice", "tp", "clear", "addorbs", "setwave"));
+                "reload", "reloadlanguage", "setshopchest", "delete", "setprice", "tp", "clear", "addorbs", "setwave", "timings"));
         if (!matches.isEmpty()) {
           sender.sendMessage(ChatManager.colorMessage("Commands.Did-You-Mean").replace("%command%", "vd admin " + matches.get(0).getMatch()));
         }
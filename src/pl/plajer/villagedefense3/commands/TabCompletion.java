@@ -48,12 +48,12 @@ public class TabCompletion implements TabCompleter {
     }
     if (cmd.getName().equalsIgnoreCase("villagedefenseadmin") && args.length == 1) {
       return Arrays.asList("stop", "list", "forcestart", "respawn", "spychat",
-              "reload", "delete", "setprice", "tp", "clear", "addorbs", "setwave");
+              "reload", "reloadlanguage", "delete", "setprice", "tp", "clear", "addorbs", "setwave", "timings");
     }
     if (cmd.getName().equalsIgnoreCase("villagedefense")) {
       if (args.length == 2 && args[0].equalsIgnoreCase("admin")) {
         return Arrays.asList("stop", "list", "forcestart", "respawn", "spychat",
-                "reload", "delete", "setprice", "tp", "clear", "addorbs", "setwave");
+                "reload", "reloadlanguage", "delete", "setprice", "tp", "clear", "addorbs", "setwave", "timings");
       }
       if (args.length == 1) {
         if (plugin.isBungeeActivated()) {
@@ -18,80 +18,133 @@
 
 package pl.plajer.villagedefense3.creatures;
 
-import java.util.Queue;
-import java.util.Random;
-
-import org.bukkit.Bukkit;
+import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.Particle;
 import org.bukkit.Sound;
-import org.bukkit.World;
 import org.bukkit.block.Block;
-import org.bukkit.block.BlockFace;
-import org.bukkit.entity.Entity;
-import org.bukkit.entity.EntityType;
-import org.bukkit.entity.LivingEntity;
+import org.bukkit.entity.Zombie;
 import org.bukkit.material.MaterialData;
 import org.bukkit.plugin.java.JavaPlugin;
 import org.bukkit.scheduler.BukkitRunnable;
 
 import pl.plajer.villagedefense3.Main;
-import pl.plajer.villagedefense3.utils.Utils;
+import pl.plajer.villagedefense3.arena.Arena;
+import pl.plajer.villagedefense3.arena.ArenaRegistry;
+import pl.plajer.villagedefense3.arena.ArenaState;
+import pl.plajer.villagedefense3.arena.DoorIndex;
+import pl.plajer.villagedefense3.handlers.TickProfiler;
 
 /**
  * Created by Tom on 14/08/2014.
+ * <p>
+ * Only zombies of running arenas are checked, doors are looked up in arena {@link DoorIndex}
+ * by blocks in front of zombie instead of scanning entities of all worlds.
  */
 public class BreakFenceListener extends BukkitRunnable {
 
-  private Random random = new Random();
+  /**
+   * Hits (one per zombie per second) door block must receive before it breaks
+   */
+  private static final int HITS_TO_BREAK = 20;
+  private static final double DOOR_REACH = 2.0;
+  private static final MaterialData DOOR_PARTICLE = new MaterialData(Material.WOODEN_DOOR);
+  private final Location location = new Location(null, 0, 0, 0);
   private Main plugin = JavaPlugin.getPlugin(Main.class);
 
   @Override
   public void run() {
-    for (World world : Bukkit.getServer().getWorlds()) {
-      for (Entity entity : world.getEntities()) {
-        if (!(entity.getType() == EntityType.ZOMBIE)) {
+    long start = TickProfiler.start();
+    for (Arena arena : ArenaRegistry.getArenas()) {
+      if (arena.getArenaState() != ArenaState.IN_GAME || arena.getZombieSet().isEmpty()) {
+        continue;
+      }
+      DoorIndex doors = arena.getDoorIndex();
+      if (doors.isEmpty()) {
+        continue;
+      }
+      for (Zombie zombie : arena.getZombieSet()) {
+        if (!zombie.isValid()) {
           continue;
         }
-        Queue<Block> blocks = Utils.getLineOfSight((LivingEntity) entity, null, 1, 1);
-        for (Block block : blocks) {
-          if (block.getType() == Material.WOOD_DOOR || block.getType() == Material.WOODEN_DOOR /*|| block.getType() == Material.FENCE*/) {
-            block.getWorld().spawnParticle(Particle.BLOCK_CRACK, block.getLocation(), 10, 0.1, 0.1, 0.1, new MaterialData(Material.WOODEN_DOOR));
-            if (plugin.is1_9_R1() || plugin.is1_10_R1() || plugin.is1_11_R1() || plugin.is1_12_R1()) {
-              block.getWorld().playSound(block.getLocation(), Sound.ENTITY_ZOMBIE_ATTACK_DOOR_WOOD, 5, 5);
-            } else if (plugin.is1_13_R1()) {
-              block.getWorld().playSound(block.getLocation(), Sound.valueOf("ENTITY_ZOMBIE_ATTACK_WOODEN_DOOR"), 5F, 5F);
-            }
-            this.particleDoor(block);
-            if (random.nextInt(20) == 5) {
-              breakDoor(block);
-              if (plugin.is1_9_R1() || plugin.is1_10_R1() || plugin.is1_11_R1() || plugin.is1_12_R1()) {
-                block.getWorld().playSound(block.getLocation(), Sound.ENTITY_ZOMBIE_BREAK_DOOR_WOOD, 5, 5);
-              } else if (plugin.is1_13_R1()) {
-                block.getWorld().playSound(block.getLocation(), Sound.valueOf("ENTITY_ZOMBIE_BREAK_WOODEN_DOOR"), 5F, 5F);
-              }
-            }
-          }
+        zombie.getLocation(location);
+        if (!doors.isNear(location, DOOR_REACH)) {
+          continue;
+        }
+        int door = findDoorInFront(doors, location, zombie.getEyeHeight());
+        if (door != -1) {
+          hitDoor(arena, doors, door);
         }
       }
     }
+    TickProfiler.stop(TickProfiler.GLOBAL, TickProfiler.Phase.DOOR_BREAK, start);
   }
 
-  private void particleDoor(org.bukkit.block.Block block) {
-    for (BlockFace blockFace : BlockFace.values()) {
-      if (block.getRelative(blockFace).getType() == Material.WOOD_DOOR || block.getRelative(blockFace).getType() == Material.WOODEN_DOOR) {
-        block.getWorld().spawnParticle(Particle.BLOCK_CRACK, block.getLocation(), 10, 0.1, 0.1, 0.1, new MaterialData(Material.WOODEN_DOOR));
+  /**
+   * Looks for door block up to one block in front of zombie, first at eye level then at feet level.
+   *
+   * @return index of door in front of zombie or -1 if there is none
+   */
+  private int findDoorInFront(DoorIndex doors, Location location, double eyeHeight) {
+    double yaw = Math.toRadians(location.getYaw());
+    double pitch = Math.toRadians(location.getPitch());
+    double dirX = -Math.sin(yaw) * Math.cos(pitch);
+    double dirY = -Math.sin(pitch);
+    double dirZ = Math.cos(yaw) * Math.cos(pitch);
+    for (double height : new double[]{eyeHeight, 0.5}) {
+      for (double distance = 0.5; distance <= 1.0; distance += 0.5) {
+        int x = (int) Math.floor(location.getX() + dirX * distance);
+        int y = (int) Math.floor(location.getY() + height + dirY * distance);
+        int z = (int) Math.floor(location.getZ() + dirZ * distance);
+        int door = doors.indexOf(x, y, z);
+        if (door != -1 && isDoor(doors.getLocation(door).getBlock())) {
+          return door;
+        }
       }
     }
+    return -1;
+  }
+
+  private void hitDoor(Arena arena, DoorIndex doors, int door) {
+    Block block = doors.getLocation(door).getBlock();
+    block.getWorld().spawnParticle(Particle.BLOCK_CRACK, block.getLocation(), 10, 0.1, 0.1, 0.1, DOOR_PARTICLE);
+    if (plugin.is1_9_R1() || plugin.is1_10_R1() || plugin.is1_11_R1() || plugin.is1_12_R1()) {
+      block.getWorld().playSound(block.getLocation(), Sound.ENTITY_ZOMBIE_ATTACK_DOOR_WOOD, 5, 5);
+    } else if (plugin.is1_13_R1()) {
+      block.getWorld().playSound(block.getLocation(), Sound.valueOf("ENTITY_ZOMBIE_ATTACK_WOODEN_DOOR"), 5F, 5F);
+    }
+    if (doors.damage(door) < HITS_TO_BREAK) {
+      return;
+    }
+    breakDoor(arena, doors, block);
+    if (plugin.is1_9_R1() || plugin.is1_10_R1() || plugin.is1_11_R1() || plugin.is1_12_R1()) {
+      block.getWorld().playSound(block.getLocation(), Sound.ENTITY_ZOMBIE_BREAK_DOOR_WOOD, 5, 5);
+    } else if (plugin.is1_13_R1()) {
+      block.getWorld().playSound(block.getLocation(), Sound.valueOf("ENTITY_ZOMBIE_BREAK_WOODEN_DOOR"), 5F, 5F);
+    }
   }
 
-  private void breakDoor(org.bukkit.block.Block block) {
-    for (BlockFace blockFace : BlockFace.values()) {
-      if (block.getRelative(blockFace).getType() == Material.WOOD_DOOR || block.getRelative(blockFace).getType() == Material.WOODEN_DOOR) {
-        block.getWorld().spawnParticle(Particle.BLOCK_CRACK, block.getLocation(), 10, 0.1, 0.1, 0.1, new MaterialData(Material.WOODEN_DOOR));
-        block.setType(Material.AIR);
+  /**
+   * Breaks door block together with its other half.
+   */
+  private void breakDoor(Arena arena, DoorIndex doors, Block block) {
+    for (int offset = -1; offset <= 1; offset++) {
+      int door = doors.indexOf(block.getX(), block.getY() + offset, block.getZ());
+      if (door == -1) {
+        continue;
+      }
+      Block doorBlock = doors.getLocation(door).getBlock();
+      doors.resetDamage(door);
+      if (isDoor(doorBlock)) {
+        doorBlock.getWorld().spawnParticle(Particle.BLOCK_CRACK, doorBlock.getLocation(), 10, 0.1, 0.1, 0.1, DOOR_PARTICLE);
+        arena.getBlockJournal().record(doorBlock);
+        doorBlock.setType(Material.AIR);
       }
     }
   }
 
+  private boolean isDoor(Block block) {
+    return block.getType() == Material.WOOD_DOOR || block.getType() == Material.WOODEN_DOOR;
+  }
+
 }
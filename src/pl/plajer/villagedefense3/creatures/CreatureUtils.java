@@ -19,13 +19,14 @@
 package pl.plajer.villagedefense3.creatures;
 
 import java.lang.reflect.Field;
+import java.util.HashMap;
+import java.util.Map;
 
 import org.bukkit.ChatColor;
 import org.bukkit.attribute.Attribute;
 import org.bukkit.entity.Zombie;
-import org.bukkit.plugin.java.JavaPlugin;
 
-import pl.plajer.villagedefense3.Main;
+import pl.plajer.villagedefense3.handlers.Settings;
 import pl.plajer.villagedefense3.utils.Utils;
 
 /**
@@ -35,7 +36,8 @@ import pl.plajer.villagedefense3.utils.Utils;
  */
 public class CreatureUtils {
 
-  private static Main plugin = JavaPlugin.getPlugin(Main.class);
+  //full health bars depend only on max health so they're built once per value
+  private static final Map<Integer, String> fullHealthBars = new HashMap<>();
 
   public static Object getPrivateField(String fieldName, Class clazz, Object object) {
     Field field;
@@ -53,11 +55,11 @@ public class CreatureUtils {
   }
 
   public static void applyHealthBar(Zombie zombie) {
-    if (plugin.getConfig().getBoolean("Simple-Zombie-Health-Bar-Enabled", true)) {
+    if (Settings.get().isHealthBarEnabled()) {
       zombie.setCustomNameVisible(true);
-      zombie.setCustomName(Utils.getProgressBar((int) zombie.getAttribute(Attribute.GENERIC_MAX_HEALTH).getBaseValue(),
-              (int) zombie.getAttribute(Attribute.GENERIC_MAX_HEALTH).getBaseValue(), 50, "|",
-              ChatColor.YELLOW + "", ChatColor.GRAY + ""));
+      int maxHealth = (int) zombie.getAttribute(Attribute.GENERIC_MAX_HEALTH).getBaseValue();
+      zombie.setCustomName(fullHealthBars.computeIfAbsent(maxHealth, health -> Utils.getProgressBar(health, health, 50, "|",
+              ChatColor.YELLOW + "", ChatColor.GRAY + "")));
     }
   }
 
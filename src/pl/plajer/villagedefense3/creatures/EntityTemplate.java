@@ -0,0 +1,169 @@
+/*
+ * Village Defense 3 - Protect villagers from hordes of zombies
+ * Copyright (C) 2018  Plajer's Lair - maintained by Plajer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.plajer.villagedefense3.creatures;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.bukkit.Material;
+import org.bukkit.attribute.Attribute;
+import org.bukkit.entity.Zombie;
+import org.bukkit.inventory.EntityEquipment;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.potion.PotionEffect;
+import org.bukkit.potion.PotionEffectType;
+
+/**
+ * Immutable, version independent description of spawned creature.
+ * <p>
+ * Equipment and effects are built once and applied to every spawned entity,
+ * entity equipment stores copies of given items so they can be safely shared.
+ *
+ * @author Plajer
+ * <p>
+ * Created at 18.10.2018
+ */
+public class EntityTemplate {
+
+  private final ItemStack helmet;
+  private final ItemStack chestplate;
+  private final ItemStack leggings;
+  private final ItemStack boots;
+  private final ItemStack mainHand;
+  private final boolean dropEquipment;
+  private final List<PotionEffect> effects;
+  private final double knockbackResistance;
+
+  private EntityTemplate(Builder builder) {
+    this.helmet = builder.helmet;
+    this.chestplate = builder.chestplate;
+    this.leggings = builder.leggings;
+    this.boots = builder.boots;
+    this.mainHand = builder.mainHand;
+    this.dropEquipment = builder.dropEquipment;
+    this.effects = Collections.unmodifiableList(new ArrayList<>(builder.effects));
+    this.knockbackResistance = builder.knockbackResistance;
+  }
+
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * Applies template to freshly spawned zombie.
+   *
+   * @param zombie zombie to apply template to
+   */
+  public void apply(Zombie zombie) {
+    EntityEquipment equipment = zombie.getEquipment();
+    if (helmet != null) {
+      equipment.setHelmet(helmet);
+    }
+    if (chestplate != null) {
+      equipment.setChestplate(chestplate);
+    }
+    if (leggings != null) {
+      equipment.setLeggings(leggings);
+    }
+    if (boots != null) {
+      equipment.setBoots(boots);
+    }
+    if (mainHand != null) {
+      equipment.setItemInMainHand(mainHand);
+    }
+    if (!dropEquipment) {
+      equipment.setHelmetDropChance(0.0F);
+      equipment.setItemInMainHandDropChance(0.0F);
+    }
+    for (PotionEffect effect : effects) {
+      zombie.addPotionEffect(effect);
+    }
+    if (knockbackResistance > 0) {
+      zombie.getAttribute(Attribute.GENERIC_KNOCKBACK_RESISTANCE).setBaseValue(knockbackResistance);
+    }
+    zombie.setRemoveWhenFarAway(false);
+    CreatureUtils.applyHealthBar(zombie);
+  }
+
+  public static class Builder {
+
+    private ItemStack helmet;
+    private ItemStack chestplate;
+    private ItemStack leggings;
+    private ItemStack boots;
+    private ItemStack mainHand;
+    private boolean dropEquipment = true;
+    private List<PotionEffect> effects = new ArrayList<>();
+    private double knockbackResistance = 0;
+
+    private Builder() {
+    }
+
+    public Builder helmet(Material material) {
+      this.helmet = new ItemStack(material);
+      return this;
+    }
+
+    /**
+     * Sets full armor set, null values are skipped
+     */
+    public Builder armor(Material helmet, Material chestplate, Material leggings, Material boots) {
+      this.helmet = helmet == null ? null : new ItemStack(helmet);
+      this.chestplate = chestplate == null ? null : new ItemStack(chestplate);
+      this.leggings = leggings == null ? null : new ItemStack(leggings);
+      this.boots = boots == null ? null : new ItemStack(boots);
+      return this;
+    }
+
+    public Builder boots(Material material) {
+      this.boots = new ItemStack(material);
+      return this;
+    }
+
+    public Builder mainHand(Material material) {
+      this.mainHand = new ItemStack(material);
+      return this;
+    }
+
+    /**
+     * Helmet and main hand item won't be dropped on death
+     */
+    public Builder noEquipmentDrops() {
+      this.dropEquipment = false;
+      return this;
+    }
+
+    public Builder effect(PotionEffectType type, int duration, int amplifier) {
+      this.effects.add(new PotionEffect(type, duration, amplifier));
+      return this;
+    }
+
+    public Builder knockbackResistance(double knockbackResistance) {
+      this.knockbackResistance = knockbackResistance;
+      return this;
+    }
+
+    public EntityTemplate build() {
+      return new EntityTemplate(this);
+    }
+
+  }
+
+}
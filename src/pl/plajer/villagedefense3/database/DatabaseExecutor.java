@@ -0,0 +1,269 @@
+/*
+ * Village Defense 3 - Protect villagers from hordes of zombies
+ * Copyright (C) 2018  Plajer's Lair - maintained by Plajer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.plajer.villagedefense3.database;
+
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.bukkit.Bukkit;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import pl.plajer.villagedefense3.Main;
+import pl.plajer.villagedefense3.handlers.ChatManager;
+import pl.plajer.villagedefense3.handlers.ConfigurationManager;
+
+/**
+ * Runs all database work on dedicated bounded thread pool.
+ * <p>
+ * Tasks submitted with the same key (usually player UUID) run one after another in submission order,
+ * so profile load after quick rejoin can't overtake save of previous quit. Failed tasks are retried
+ * with exponential backoff, tasks over queue capacity are rejected instead of piling up.
+ *
+ * @author Plajer
+ * <p>
+ * Created at 18.10.2018
+ */
+public class DatabaseExecutor {
+
+  private static final Main plugin = JavaPlugin.getPlugin(Main.class);
+  private static final int MAX_ATTEMPTS = 3;
+  private static final long BACKOFF_MILLIS = 250;
+  private final ExecutorService pool;
+  private final int capacity;
+  private final int shutdownTimeout;
+  //queued tasks of keys that have task running, guarded by itself
+  private final Map<Object, ArrayDeque<SQLTask>> chains = new HashMap<>();
+  private int queueDepth = 0;
+  private int maxQueueDepth = 0;
+  private volatile boolean shutdown = false;
+  private final AtomicLong completedTasks = new AtomicLong();
+  private final AtomicLong rejectedTasks = new AtomicLong();
+  private final AtomicLong retriedTasks = new AtomicLong();
+  private final AtomicLong failedTasks = new AtomicLong();
+
+  /**
+   * Creates executor configured by executor options of mysql.yml, shared by MySQL and SQLite statistics storage.
+   *
+   * @return new executor
+   */
+  public static DatabaseExecutor fromConfig() {
+    FileConfiguration config = ConfigurationManager.getConfig("mysql");
+    return new DatabaseExecutor(config.getInt("executor-threads", 2), config.getInt("executor-queue-size", 1000),
+            config.getInt("executor-shutdown-timeout", 10));
+  }
+
+  public DatabaseExecutor(int threads, int capacity, int shutdownTimeout) {
+    this.pool = Executors.newFixedThreadPool(Math.max(1, threads), runnable -> {
+      Thread thread = new Thread(runnable, "VillageDefense-Database");
+      thread.setDaemon(true);
+      return thread;
+    });
+    this.capacity = Math.max(1, capacity);
+    this.shutdownTimeout = Math.max(0, shutdownTimeout);
+  }
+
+  /**
+   * Submits database task, tasks with the same key never run concurrently and keep their order.
+   *
+   * @param key  ordering key, usually player UUID
+   * @param name task name used in error messages
+   * @param task task to run
+   * @return false if task was rejected because queue is full or executor is shut down
+   */
+  public boolean submit(Object key, String name, SQLTask task) {
+    SQLTask named = new NamedTask(name, task);
+    synchronized (chains) {
+      if (shutdown || queueDepth >= capacity) {
+        rejectedTasks.incrementAndGet();
+        Main.debug("Database task " + name + " rejected, queue depth " + queueDepth, System.currentTimeMillis());
+        return false;
+      }
+      queueDepth++;
+      maxQueueDepth = Math.max(maxQueueDepth, queueDepth);
+      ArrayDeque<SQLTask> chain = chains.get(key);
+      if (chain != null) {
+        //key has task running, it will pick this one up
+        chain.add(named);
+        return true;
+      }
+      chains.put(key, new ArrayDeque<>());
+      //executed under lock so shutdown can't reject task after its chain was registered
+      pool.execute(() -> runChain(key, named));
+    }
+    return true;
+  }
+
+  /**
+   * Submits statistics load of player keyed by his UUID. Statistics that were never loaded are never saved,
+   * so load rejected by full queue is retried every second while player is online.
+   *
+   * @param player player statistics are loaded of
+   * @param task   load task
+   */
+  public void submitLoad(Player player, SQLTask task) {
+    if (submit(player.getUniqueId(), "load statistics of " + player.getName(), task) || shutdown) {
+      return;
+    }
+    Bukkit.getConsoleSender().sendMessage(ChatManager.PLUGIN_PREFIX + "Database queue is full, loading statistics of " + player.getName() + " again in 1 second");
+    Bukkit.getScheduler().runTaskLater(plugin, () -> {
+      if (player.isOnline()) {
+        submitLoad(player, task);
+      }
+    }, 20);
+  }
+
+  private void runChain(Object key, SQLTask first) {
+    SQLTask task = first;
+    while (task != null) {
+      runWithRetry(task);
+      synchronized (chains) {
+        queueDepth--;
+        ArrayDeque<SQLTask> chain = chains.get(key);
+        task = chain.poll();
+        if (task == null) {
+          chains.remove(key);
+        }
+      }
+    }
+  }
+
+  private void runWithRetry(SQLTask task) {
+    for (int attempt = 1; ; attempt++) {
+      try {
+        task.run();
+        completedTasks.incrementAndGet();
+        return;
+      } catch (SQLException e) {
+        if (attempt >= MAX_ATTEMPTS) {
+          failedTasks.incrementAndGet();
+          e.printStackTrace();
+          Bukkit.getConsoleSender().sendMessage(ChatManager.PLUGIN_PREFIX + "Database task " + task + " failed after " + attempt + " attempts!");
+          return;
+        }
+        retriedTasks.incrementAndGet();
+        Main.debug("Database task " + task + " failed (" + e.getMessage() + "), retrying", System.currentTimeMillis());
+        try {
+          Thread.sleep(BACKOFF_MILLIS << (attempt - 1));
+        } catch (InterruptedException ex) {
+          Thread.currentThread().interrupt();
+          failedTasks.incrementAndGet();
+          return;
+        }
+      } catch (RuntimeException e) {
+        //bugs aren't retried
+        failedTasks.incrementAndGet();
+        e.printStackTrace();
+        return;
+      }
+    }
+  }
+
+  /**
+   * Stops accepting new tasks and waits for queued tasks to finish at most executor-shutdown-timeout seconds.
+   */
+  public void shutdown() {
+    int timeoutSeconds = shutdownTimeout;
+    synchronized (chains) {
+      shutdown = true;
+    }
+    pool.shutdown();
+    try {
+      if (!pool.awaitTermination(timeoutSeconds, TimeUnit.SECONDS)) {
+        Bukkit.getConsoleSender().sendMessage(ChatManager.PLUGIN_PREFIX + getQueueDepth() + " database tasks didn't finish in " + timeoutSeconds + " seconds and were cancelled!");
+        pool.shutdownNow();
+      }
+    } catch (InterruptedException e) {
+      pool.shutdownNow();
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  public boolean isShutdown() {
+    return shutdown;
+  }
+
+  public int getQueueDepth() {
+    synchronized (chains) {
+      return queueDepth;
+    }
+  }
+
+  public int getMaxQueueDepth() {
+    synchronized (chains) {
+      return maxQueueDepth;
+    }
+  }
+
+  public long getCompletedTasks() {
+    return completedTasks.get();
+  }
+
+  public long getRejectedTasks() {
+    return rejectedTasks.get();
+  }
+
+  public long getRetriedTasks() {
+    return retriedTasks.get();
+  }
+
+  public long getFailedTasks() {
+    return failedTasks.get();
+  }
+
+  /**
+   * Database work that may fail with {@link SQLException} and be retried.
+   */
+  @FunctionalInterface
+  public interface SQLTask {
+
+    void run() throws SQLException;
+
+  }
+
+  private static class NamedTask implements SQLTask {
+
+    private final String name;
+    private final SQLTask task;
+
+    NamedTask(String name, SQLTask task) {
+      this.name = name;
+      this.task = task;
+    }
+
+    @Override
+    public void run() throws SQLException {
+      task.run();
+    }
+
+    @Override
+    public String toString() {
+      return name;
+    }
+
+  }
+
+}
@@ -18,26 +18,27 @@
 
 package pl.plajer.villagedefense3.database;
 
-import java.io.IOException;
+import java.util.AbstractMap;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 
-import org.bukkit.Bukkit;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.entity.Player;
 
 import pl.plajer.villagedefense3.Main;
-import pl.plajer.villagedefense3.arena.ArenaRegistry;
 import pl.plajer.villagedefense3.handlers.ConfigurationManager;
 import pl.plajer.villagedefense3.user.User;
 import pl.plajer.villagedefense3.user.UserManager;
-import pl.plajer.villagedefense3.utils.MessageUtils;
 import pl.plajer.villagedefense3.villagedefenseapi.StatsStorage;
 
 /**
  * Created by Tom on 17/06/2015.
  */
-public class FileStats {
+public class FileStats implements StatsBackend {
 
   public final static Map<String, StatsStorage.StatisticType> STATISTICS = new HashMap<>();
 
@@ -62,14 +63,7 @@ public class FileStats {
   public void saveStat(Player player, String stat) {
     User user = UserManager.getUser(player.getUniqueId());
     config.set(player.getUniqueId().toString() + "." + stat, user.getInt(stat));
-    try {
-      config.save(ConfigurationManager.getFile("stats"));
-    } catch (IOException e) {
-      e.printStackTrace();
-      MessageUtils.errorOccured();
-      Bukkit.getConsoleSender().sendMessage("Cannot save stats.yml file!");
-      Bukkit.getConsoleSender().sendMessage("Restart the server, file COULD BE OVERRIDDEN!");
-    }
+    ConfigurationManager.saveConfig(config, "stats");
   }
 
   public void loadStat(Player player, String stat) {
@@ -81,19 +75,63 @@ public class FileStats {
     }
   }
 
-  public void loadStatsForPlayersOnline() {
-    for (final Player player : plugin.getServer().getOnlinePlayers()) {
-      if (plugin.isBungeeActivated()) {
-        ArenaRegistry.getArenas().get(0).teleportToLobby(player);
-      }
-      if (!plugin.isDatabaseActivated()) {
-        for (String s : FileStats.STATISTICS.keySet()) {
-          loadStat(player, s);
-        }
-        continue;
-      }
-      Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> MySQLConnectionUtils.loadPlayerStats(player, plugin));
+  @Override
+  public void loadStats(Player player) {
+    for (String s : STATISTICS.keySet()) {
+      loadStat(player, s);
+    }
+    UserManager.getUser(player.getUniqueId()).setStatsLoaded(true);
+  }
+
+  @Override
+  public void saveStats(Player player) {
+    setStats(player);
+    ConfigurationManager.saveConfig(config, "stats");
+  }
+
+  //sets all statistics without saving file, stats.yml is rewritten as whole on every save
+  private void setStats(Player player) {
+    User user = UserManager.getUser(player.getUniqueId());
+    for (String s : STATISTICS.keySet()) {
+      config.set(player.getUniqueId().toString() + "." + s, user.getInt(s));
+    }
+  }
+
+  @Override
+  public Map<UUID, Integer> getColumn(String statistic) {
+    List<Map.Entry<UUID, Integer>> entries = new ArrayList<>();
+    for (String string : config.getKeys(false)) {
+      entries.add(new AbstractMap.SimpleEntry<>(UUID.fromString(string), config.getInt(string + "." + statistic)));
+    }
+    entries.sort(Map.Entry.comparingByValue());
+    Map<UUID, Integer> column = new LinkedHashMap<>();
+    for (Map.Entry<UUID, Integer> entry : entries) {
+      column.put(entry.getKey(), entry.getValue());
+    }
+    return column;
+  }
+
+  @Override
+  public Map<UUID, Integer> getTop(String statistic, int limit) {
+    List<Map.Entry<UUID, Integer>> entries = new ArrayList<>(getColumn(statistic).entrySet());
+    Map<UUID, Integer> top = new LinkedHashMap<>();
+    for (int i = entries.size() - 1; i >= 0 && top.size() < limit; i--) {
+      top.put(entries.get(i).getKey(), entries.get(i).getValue());
+    }
+    return top;
+  }
+
+  @Override
+  public String getName(UUID uuid) {
+    return null;
+  }
+
+  @Override
+  public void close() {
+    for (Player player : plugin.getServer().getOnlinePlayers()) {
+      setStats(player);
     }
+    ConfigurationManager.saveConfig(config, "stats");
   }
 
 }
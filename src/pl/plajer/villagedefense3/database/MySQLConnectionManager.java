@@ -23,6 +23,7 @@ import com.jolbox.bonecp.BoneCPConfig;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.bukkit.Bukkit;
 import org.bukkit.configuration.file.FileConfiguration;
@@ -34,6 +35,9 @@ import pl.plajer.villagedefense3.utils.MessageUtils;
 
 public class MySQLConnectionManager {
 
+  private static final AtomicLong connectionWaits = new AtomicLong();
+  private static final AtomicLong totalConnectionWait = new AtomicLong();
+  private static final AtomicLong maxConnectionWait = new AtomicLong();
   private BoneCP connectionPool = null;
   private JavaPlugin plugin;
 
@@ -53,6 +57,7 @@ public class MySQLConnectionManager {
       config.setMinConnectionsPerPartition(databaseConfig.getInt("min-connections")); //if you say 5 here, there will be 10 connection available
       config.setMaxConnectionsPerPartition(databaseConfig.getInt("max-connections"));
       config.setPartitionCount(2); //2*5 = 10 connection will be available
+      config.setStatementsCacheSize(20); //prepared statements are reused per connection
       //config.setLazyInit(true); //depends on the application usage you should chose lazy or not
       //setting Lazy true means BoneCP won't open any connections before you request a one from it.
       plugin.getLogger().info("Setting up MySQL Connection pool...");
@@ -82,8 +87,13 @@ public class MySQLConnectionManager {
 
   public Connection getConnection() {
     Connection conn = null;
+    long start = System.nanoTime();
     try {
       conn = getConnectionPool().getConnection();
+      long wait = System.nanoTime() - start;
+      connectionWaits.incrementAndGet();
+      totalConnectionWait.addAndGet(wait);
+      maxConnectionWait.accumulateAndGet(wait, Math::max);
       //will get a thread-safe connection from the BoneCP connection pool.
       //synchronization of the method will be done inside BoneCP source
 
@@ -104,6 +114,21 @@ public class MySQLConnectionManager {
     }
   }
 
+  /**
+   * @return average time spent waiting for pooled connection in milliseconds
+   */
+  public static double getAverageConnectionWait() {
+    long waits = connectionWaits.get();
+    return waits == 0 ? 0 : totalConnectionWait.get() / (double) waits / 1_000_000.0;
+  }
+
+  /**
+   * @return longest time spent waiting for pooled connection in milliseconds
+   */
+  public static double getMaxConnectionWait() {
+    return maxConnectionWait.get() / 1_000_000.0;
+  }
+
   public BoneCP getConnectionPool() {
     return connectionPool;
   }
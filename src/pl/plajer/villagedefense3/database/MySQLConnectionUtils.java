@@ -18,16 +18,17 @@
 
 package pl.plajer.villagedefense3.database;
 
+import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.concurrent.locks.Lock;
 
-import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 
 import pl.plajer.villagedefense3.Main;
-import pl.plajer.villagedefense3.user.User;
 import pl.plajer.villagedefense3.user.UserManager;
-import pl.plajer.villagedefense3.utils.MessageUtils;
+import pl.plajer.villagedefense3.villagedefenseapi.StatsStorage;
 
 /**
  * @author Plajer
@@ -36,81 +37,59 @@ import pl.plajer.villagedefense3.utils.MessageUtils;
  */
 public class MySQLConnectionUtils {
 
+  /**
+   * Queues load of player statistics on database executor, load runs after all earlier
+   * database tasks of the same player (like save after quick rejoin).
+   *
+   * @param player player to load statistics of
+   * @param plugin plugin instance
+   */
   public static void loadPlayerStats(Player player, Main plugin) {
-    boolean b = false;
-    MySQLDatabase database = plugin.getMySQLDatabase();
-    ResultSet resultSet = database.executeQuery("SELECT UUID from playerstats WHERE UUID='" + player.getUniqueId().toString() + "'");
-    try {
-      if (!resultSet.next()) {
-        database.insertPlayer(player.getUniqueId().toString());
-        b = true;
+    plugin.getMySQLDatabase().getExecutor().submitLoad(player, () -> {
+      try {
+        load(player, plugin);
+      } catch (SQLException e) {
+        //executor retries and reports failure after last attempt
+        Main.debug("Loading statistics of " + player.getName() + " failed: " + e.getMessage(), System.currentTimeMillis());
+        throw e;
       }
+    });
+  }
 
-      int gamesplayed;
-      int zombiekills;
-      int highestwave;
-      int deaths;
-      int xp;
-      int level;
-      int orbs;
-      gamesplayed = database.getStat(player.getUniqueId().toString(), "gamesplayed");
-      zombiekills = database.getStat(player.getUniqueId().toString(), "kills");
-      highestwave = database.getStat(player.getUniqueId().toString(), "highestwave");
-      deaths = database.getStat(player.getUniqueId().toString(), "deaths");
-      xp = database.getStat(player.getUniqueId().toString(), "xp");
-      level = database.getStat(player.getUniqueId().toString(), "level");
-      orbs = database.getStat(player.getUniqueId().toString(), "orbs");
-      User user = UserManager.getUser(player.getUniqueId());
-      user.setInt("gamesplayed", gamesplayed);
-      user.setInt("kills", zombiekills);
-      user.setInt("highestwave", highestwave);
-      user.setInt("deaths", deaths);
-      user.setInt("xp", xp);
-      user.setInt("level", level);
-      user.setInt("orbs", orbs);
-      b = true;
-    } catch (SQLException e1) {
-      System.out.print("CONNECTION FAILED FOR PLAYER " + player.getName());
-      e1.printStackTrace();
-      MessageUtils.errorOccured();
-      Bukkit.getConsoleSender().sendMessage("Cannot save contents to MySQL database!");
-      Bukkit.getConsoleSender().sendMessage("Check configuration of mysql.yml file or disable mysql option in config.yml");
+  /**
+   * Loads all statistics of player with single query, player row is inserted if it doesn't exist yet.
+   */
+  private static void load(Player player, Main plugin) throws SQLException {
+    MySQLConnectionManager manager = plugin.getMySQLDatabase().getConnectionManager();
+    String uuid = player.getUniqueId().toString();
+    int[] values = new int[StatsStorage.StatisticType.values().length];
+    Connection connection = manager.getConnection();
+    if (connection == null) {
+      throw new SQLException("No database connection available");
     }
-    if (!b) {
-      try {
-        if (!resultSet.next()) {
-          database.insertPlayer(player.getUniqueId().toString());
+    Lock profileLock = plugin.getMySQLDatabase().getProfileLock();
+    profileLock.lock();
+    //statements are cached by connection pool
+    try (PreparedStatement select = connection.prepareStatement("SELECT * FROM playerstats WHERE UUID=?")) {
+      select.setString(1, uuid);
+      try (ResultSet resultSet = select.executeQuery()) {
+        if (resultSet.next()) {
+          for (StatsStorage.StatisticType statistic : StatsStorage.StatisticType.values()) {
+            values[statistic.ordinal()] = resultSet.getInt(statistic.getName());
+          }
+        } else {
+          try (PreparedStatement insert = connection.prepareStatement("INSERT INTO playerstats (UUID,name) VALUES (?,?) ON DUPLICATE KEY UPDATE name=VALUES(name)")) {
+            insert.setString(1, uuid);
+            insert.setString(2, player.getName());
+            insert.executeUpdate();
+          }
+          plugin.getMySQLDatabase().markWritten(uuid);
         }
-
-        int gamesplayed;
-        int zombiekills;
-        int highestwave;
-        int deaths;
-        int xp;
-        int level;
-        int orbs;
-        gamesplayed = database.getStat(player.getUniqueId().toString(), "gamesplayed");
-        zombiekills = database.getStat(player.getUniqueId().toString(), "kills");
-        highestwave = database.getStat(player.getUniqueId().toString(), "highestwave");
-        deaths = database.getStat(player.getUniqueId().toString(), "deaths");
-        xp = database.getStat(player.getUniqueId().toString(), "xp");
-        level = database.getStat(player.getUniqueId().toString(), "level");
-        orbs = database.getStat(player.getUniqueId().toString(), "orbs");
-        User user = UserManager.getUser(player.getUniqueId());
-        user.setInt("gamesplayed", gamesplayed);
-        user.setInt("kills", zombiekills);
-        user.setInt("highestwave", highestwave);
-        user.setInt("deaths", deaths);
-        user.setInt("xp", xp);
-        user.setInt("level", level);
-        user.setInt("orbs", orbs);
-      } catch (SQLException e1) {
-        System.out.print("CONNECTION FAILED TWICE FOR PLAYER " + player.getName());
-        e1.printStackTrace();
-        MessageUtils.errorOccured();
-        Bukkit.getConsoleSender().sendMessage("Cannot save contents to MySQL database!");
-        Bukkit.getConsoleSender().sendMessage("Check configuration of mysql.yml file or disable mysql option in config.yml");
       }
+      UserManager.getUser(player.getUniqueId()).applyLoadedStats(values);
+    } finally {
+      profileLock.unlock();
+      manager.closeConnection(connection);
     }
   }
 
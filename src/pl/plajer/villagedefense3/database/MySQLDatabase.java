@@ -18,30 +18,38 @@
 
 package pl.plajer.villagedefense3.database;
 
-import com.mysql.jdbc.exceptions.jdbc4.MySQLSyntaxErrorException;
-
 import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.locks.Lock;
 
 import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
 import org.bukkit.plugin.java.JavaPlugin;
 
 import pl.plajer.villagedefense3.Main;
 import pl.plajer.villagedefense3.utils.MessageUtils;
 
-public class MySQLDatabase {
+public class MySQLDatabase implements StatsBackend {
 
   private MySQLConnectionManager manager;
+  private MySQLStatsFlusher statsFlusher;
+  private MySQLSchemaMigrator schemaMigrator;
+  private DatabaseExecutor executor;
+  private volatile boolean keyedSchema = false;
   private JavaPlugin plugin;
 
-  public MySQLDatabase(JavaPlugin javaPlugin) {
+  public MySQLDatabase(JavaPlugin javaPlugin, DatabaseExecutor executor) {
     this.plugin = javaPlugin;
     this.manager = new MySQLConnectionManager(plugin);
+    this.statsFlusher = new MySQLStatsFlusher((Main) javaPlugin, this);
+    this.schemaMigrator = new MySQLSchemaMigrator(this);
+    this.executor = executor;
     Main.debug("Configuring MySQL connection", System.currentTimeMillis());
     manager.configureConnPool();
 
@@ -51,26 +59,7 @@ public class MySQLDatabase {
         Main.debug("Failed to connect to database", System.currentTimeMillis());
         return;
       }
-      connection.createStatement().executeUpdate("CREATE TABLE IF NOT EXISTS `playerstats` (\n"
-              + "  `UUID` text NOT NULL,\n"
-              + "  `name` text NOT NULL DEFAULT 'Unknown Player',\n"
-              + "  `kills` int(11) NOT NULL DEFAULT '0',\n"
-              + "  `deaths` int(11) NOT NULL DEFAULT '0',\n"
-              + "  `highestwave` int(11) NOT NULL DEFAULT '0',\n"
-              + "  `gamesplayed` int(11) NOT NULL DEFAULT '0',\n"
-              + "  `level` int(11) NOT NULL DEFAULT '0',\n"
-              + "  `xp` int(11) NOT NULL DEFAULT '0',\n"
-              + "  `orbs` int(11) NOT NULL DEFAULT '0'\n"
-              + ");");
-
-      //temporary workaround
-      try {
-        connection.createStatement().executeUpdate("ALTER TABLE playerstats ADD name text NOT NULL DEFAULT 'Unknown Player'");
-      } catch (MySQLSyntaxErrorException e) {
-        if (!e.getMessage().contains("Duplicate column name")) {
-          e.printStackTrace();
-        }
-      }
+      keyedSchema = schemaMigrator.prepare(connection);
       manager.closeConnection(connection);
     } catch (SQLException e) {
       e.printStackTrace();
@@ -94,28 +83,75 @@ public class MySQLDatabase {
 
   }
 
-  public ResultSet executeQuery(String query) {
-    try {
-      Connection connection = manager.getConnection();
-      Statement statement = connection.createStatement();
-      ResultSet rs = statement.executeQuery(query);
-      manager.closeConnection(connection);
-      return rs;
-    } catch (SQLException exception) {
-      exception.printStackTrace();
-      plugin.getLogger().warning("Failed to execute request: " + query);
-      return null;
-    }
+  public MySQLConnectionManager getConnectionManager() {
+    return manager;
+  }
+
+  /**
+   * @return true if playerstats table has primary key on UUID so rows can be upserted
+   */
+  public boolean isKeyedSchema() {
+    return keyedSchema;
   }
 
-  public void insertPlayer(String UUID) {
-    executeUpdate("INSERT INTO playerstats (UUID,xp) VALUES ('" + UUID + "',0)");
+  void setKeyedSchema(boolean keyedSchema) {
+    this.keyedSchema = keyedSchema;
+  }
+
+  /**
+   * Notifies schema migration that player row was written.
+   */
+  void markWritten(String uuid) {
+    schemaMigrator.markWritten(uuid);
+  }
+
+  /**
+   * @return lock player profile loads must hold, blocks them while playerstats tables are swapped
+   */
+  Lock getProfileLock() {
+    return schemaMigrator.getProfileLock();
+  }
+
+  /**
+   * @return executor all database work should be run on
+   */
+  public DatabaseExecutor getExecutor() {
+    return executor;
+  }
+
+  public MySQLStatsFlusher getStatsFlusher() {
+    return statsFlusher;
+  }
+
+  /**
+   * Finishes queued database tasks and saves statistics of online players, used when plugin disables.
+   */
+  public void drain() {
+    //queued loads and saves are finished before statistics of online players are saved
+    executor.shutdown();
+    statsFlusher.flushAll();
   }
 
   public void closeDatabase() {
     manager.shutdownConnPool();
   }
 
+  @Override
+  public void loadStats(Player player) {
+    MySQLConnectionUtils.loadPlayerStats(player, (Main) plugin);
+  }
+
+  @Override
+  public void saveStats(Player player) {
+    statsFlusher.flush(player);
+  }
+
+  @Override
+  public void close() {
+    drain();
+    closeDatabase();
+  }
+
   public void addStat(String UUID, String stat, int amount) {
     executeUpdate("UPDATE playerstats SET " + stat + "=" + stat + "+" + amount + " WHERE UUID='" + UUID + "'");
   }
@@ -125,29 +161,86 @@ public class MySQLDatabase {
   }
 
   public int getStat(String UUID, String stat) {
-    ResultSet set = executeQuery("SELECT " + stat + " FROM playerstats WHERE UUID='" + UUID + "'");
-    try {
-      if (!set.next()) {
-        return 0;
+    Connection connection = manager.getConnection();
+    if (connection == null) {
+      return 0;
+    }
+    try (PreparedStatement statement = connection.prepareStatement("SELECT " + stat + " FROM playerstats WHERE UUID=?")) {
+      statement.setString(1, UUID);
+      try (ResultSet set = statement.executeQuery()) {
+        return set.next() ? set.getInt(1) : 0;
       }
-      return (set.getInt(1));
     } catch (SQLException e) {
       e.printStackTrace();
       return 0;
+    } finally {
+      manager.closeConnection(connection);
+    }
+  }
+
+  /**
+   * @return name of player saved with his statistics or null if unknown
+   */
+  @Override
+  public String getName(UUID uuid) {
+    Connection connection = manager.getConnection();
+    if (connection == null) {
+      return null;
+    }
+    try (PreparedStatement statement = connection.prepareStatement("SELECT name FROM playerstats WHERE UUID=?")) {
+      statement.setString(1, uuid.toString());
+      try (ResultSet set = statement.executeQuery()) {
+        return set.next() ? set.getString(1) : null;
+      }
+    } catch (SQLException e) {
+      e.printStackTrace();
+      return null;
+    } finally {
+      manager.closeConnection(connection);
     }
   }
 
+  @Override
   public Map<UUID, Integer> getColumn(String player) {
-    ResultSet set = executeQuery("SELECT UUID, " + player + " FROM playerstats ORDER BY " + player + " ASC;");
     Map<UUID, Integer> column = new LinkedHashMap<>();
-    try {
+    Connection connection = manager.getConnection();
+    if (connection == null) {
+      return column;
+    }
+    try (Statement statement = connection.createStatement();
+         ResultSet set = statement.executeQuery("SELECT UUID, " + player + " FROM playerstats ORDER BY " + player + " ASC;")) {
       while (set.next()) {
         column.put(java.util.UUID.fromString(set.getString("UUID")), set.getInt(player));
       }
     } catch (SQLException e) {
       e.printStackTrace();
+    } finally {
+      manager.closeConnection(connection);
     }
     return column;
   }
 
+  @Override
+  public Map<UUID, Integer> getTop(String statistic, int limit) {
+    Map<UUID, Integer> top = new LinkedHashMap<>();
+    Connection connection = manager.getConnection();
+    if (connection == null) {
+      return top;
+    }
+    //statistic columns are indexed, only requested rows are read and sent
+    try (PreparedStatement statement = connection.prepareStatement("SELECT UUID, " + statistic + " FROM playerstats ORDER BY " + statistic + " DESC LIMIT ?")) {
+      statement.setInt(1, limit);
+      try (ResultSet set = statement.executeQuery()) {
+        while (set.next()) {
+          top.put(UUID.fromString(set.getString("UUID")), set.getInt(statistic));
+        }
+      }
+    } catch (SQLException e) {
+      e.printStackTrace();
+    } finally {
+      manager.closeConnection(connection);
+    }
+    return top;
+  }
+
 }
\ No newline at end of file
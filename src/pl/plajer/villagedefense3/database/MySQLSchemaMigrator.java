@@ -0,0 +1,394 @@
+/*
+ * Village Defense 3 - Protect villagers from hordes of zombies
+ * Copyright (C) 2018  Plajer's Lair - maintained by Plajer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.plajer.villagedefense3.database;
+
+import com.mysql.jdbc.exceptions.jdbc4.MySQLSyntaxErrorException;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.bukkit.Bukkit;
+
+import pl.plajer.villagedefense3.Main;
+import pl.plajer.villagedefense3.handlers.ChatManager;
+import pl.plajer.villagedefense3.utils.MessageUtils;
+import pl.plajer.villagedefense3.villagedefenseapi.StatsStorage;
+
+/**
+ * Keeps playerstats table at current schema version.
+ * <p>
+ * Schema version 2 uses CHAR(36) primary key on UUID and indexes on statistic columns,
+ * legacy table without keys is copied to new table in chunks in background while plugin keeps using it,
+ * tables are swapped once copy is done. Schema version is stored in villagedefense_schema table.
+ *
+ * @author Plajer
+ * <p>
+ * Created at 18.10.2018
+ */
+public class MySQLSchemaMigrator {
+
+  public static final int SCHEMA_VERSION = 2;
+  private static final String TABLE = "playerstats";
+  private static final int CHUNK_SIZE = 1000;
+  private static final String MIGRATION_KEY = "playerstats migration";
+  private final MySQLDatabase database;
+  //players written to legacy table during migration, copied again after tables are swapped
+  private final Set<String> writtenDuringMigration = ConcurrentHashMap.newKeySet();
+  private volatile boolean migrating = false;
+  //held for writing while tables are swapped, profile loads wait so they never read half migrated player
+  private final ReadWriteLock swapLock = new ReentrantReadWriteLock();
+
+  MySQLSchemaMigrator(MySQLDatabase database) {
+    this.database = database;
+  }
+
+  /**
+   * Creates missing tables and starts migration of legacy table if needed.
+   *
+   * @param connection connection to use
+   * @return true if playerstats table is already at current schema version
+   * @throws SQLException if tables couldn't be created
+   */
+  boolean prepare(Connection connection) throws SQLException {
+    try (Statement statement = connection.createStatement()) {
+      statement.executeUpdate("CREATE TABLE IF NOT EXISTS `villagedefense_schema` (\n"
+              + "  `table_name` varchar(64) NOT NULL,\n"
+              + "  `version` int(11) NOT NULL,\n"
+              + "  PRIMARY KEY (`table_name`)\n"
+              + ");");
+      int version = getVersion(connection);
+      if (version >= SCHEMA_VERSION) {
+        return true;
+      }
+      if (!tableExists(connection, TABLE)) {
+        statement.executeUpdate(createTableQuery(TABLE));
+        setVersion(connection, SCHEMA_VERSION);
+        return true;
+      }
+      if (tableExists(connection, TABLE + "_legacy") && !tableExists(connection, TABLE + "_v2")) {
+        //server stopped after tables were swapped but before version was saved, playerstats is already keyed
+        Main.debug("Interrupted playerstats migration found, finishing it", System.currentTimeMillis());
+        submit("finish playerstats migration", this::finishInterruptedSwap);
+        return true;
+      }
+      Main.debug("Legacy playerstats table found, migrating to schema version " + SCHEMA_VERSION, System.currentTimeMillis());
+      setVersion(connection, 1);
+      //temporary workaround, very old tables don't have name column
+      try {
+        statement.executeUpdate("ALTER TABLE playerstats ADD name text NOT NULL DEFAULT 'Unknown Player'");
+      } catch (MySQLSyntaxErrorException e) {
+        if (!e.getMessage().contains("Duplicate column name")) {
+          e.printStackTrace();
+        }
+      }
+      //table left by interrupted migration is reused, copying is idempotent
+      statement.executeUpdate(createTableQuery(TABLE + "_v2"));
+    }
+    migrating = true;
+    submit("migrate playerstats table", this::migrate);
+    return false;
+  }
+
+  /**
+   * Migration runs on database executor so plugin disable waits for it instead of closing pool under it.
+   */
+  private void submit(String name, DatabaseExecutor.SQLTask migration) {
+    if (!database.getExecutor().submit(MIGRATION_KEY, name, migration)) {
+      Bukkit.getConsoleSender().sendMessage(ChatManager.PLUGIN_PREFIX + "Couldn't " + name + ", database queue is full! It will be tried again on next start.");
+    }
+  }
+
+  /**
+   * Remembers player written to legacy table while migration runs.
+   */
+  void markWritten(String uuid) {
+    if (migrating) {
+      writtenDuringMigration.add(uuid);
+    }
+  }
+
+  /**
+   * @return lock profile loads must hold for reading
+   */
+  Lock getProfileLock() {
+    return swapLock.readLock();
+  }
+
+  private void migrate() {
+    long start = System.currentTimeMillis();
+    Connection read = database.getConnectionManager().getConnection();
+    Connection write = database.getConnectionManager().getConnection();
+    if (read == null || write == null) {
+      database.getConnectionManager().closeConnection(read);
+      database.getConnectionManager().closeConnection(write);
+      Bukkit.getConsoleSender().sendMessage(ChatManager.PLUGIN_PREFIX + "Couldn't migrate playerstats table, no database connection!");
+      return;
+    }
+    long copied = 0;
+    try {
+      write.setAutoCommit(false);
+      String columns = getColumns();
+      try (Statement select = read.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+           PreparedStatement insert = write.prepareStatement(upsertQuery(TABLE + "_v2", Upsert.COPY_LEGACY))) {
+        //rows are streamed instead of loading whole legacy table into memory
+        select.setFetchSize(Integer.MIN_VALUE);
+        try (ResultSet set = select.executeQuery("SELECT " + columns + " FROM " + TABLE)) {
+          int chunk = 0;
+          while (set.next()) {
+            if (!bindRow(insert, set)) {
+              continue;
+            }
+            insert.addBatch();
+            copied++;
+            if (++chunk >= CHUNK_SIZE) {
+              insert.executeBatch();
+              write.commit();
+              chunk = 0;
+              //copying is idempotent, migration continues on next start instead of holding disable
+              if (database.getExecutor().isShutdown()) {
+                Bukkit.getConsoleSender().sendMessage(ChatManager.PLUGIN_PREFIX + "Plugin is disabling, playerstats migration will continue on next start");
+                return;
+              }
+            }
+          }
+          insert.executeBatch();
+          write.commit();
+        }
+      }
+      //flusher must not write and profiles must not be loaded while tables are swapped
+      synchronized (database.getStatsFlusher()) {
+        swapLock.writeLock().lock();
+        try {
+          try (Statement statement = write.createStatement()) {
+            statement.executeUpdate("RENAME TABLE " + TABLE + " TO " + TABLE + "_legacy, " + TABLE + "_v2 TO " + TABLE);
+          }
+          write.commit();
+          migrating = false;
+          copyWrittenDuringMigration(write);
+          setVersion(write, SCHEMA_VERSION);
+          write.commit();
+          database.setKeyedSchema(true);
+        } finally {
+          swapLock.writeLock().unlock();
+        }
+      }
+      Bukkit.getConsoleSender().sendMessage(ChatManager.PLUGIN_PREFIX + "Migrated " + copied + " rows of playerstats table to schema version " + SCHEMA_VERSION
+              + " in " + (System.currentTimeMillis() - start) + "ms, old table was kept as " + TABLE + "_legacy");
+    } catch (SQLException e) {
+      e.printStackTrace();
+      MessageUtils.errorOccured();
+      Bukkit.getConsoleSender().sendMessage(ChatManager.PLUGIN_PREFIX + "Couldn't migrate playerstats table, it will be tried again on next start!");
+    } finally {
+      try {
+        write.setAutoCommit(true);
+      } catch (SQLException ignored) {
+        //connection is released anyway
+      }
+      database.getConnectionManager().closeConnection(read);
+      database.getConnectionManager().closeConnection(write);
+    }
+  }
+
+  /**
+   * Finishes migration which was interrupted after tables were swapped, version change wasn't saved then
+   * and players written during migration are unknown, so whole legacy table is merged again keeping highest values.
+   * Only statistics that never decrease are merged, orbs of players already in keyed table are kept
+   * as stale higher legacy value would otherwise come back.
+   */
+  private void finishInterruptedSwap() {
+    Connection connection = database.getConnectionManager().getConnection();
+    if (connection == null) {
+      Bukkit.getConsoleSender().sendMessage(ChatManager.PLUGIN_PREFIX + "Couldn't finish playerstats migration, no database connection!");
+      return;
+    }
+    synchronized (database.getStatsFlusher()) {
+      swapLock.writeLock().lock();
+      try (Statement select = connection.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+           PreparedStatement insert = connection.prepareStatement(upsertQuery(TABLE, Upsert.MERGE_LEGACY))) {
+        select.setFetchSize(Integer.MIN_VALUE);
+        try (ResultSet set = select.executeQuery(mergedRowsQuery(null))) {
+          int chunk = 0;
+          while (set.next()) {
+            if (!bindRow(insert, set)) {
+              continue;
+            }
+            insert.addBatch();
+            if (++chunk >= CHUNK_SIZE) {
+              insert.executeBatch();
+              chunk = 0;
+            }
+          }
+        }
+        insert.executeBatch();
+        setVersion(connection, SCHEMA_VERSION);
+        Bukkit.getConsoleSender().sendMessage(ChatManager.PLUGIN_PREFIX + "Finished interrupted migration of playerstats table to schema version " + SCHEMA_VERSION);
+      } catch (SQLException e) {
+        e.printStackTrace();
+        MessageUtils.errorOccured();
+        Bukkit.getConsoleSender().sendMessage(ChatManager.PLUGIN_PREFIX + "Couldn't finish playerstats migration, it will be tried again on next start!");
+      } finally {
+        swapLock.writeLock().unlock();
+        database.getConnectionManager().closeConnection(connection);
+      }
+    }
+  }
+
+  private void copyWrittenDuringMigration(Connection connection) throws SQLException {
+    if (writtenDuringMigration.isEmpty()) {
+      return;
+    }
+    List<String> players = new ArrayList<>(writtenDuringMigration);
+    writtenDuringMigration.clear();
+    //values written during migration replace merged ones, duplicated rows are merged to one first
+    try (PreparedStatement select = connection.prepareStatement(mergedRowsQuery("UUID=?"));
+         PreparedStatement insert = connection.prepareStatement(upsertQuery(TABLE, Upsert.REPLACE))) {
+      for (String uuid : players) {
+        select.setString(1, uuid);
+        try (ResultSet set = select.executeQuery()) {
+          if (set.next() && bindRow(insert, set)) {
+            insert.addBatch();
+          }
+        }
+      }
+      insert.executeBatch();
+    }
+  }
+
+  /**
+   * Legacy table may contain duplicated rows of one player, legacy updates change all of them the same way
+   * so highest value of each column is the current one.
+   */
+  private static String mergedRowsQuery(String condition) {
+    StringBuilder query = new StringBuilder("SELECT UUID, MAX(name) AS name");
+    for (StatsStorage.StatisticType statistic : StatsStorage.StatisticType.values()) {
+      query.append(", MAX(").append(statistic.getName()).append(") AS ").append(statistic.getName());
+    }
+    query.append(" FROM ").append(TABLE).append("_legacy");
+    if (condition != null) {
+      query.append(" WHERE ").append(condition);
+    }
+    return query.append(" GROUP BY UUID").toString();
+  }
+
+  private boolean bindRow(PreparedStatement insert, ResultSet set) throws SQLException {
+    String uuid = set.getString("UUID");
+    if (uuid == null || uuid.length() != 36) {
+      return false;
+    }
+    insert.setString(1, uuid);
+    insert.setString(2, set.getString("name"));
+    int index = 3;
+    for (StatsStorage.StatisticType statistic : StatsStorage.StatisticType.values()) {
+      insert.setInt(index++, set.getInt(statistic.getName()));
+    }
+    return true;
+  }
+
+  private static String getColumns() {
+    StringBuilder columns = new StringBuilder("UUID, name");
+    for (StatsStorage.StatisticType statistic : StatsStorage.StatisticType.values()) {
+      columns.append(", ").append(statistic.getName());
+    }
+    return columns.toString();
+  }
+
+  private static String upsertQuery(String table, Upsert upsert) {
+    StringBuilder query = new StringBuilder("INSERT INTO ").append(table).append(" (").append(getColumns()).append(") VALUES (?, ?");
+    StringBuilder update = new StringBuilder(" ON DUPLICATE KEY UPDATE name=VALUES(name)");
+    for (StatsStorage.StatisticType statistic : StatsStorage.StatisticType.values()) {
+      String column = statistic.getName();
+      query.append(", ?");
+      if (upsert == Upsert.REPLACE || (upsert == Upsert.COPY_LEGACY && !isMonotonic(statistic))) {
+        update.append(", ").append(column).append("=VALUES(").append(column).append(")");
+      } else if (isMonotonic(statistic)) {
+        update.append(", ").append(column).append("=GREATEST(").append(column).append(", VALUES(").append(column).append("))");
+      }
+    }
+    return query.append(")").append(update).toString();
+  }
+
+  /**
+   * @return true if statistic never decreases, so the highest of two values is the newer one
+   */
+  private static boolean isMonotonic(StatsStorage.StatisticType statistic) {
+    //orbs are spent in game
+    return statistic != StatsStorage.StatisticType.ORBS;
+  }
+
+  private static String createTableQuery(String table) {
+    StringBuilder query = new StringBuilder("CREATE TABLE IF NOT EXISTS `").append(table).append("` (\n")
+            .append("  `UUID` char(36) NOT NULL,\n")
+            .append("  `name` varchar(32) NOT NULL DEFAULT 'Unknown Player',\n");
+    for (StatsStorage.StatisticType statistic : StatsStorage.StatisticType.values()) {
+      query.append("  `").append(statistic.getName()).append("` int(11) NOT NULL DEFAULT '0',\n");
+    }
+    query.append("  PRIMARY KEY (`UUID`)");
+    //statistics are sorted for leaderboards
+    for (StatsStorage.StatisticType statistic : StatsStorage.StatisticType.values()) {
+      query.append(",\n  KEY `").append(statistic.getName()).append("` (`").append(statistic.getName()).append("`)");
+    }
+    return query.append("\n);").toString();
+  }
+
+  private static boolean tableExists(Connection connection, String table) throws SQLException {
+    DatabaseMetaData metaData = connection.getMetaData();
+    try (ResultSet set = metaData.getTables(connection.getCatalog(), null, table, new String[]{"TABLE"})) {
+      return set.next();
+    }
+  }
+
+  private static int getVersion(Connection connection) throws SQLException {
+    try (PreparedStatement statement = connection.prepareStatement("SELECT version FROM villagedefense_schema WHERE table_name=?")) {
+      statement.setString(1, TABLE);
+      try (ResultSet set = statement.executeQuery()) {
+        return set.next() ? set.getInt(1) : 0;
+      }
+    }
+  }
+
+  private static void setVersion(Connection connection, int version) throws SQLException {
+    try (PreparedStatement statement = connection.prepareStatement("INSERT INTO villagedefense_schema (table_name, version) VALUES (?, ?) "
+            + "ON DUPLICATE KEY UPDATE version=VALUES(version)")) {
+      statement.setString(1, TABLE);
+      statement.setInt(2, version);
+      statement.executeUpdate();
+    }
+  }
+
+  private enum Upsert {
+    //values replace stored ones
+    REPLACE,
+    //legacy rows copied again, statistics that never decrease keep highest value, others are replaced
+    COPY_LEGACY,
+    //legacy table merged into keyed one, statistics that never decrease keep highest value, others keep keyed value
+    MERGE_LEGACY
+  }
+
+}
@@ -0,0 +1,341 @@
+/*
+ * Village Defense 3 - Protect villagers from hordes of zombies
+ * Copyright (C) 2018  Plajer's Lair - maintained by Plajer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.plajer.villagedefense3.database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitRunnable;
+
+import pl.plajer.villagedefense3.Main;
+import pl.plajer.villagedefense3.user.User;
+import pl.plajer.villagedefense3.user.UserManager;
+import pl.plajer.villagedefense3.utils.MessageUtils;
+import pl.plajer.villagedefense3.villagedefenseapi.StatsStorage;
+
+/**
+ * Writes changed player statistics to MySQL in background.
+ * <p>
+ * Users track which statistics changed since last write, changes are snapshotted on main thread,
+ * coalesced per player and written asynchronously as one upsert per player
+ * batched across all players changing the same statistics.
+ *
+ * @author Plajer
+ * <p>
+ * Created at 18.10.2018
+ */
+public class MySQLStatsFlusher extends BukkitRunnable {
+
+  private static final StatsStorage.StatisticType[] STATISTICS = StatsStorage.StatisticType.values();
+  private static volatile long flushes;
+  private static volatile long totalFlushTime;
+  private static volatile long maxFlushTime;
+  private static volatile long lastFlushTime;
+  private static volatile int lastBatchSize;
+  private static volatile int maxBatchSize;
+  private static volatile long writtenPlayers;
+  private final Main plugin;
+  private final MySQLDatabase database;
+  private static final int ALL_STATISTICS = (1 << STATISTICS.length) - 1;
+  private static final Object FLUSH_KEY = new Object();
+  private final Map<UUID, PlayerStats> pending = new ConcurrentHashMap<>();
+  private final Map<Integer, String> statements = new ConcurrentHashMap<>();
+
+  public MySQLStatsFlusher(Main plugin, MySQLDatabase database) {
+    this.plugin = plugin;
+    this.database = database;
+  }
+
+  /**
+   * @return amount of finished flushes
+   */
+  public static long getFlushes() {
+    return flushes;
+  }
+
+  /**
+   * @return average flush duration in milliseconds
+   */
+  public static double getAverageFlushTime() {
+    return flushes == 0 ? 0 : totalFlushTime / (double) flushes;
+  }
+
+  public static long getMaxFlushTime() {
+    return maxFlushTime;
+  }
+
+  public static long getLastFlushTime() {
+    return lastFlushTime;
+  }
+
+  public static int getLastBatchSize() {
+    return lastBatchSize;
+  }
+
+  public static int getMaxBatchSize() {
+    return maxBatchSize;
+  }
+
+  public static long getWrittenPlayers() {
+    return writtenPlayers;
+  }
+
+  /**
+   * @return amount of players waiting to be written
+   */
+  public int getPendingPlayers() {
+    return pending.size();
+  }
+
+  /**
+   * Periodic flush, snapshots changed statistics of online players and writes them asynchronously.
+   */
+  @Override
+  public void run() {
+    for (Player player : Bukkit.getOnlinePlayers()) {
+      queue(player, false);
+    }
+    if (!pending.isEmpty()) {
+      database.getExecutor().submit(FLUSH_KEY, "statistics flush", this::flushPending);
+    }
+  }
+
+  /**
+   * Snapshots changed statistics of player, must be called from main thread.
+   *
+   * @param player player to snapshot
+   * @param all    true to write all statistics not only changed ones
+   */
+  private void queue(Player player, boolean all) {
+    User user = UserManager.getUser(player.getUniqueId());
+    if (!user.isStatsLoaded()) {
+      //never overwrite stored statistics with defaults of not loaded user
+      return;
+    }
+    int changed = user.takeChangedStats();
+    if (all) {
+      changed = ALL_STATISTICS;
+    } else if (changed == 0) {
+      return;
+    }
+    int[] values = new int[STATISTICS.length];
+    for (StatsStorage.StatisticType statistic : STATISTICS) {
+      values[statistic.ordinal()] = user.getInt(statistic.getName());
+    }
+    PlayerStats stats = new PlayerStats(player.getUniqueId(), player.getName(), changed, values);
+    pending.merge(player.getUniqueId(), stats, (older, newer) -> newer.mergeOlder(older));
+  }
+
+  /**
+   * Snapshots all player statistics and writes them asynchronously in order with other
+   * database tasks of player, used when player quits.
+   *
+   * @param player player to write statistics of
+   */
+  public void flush(Player player) {
+    queue(player, true);
+    UUID uuid = player.getUniqueId();
+    //if rejected statistics stay pending for next periodic flush
+    database.getExecutor().submit(uuid, "save statistics of " + player.getName(), () -> flushPlayer(uuid));
+  }
+
+  /**
+   * Snapshots statistics of all online players and writes them synchronously, used when plugin disables.
+   */
+  public void flushAll() {
+    for (Player player : Bukkit.getOnlinePlayers()) {
+      queue(player, false);
+    }
+    try {
+      flushPending();
+    } catch (SQLException e) {
+      e.printStackTrace();
+      MessageUtils.errorOccured();
+      Bukkit.getConsoleSender().sendMessage("Cannot save contents to MySQL database!");
+    }
+  }
+
+  /**
+   * Writes all pending statistics.
+   *
+   * @throws SQLException if write failed, statistics are pending again then
+   */
+  synchronized void flushPending() throws SQLException {
+    List<PlayerStats> batch = new ArrayList<>();
+    for (UUID uuid : pending.keySet()) {
+      PlayerStats stats = pending.remove(uuid);
+      if (stats != null) {
+        batch.add(stats);
+      }
+    }
+    write(batch);
+  }
+
+  private synchronized void flushPlayer(UUID uuid) throws SQLException {
+    PlayerStats stats = pending.remove(uuid);
+    if (stats != null) {
+      write(Collections.singletonList(stats));
+    }
+  }
+
+  /**
+   * Writes statistics, writes never run concurrently so older snapshot can't overwrite newer one.
+   */
+  private synchronized void write(List<PlayerStats> batch) throws SQLException {
+    if (batch.isEmpty()) {
+      return;
+    }
+    long start = System.currentTimeMillis();
+    //players with the same changed statistics share one batched statement
+    Map<Integer, List<PlayerStats>> groups = new LinkedHashMap<>();
+    for (PlayerStats stats : batch) {
+      groups.computeIfAbsent(stats.changed, changed -> new ArrayList<>()).add(stats);
+    }
+    Connection connection = database.getConnectionManager().getConnection();
+    if (connection == null) {
+      requeue(batch);
+      throw new SQLException("No database connection available");
+    }
+    try {
+      connection.setAutoCommit(false);
+      for (Map.Entry<Integer, List<PlayerStats>> group : groups.entrySet()) {
+        boolean upsert = database.isKeyedSchema();
+        //statements of both schemas are cached separately, upsert flag is stored above statistic bits
+        int key = upsert ? group.getKey() | 1 << STATISTICS.length : group.getKey();
+        try (PreparedStatement statement = connection.prepareStatement(statements.computeIfAbsent(key, this::buildStatement))) {
+          for (PlayerStats stats : group.getValue()) {
+            bind(statement, stats, upsert);
+            statement.addBatch();
+          }
+          statement.executeBatch();
+        }
+      }
+      connection.commit();
+      for (PlayerStats stats : batch) {
+        database.markWritten(stats.uuid.toString());
+      }
+    } catch (SQLException e) {
+      try {
+        connection.rollback();
+      } catch (SQLException ignored) {
+        //connection is broken, nothing to roll back
+      }
+      requeue(batch);
+      throw e;
+    } finally {
+      try {
+        connection.setAutoCommit(true);
+      } catch (SQLException ignored) {
+        //connection is released anyway
+      }
+      database.getConnectionManager().closeConnection(connection);
+    }
+    long time = System.currentTimeMillis() - start;
+    flushes++;
+    totalFlushTime += time;
+    lastFlushTime = time;
+    maxFlushTime = Math.max(maxFlushTime, time);
+    lastBatchSize = batch.size();
+    maxBatchSize = Math.max(maxBatchSize, batch.size());
+    writtenPlayers += batch.size();
+    Main.debug("Saved statistics of " + batch.size() + " players in " + time + "ms", System.currentTimeMillis());
+  }
+
+  private void requeue(List<PlayerStats> batch) {
+    //writes are serialized, so the only snapshot newer than failed one is pending and wins when merged
+    for (PlayerStats stats : batch) {
+      pending.merge(stats.uuid, stats, PlayerStats::mergeOlder);
+    }
+  }
+
+  private String buildStatement(int key) {
+    if ((key & 1 << STATISTICS.length) == 0) {
+      //legacy table has no key on UUID, rows are inserted when profile is loaded
+      StringBuilder builder = new StringBuilder("UPDATE playerstats SET name=?");
+      for (StatsStorage.StatisticType statistic : STATISTICS) {
+        if ((key & (1 << statistic.ordinal())) != 0) {
+          builder.append(", ").append(statistic.getName()).append("=?");
+        }
+      }
+      return builder.append(" WHERE UUID=?").toString();
+    }
+    StringBuilder columns = new StringBuilder("UUID, name");
+    StringBuilder values = new StringBuilder("?, ?");
+    StringBuilder update = new StringBuilder("name=VALUES(name)");
+    for (StatsStorage.StatisticType statistic : STATISTICS) {
+      if ((key & (1 << statistic.ordinal())) != 0) {
+        columns.append(", ").append(statistic.getName());
+        values.append(", ?");
+        update.append(", ").append(statistic.getName()).append("=VALUES(").append(statistic.getName()).append(")");
+      }
+    }
+    return "INSERT INTO playerstats (" + columns + ") VALUES (" + values + ") ON DUPLICATE KEY UPDATE " + update;
+  }
+
+  private void bind(PreparedStatement statement, PlayerStats stats, boolean upsert) throws SQLException {
+    int index = 1;
+    if (upsert) {
+      statement.setString(index++, stats.uuid.toString());
+    }
+    statement.setString(index++, stats.name);
+    for (StatsStorage.StatisticType statistic : STATISTICS) {
+      if ((stats.changed & (1 << statistic.ordinal())) != 0) {
+        statement.setInt(index++, stats.values[statistic.ordinal()]);
+      }
+    }
+    if (!upsert) {
+      statement.setString(index, stats.uuid.toString());
+    }
+  }
+
+  private static class PlayerStats {
+
+    private final UUID uuid;
+    private final String name;
+    private final int[] values;
+    private int changed;
+
+    PlayerStats(UUID uuid, String name, int changed, int[] values) {
+      this.uuid = uuid;
+      this.name = name;
+      this.changed = changed;
+      this.values = values;
+    }
+
+    /**
+     * Keeps values of this newer snapshot and statistics changed in both.
+     */
+    private PlayerStats mergeOlder(PlayerStats older) {
+      changed |= older.changed;
+      return this;
+    }
+
+  }
+
+}
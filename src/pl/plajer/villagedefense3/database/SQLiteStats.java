@@ -0,0 +1,324 @@
+/*
+ * Village Defense 3 - Protect villagers from hordes of zombies
+ * Copyright (C) 2018  Plajer's Lair - maintained by Plajer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.plajer.villagedefense3.database;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitRunnable;
+
+import pl.plajer.villagedefense3.Main;
+import pl.plajer.villagedefense3.handlers.Settings;
+import pl.plajer.villagedefense3.user.User;
+import pl.plajer.villagedefense3.user.UserManager;
+import pl.plajer.villagedefense3.utils.MessageUtils;
+import pl.plajer.villagedefense3.villagedefenseapi.StatsStorage;
+
+/**
+ * Statistics stored in embedded SQLite database (stats.db in plugin folder).
+ * <p>
+ * Database runs in WAL mode, changed statistics are collected every Stats-Flush-Interval
+ * and on player quit, then written in single batched transaction on database executor.
+ * Leaderboards are read through separate connection so they never wait for writes.
+ * SQLite driver is bundled with Spigot so no database server is needed.
+ *
+ * @author Plajer
+ * <p>
+ * Created at 18.10.2018
+ */
+public class SQLiteStats extends BukkitRunnable implements StatsBackend {
+
+  private static final String FLUSH_KEY = "statistics flush";
+  private static final StatsStorage.StatisticType[] STATISTICS = StatsStorage.StatisticType.values();
+  private final Main plugin;
+  private final DatabaseExecutor executor;
+  //latest unsaved statistics of players, removed once written
+  private final Map<UUID, Snapshot> pending = new ConcurrentHashMap<>();
+  //write connection guarded by this, SQLite allows one writer anyway
+  private Connection connection;
+  //read connection guarded by readLock, WAL readers see last committed data without blocking writer
+  private Connection readConnection;
+  private final Object readLock = new Object();
+
+  public SQLiteStats(Main plugin, DatabaseExecutor executor) {
+    this.plugin = plugin;
+    this.executor = executor;
+    Main.debug("Opening SQLite statistics database", System.currentTimeMillis());
+    try {
+      Class.forName("org.sqlite.JDBC");
+      String url = "jdbc:sqlite:" + new File(plugin.getDataFolder(), "stats.db").getAbsolutePath();
+      connection = DriverManager.getConnection(url);
+      try (Statement statement = connection.createStatement()) {
+        statement.execute("PRAGMA journal_mode=WAL");
+        //WAL keeps database consistent on crash, fsync on every commit isn't needed
+        statement.execute("PRAGMA synchronous=NORMAL");
+        StringBuilder table = new StringBuilder("CREATE TABLE IF NOT EXISTS playerstats (UUID TEXT PRIMARY KEY NOT NULL, name TEXT");
+        for (StatsStorage.StatisticType statistic : STATISTICS) {
+          table.append(", ").append(statistic.getName()).append(" INTEGER NOT NULL DEFAULT 0");
+        }
+        statement.executeUpdate(table.append(")").toString());
+        for (StatsStorage.StatisticType statistic : STATISTICS) {
+          statement.executeUpdate("CREATE INDEX IF NOT EXISTS playerstats_" + statistic.getName() + " ON playerstats (" + statistic.getName() + ")");
+        }
+      }
+      readConnection = DriverManager.getConnection(url);
+    } catch (ClassNotFoundException | SQLException e) {
+      e.printStackTrace();
+      MessageUtils.errorOccured();
+      Bukkit.getConsoleSender().sendMessage("Cannot open SQLite statistics database, statistics won't be saved!");
+      Bukkit.getConsoleSender().sendMessage("Check stats.db file in plugin folder or change Stats-Storage option in config.yml");
+    }
+    long interval = Settings.get().getStatsFlushInterval() * 20L;
+    runTaskTimer(plugin, interval, interval);
+  }
+
+  /**
+   * Collects changed statistics of online players and writes them.
+   */
+  @Override
+  public void run() {
+    for (Player player : plugin.getServer().getOnlinePlayers()) {
+      User user = UserManager.getUser(player.getUniqueId());
+      if (user.isStatsLoaded() && user.takeChangedStats() != 0) {
+        pending.put(player.getUniqueId(), new Snapshot(player, user));
+      }
+    }
+    submitFlush();
+  }
+
+  private void submitFlush() {
+    if (pending.isEmpty()) {
+      return;
+    }
+    //rejected flush leaves statistics pending for the next one
+    executor.submit(FLUSH_KEY, FLUSH_KEY, this::flush);
+  }
+
+  @Override
+  public void loadStats(Player player) {
+    executor.submitLoad(player, () -> load(player));
+  }
+
+  private synchronized void load(Player player) throws SQLException {
+    User user = UserManager.getUser(player.getUniqueId());
+    //statistics saved on quit may be still waiting for flush
+    Snapshot snapshot = pending.get(player.getUniqueId());
+    if (snapshot != null) {
+      user.applyLoadedStats(snapshot.values);
+      return;
+    }
+    int[] values = new int[STATISTICS.length];
+    try (PreparedStatement statement = getConnection().prepareStatement("SELECT * FROM playerstats WHERE UUID=?")) {
+      statement.setString(1, player.getUniqueId().toString());
+      try (ResultSet set = statement.executeQuery()) {
+        if (set.next()) {
+          for (StatsStorage.StatisticType statistic : STATISTICS) {
+            values[statistic.ordinal()] = set.getInt(statistic.getName());
+          }
+        }
+      }
+    }
+    user.applyLoadedStats(values);
+  }
+
+  @Override
+  public void saveStats(Player player) {
+    User user = UserManager.getUser(player.getUniqueId());
+    if (!user.isStatsLoaded()) {
+      //never overwrite stored statistics with defaults of not loaded user
+      return;
+    }
+    user.takeChangedStats();
+    pending.put(player.getUniqueId(), new Snapshot(player, user));
+    submitFlush();
+  }
+
+  /**
+   * Writes all pending statistics in one transaction.
+   */
+  private synchronized void flush() throws SQLException {
+    if (pending.isEmpty()) {
+      return;
+    }
+    List<Map.Entry<UUID, Snapshot>> batch = new ArrayList<>(pending.entrySet());
+    Connection connection = getConnection();
+    StringBuilder columns = new StringBuilder("UUID, name");
+    StringBuilder values = new StringBuilder("?, ?");
+    for (StatsStorage.StatisticType statistic : STATISTICS) {
+      columns.append(", ").append(statistic.getName());
+      values.append(", ?");
+    }
+    connection.setAutoCommit(false);
+    try (PreparedStatement statement = connection.prepareStatement("INSERT OR REPLACE INTO playerstats (" + columns + ") VALUES (" + values + ")")) {
+      for (Map.Entry<UUID, Snapshot> entry : batch) {
+        statement.setString(1, entry.getKey().toString());
+        statement.setString(2, entry.getValue().name);
+        for (StatsStorage.StatisticType statistic : STATISTICS) {
+          statement.setInt(statistic.ordinal() + 3, entry.getValue().values[statistic.ordinal()]);
+        }
+        statement.addBatch();
+      }
+      statement.executeBatch();
+      connection.commit();
+    } catch (SQLException e) {
+      connection.rollback();
+      throw e;
+    } finally {
+      connection.setAutoCommit(true);
+    }
+    for (Map.Entry<UUID, Snapshot> entry : batch) {
+      //newer snapshot taken during write stays pending
+      pending.remove(entry.getKey(), entry.getValue());
+    }
+  }
+
+  private Connection getConnection() throws SQLException {
+    if (connection == null) {
+      throw new SQLException("SQLite statistics database is not open");
+    }
+    return connection;
+  }
+
+  @Override
+  public Map<UUID, Integer> getColumn(String statistic) {
+    Map<UUID, Integer> column = new LinkedHashMap<>();
+    synchronized (readLock) {
+      if (readConnection == null) {
+        return column;
+      }
+      try (Statement statement = readConnection.createStatement();
+           ResultSet set = statement.executeQuery("SELECT UUID, " + statistic + " FROM playerstats ORDER BY " + statistic + " ASC")) {
+        while (set.next()) {
+          column.put(UUID.fromString(set.getString("UUID")), set.getInt(statistic));
+        }
+      } catch (SQLException e) {
+        e.printStackTrace();
+      }
+    }
+    return column;
+  }
+
+  @Override
+  public Map<UUID, Integer> getTop(String statistic, int limit) {
+    Map<UUID, Integer> top = new LinkedHashMap<>();
+    synchronized (readLock) {
+      if (readConnection == null) {
+        return top;
+      }
+      try (PreparedStatement statement = readConnection.prepareStatement("SELECT UUID, " + statistic + " FROM playerstats ORDER BY " + statistic + " DESC LIMIT ?")) {
+        statement.setInt(1, limit);
+        try (ResultSet set = statement.executeQuery()) {
+          while (set.next()) {
+            top.put(UUID.fromString(set.getString("UUID")), set.getInt(statistic));
+          }
+        }
+      } catch (SQLException e) {
+        e.printStackTrace();
+      }
+    }
+    return top;
+  }
+
+  @Override
+  public String getName(UUID uuid) {
+    synchronized (readLock) {
+      if (readConnection == null) {
+        return null;
+      }
+      try (PreparedStatement statement = readConnection.prepareStatement("SELECT name FROM playerstats WHERE UUID=?")) {
+        statement.setString(1, uuid.toString());
+        try (ResultSet set = statement.executeQuery()) {
+          return set.next() ? set.getString(1) : null;
+        }
+      } catch (SQLException e) {
+        e.printStackTrace();
+        return null;
+      }
+    }
+  }
+
+  @Override
+  public void close() {
+    cancel();
+    //queued loads and saves are finished before statistics of online players are saved
+    executor.shutdown();
+    for (Player player : plugin.getServer().getOnlinePlayers()) {
+      User user = UserManager.getUser(player.getUniqueId());
+      if (user.isStatsLoaded()) {
+        pending.put(player.getUniqueId(), new Snapshot(player, user));
+      }
+    }
+    synchronized (this) {
+      try {
+        flush();
+      } catch (SQLException e) {
+        e.printStackTrace();
+        MessageUtils.errorOccured();
+        Bukkit.getConsoleSender().sendMessage("Cannot save statistics of " + pending.size() + " players to SQLite database!");
+      }
+      closeQuietly(connection);
+      connection = null;
+    }
+    synchronized (readLock) {
+      closeQuietly(readConnection);
+      readConnection = null;
+    }
+  }
+
+  private static void closeQuietly(Connection connection) {
+    if (connection == null) {
+      return;
+    }
+    try {
+      connection.close();
+    } catch (SQLException e) {
+      e.printStackTrace();
+    }
+  }
+
+  /**
+   * Statistics of player taken on main thread.
+   */
+  private static class Snapshot {
+
+    private final String name;
+    private final int[] values = new int[STATISTICS.length];
+
+    Snapshot(Player player, User user) {
+      this.name = player.getName();
+      for (StatsStorage.StatisticType statistic : STATISTICS) {
+        values[statistic.ordinal()] = user.getInt(statistic.getName());
+      }
+    }
+  }
+
+}
@@ -0,0 +1,82 @@
+/*
+ * Village Defense 3 - Protect villagers from hordes of zombies
+ * Copyright (C) 2018  Plajer's Lair - maintained by Plajer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.plajer.villagedefense3.database;
+
+import java.util.Map;
+import java.util.UUID;
+
+import org.bukkit.entity.Player;
+
+/**
+ * Storage of player statistics, selected on enable by DatabaseActivated
+ * and Stats-Storage options in config.yml.
+ *
+ * @author Plajer
+ * <p>
+ * Created at 18.10.2018
+ * @see FileStats
+ * @see MySQLDatabase
+ * @see SQLiteStats
+ */
+public interface StatsBackend {
+
+  /**
+   * Loads statistics of player into his user, loading may finish later in background.
+   *
+   * @param player player to load statistics of
+   */
+  void loadStats(Player player);
+
+  /**
+   * Saves all statistics of player, called when player quits.
+   *
+   * @param player player to save statistics of
+   */
+  void saveStats(Player player);
+
+  /**
+   * Gets statistic of all stored players.
+   *
+   * @param statistic name of statistic
+   * @return map of UUID keys and statistic values sorted in ascending order of values
+   */
+  Map<UUID, Integer> getColumn(String statistic);
+
+  /**
+   * Gets players with highest statistic, used by leaderboards.
+   *
+   * @param statistic name of statistic
+   * @param limit     maximum amount of players to return
+   * @return map of UUID keys and statistic values sorted in descending order of values
+   */
+  Map<UUID, Integer> getTop(String statistic, int limit);
+
+  /**
+   * @param uuid UUID of player
+   * @return last known name of player or null if storage doesn't know it
+   */
+  String getName(UUID uuid);
+
+  /**
+   * Saves statistics of online players and pending writes, then releases the storage.
+   * Called when plugin disables.
+   */
+  void close();
+
+}
@@ -63,7 +63,7 @@ public class ChatEvents implements Listener {
       }
     }
     event.getRecipients().clear();
-    event.getRecipients().addAll(ArenaRegistry.getArena(event.getPlayer()).getPlayers());
+    event.getRecipients().addAll(ArenaRegistry.getArena(event.getPlayer()).getPlayerSet());
   }
 
   @EventHandler
@@ -71,7 +71,7 @@ public class ChatEvents implements Listener {
     Arena arena = ArenaRegistry.getArena(event.getPlayer());
     if (arena == null) {
       for (Arena loopArena : ArenaRegistry.getArenas()) {
-        for (Player player : loopArena.getPlayers()) {
+        for (Player player : loopArena.getPlayerSet()) {
           if (event.getRecipients().contains(player)) {
             if (!plugin.isSpyChatEnabled(player)) {
               event.getRecipients().remove(player);
@@ -103,13 +103,13 @@ public class ChatEvents implements Listener {
         }
       }
       message = formatChatPlaceholders(LanguageManager.getLanguageMessage("In-Game.Game-Chat-Format"), UserManager.getUser(event.getPlayer().getUniqueId()), eventMessage);
-      for (Player player : arena.getPlayers()) {
+      for (Player player : arena.getPlayerSet()) {
         player.sendMessage(message);
       }
       Bukkit.getConsoleSender().sendMessage(message);
     } else {
       event.getRecipients().clear();
-      event.getRecipients().addAll(new ArrayList<>(arena.getPlayers()));
+      event.getRecipients().addAll(new ArrayList<>(arena.getPlayerSet()));
       event.setMessage(event.getMessage().replace("%kit%", UserManager.getUser(event.getPlayer().getUniqueId()).getKit().getName()));
     }
   }
@@ -27,8 +27,8 @@ import org.bukkit.event.entity.EntityCombustByEntityEvent;
 import org.bukkit.event.entity.EntityCombustEvent;
 
 import pl.plajer.villagedefense3.Main;
-import pl.plajer.villagedefense3.arena.Arena;
-import pl.plajer.villagedefense3.arena.ArenaRegistry;
+import pl.plajer.villagedefense3.arena.ArenaEntityRegistry;
+import pl.plajer.villagedefense3.arena.ArenaEntityType;
 
 /**
  * Created by TomVerschueren on 6/02/2018.
@@ -56,11 +56,8 @@ public class CombustDayLightEvent implements Listener {
       return;
     }
 
-    for (Arena arena : ArenaRegistry.getArenas()) {
-      if (arena.getZombies().contains(e.getEntity())) {
-        e.setCancelled(true);
-        return;
-      }
+    if (ArenaEntityRegistry.isArenaEntity(e.getEntity(), ArenaEntityType.ZOMBIE)) {
+      e.setCancelled(true);
     }
   }
 }
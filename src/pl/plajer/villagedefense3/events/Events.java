@@ -62,11 +62,14 @@ import org.bukkit.inventory.meta.ItemMeta;
 
 import pl.plajer.villagedefense3.Main;
 import pl.plajer.villagedefense3.arena.Arena;
+import pl.plajer.villagedefense3.arena.ArenaEntityRegistry;
+import pl.plajer.villagedefense3.arena.ArenaEntityType;
 import pl.plajer.villagedefense3.arena.ArenaManager;
 import pl.plajer.villagedefense3.arena.ArenaRegistry;
 import pl.plajer.villagedefense3.arena.ArenaState;
 import pl.plajer.villagedefense3.handlers.ChatManager;
 import pl.plajer.villagedefense3.handlers.PermissionsManager;
+import pl.plajer.villagedefense3.handlers.Settings;
 import pl.plajer.villagedefense3.handlers.ShopManager;
 import pl.plajer.villagedefense3.handlers.items.SpecialItemManager;
 import pl.plajer.villagedefense3.user.User;
@@ -88,11 +91,13 @@ public class Events implements Listener {
 
   @EventHandler
   public void onSpawn(CreatureSpawnEvent event) {
+    if (event.getSpawnReason() == CreatureSpawnEvent.SpawnReason.CUSTOM) {
+      return;
+    }
     for (Arena arena : ArenaRegistry.getArenas()) {
       if (event.getEntity().getWorld().equals(arena.getStartLocation().getWorld())) {
-        if (event.getSpawnReason() != CreatureSpawnEvent.SpawnReason.CUSTOM) {
-          event.setCancelled(true);
-        }
+        event.setCancelled(true);
+        return;
       }
     }
   }
@@ -192,9 +197,9 @@ public class Events implements Listener {
   @EventHandler
   public void ExplosionCancel(EntityExplodeEvent event) {
     for (Arena arena : ArenaRegistry.getArenas()) {
-      if (arena.getStartLocation().getWorld().getName().equals(event.getLocation().getWorld().getName())
-              && arena.getStartLocation().distance(event.getLocation()) < 300) {
+      if (arena.getRegion() != null && arena.getRegion().contains(event.getLocation())) {
         event.blockList().clear();
+        return;
       }
     }
   }
@@ -241,10 +246,10 @@ public class Events implements Listener {
     if (arena == null) {
       return;
     }
-    if (!plugin.getConfig().getBoolean("Block-Commands-In-Game", true)) {
+    if (!Settings.get().isBlockCommandsInGame()) {
       return;
     }
-    for (String msg : plugin.getConfig().getStringList("Whitelisted-Commands")) {
+    for (String msg : Settings.get().getWhitelistedCommands()) {
       if (event.getMessage().contains(msg)) {
         return;
       }
@@ -315,20 +320,9 @@ public class Events implements Listener {
         e.setCancelled(true);
       }
     } else if (e.getEntity() instanceof IronGolem || e.getEntity() instanceof Villager || e.getEntity() instanceof Wolf) {
-      for (Arena a : ArenaRegistry.getArenas()) {
-        if (e.getEntity() instanceof IronGolem) {
-          if (a.getIronGolems().contains(e.getEntity())) {
-            e.setCancelled(true);
-          }
-        } else if (e.getEntity() instanceof Villager) {
-          if (a.getVillagers().contains(e.getEntity())) {
-            e.setCancelled(true);
-          }
-        } else {
-          if (a.getWolfs().contains(e.getEntity())) {
-            e.setCancelled(true);
-          }
-        }
+      ArenaEntityType type = ArenaEntityRegistry.getType(e.getEntity());
+      if (type != null && type != ArenaEntityType.ZOMBIE) {
+        e.setCancelled(true);
       }
     }
   }
@@ -354,16 +348,14 @@ public class Events implements Listener {
 
   @EventHandler(priority = EventPriority.HIGH)
   public void onZombieHurt(EntityDamageEvent e) {
-    if (plugin.getConfig().getBoolean("Simple-Zombie-Health-Bar-Enabled", true)) {
+    if (Settings.get().isHealthBarEnabled()) {
       if (!(e.getEntity() instanceof Zombie)) {
         return;
       }
-      for (Arena arena : ArenaRegistry.getArenas()) {
-        if (arena.getZombies().contains(e.getEntity())) {
-          e.getEntity().setCustomName(Utils.getProgressBar((int) ((Zombie) e.getEntity()).getHealth(),
-                  (int) ((Zombie) e.getEntity()).getAttribute(Attribute.GENERIC_MAX_HEALTH).getBaseValue(),
-                  50, "|", ChatColor.YELLOW + "", ChatColor.GRAY + ""));
-        }
+      if (ArenaEntityRegistry.isArenaEntity(e.getEntity(), ArenaEntityType.ZOMBIE)) {
+        e.getEntity().setCustomName(Utils.getProgressBar((int) ((Zombie) e.getEntity()).getHealth(),
+                (int) ((Zombie) e.getEntity()).getAttribute(Attribute.GENERIC_MAX_HEALTH).getBaseValue(),
+                50, "|", ChatColor.YELLOW + "", ChatColor.GRAY + ""));
       }
     }
   }
@@ -457,14 +449,14 @@ public class Events implements Listener {
     if (e.getCurrentItem().hasItemMeta() && e.getCurrentItem().getItemMeta().hasDisplayName()) {
       if (e.getCurrentItem().getItemMeta().getDisplayName().contains(ChatManager.colorMessage("In-Game.Messages.Shop-Messages.Golem-Item-Name"))) {
         int i = 0;
-        for (IronGolem golem : arena.getIronGolems()) {
+        for (IronGolem golem : arena.getIronGolemSet()) {
           if (golem.getCustomName().equals(ChatManager.colorMessage("In-Game.Spawned-Golem-Name").replace("%player%", player.getName()))) {
             i++;
           }
         }
-        if (i >= plugin.getConfig().getInt("Golems-Spawn-Limit", 15)) {
+        if (i >= Settings.get().getGolemsSpawnLimit()) {
           e.getWhoClicked().sendMessage(ChatManager.colorMessage("In-Game.Messages.Shop-Messages.Mob-Limit-Reached")
-                  .replace("%amount%", String.valueOf(plugin.getConfig().getInt("Golems-Spawn-Limit", 15))));
+                  .replace("%amount%", String.valueOf(Settings.get().getGolemsSpawnLimit())));
           return;
         }
         arena.spawnGolem(arena.getStartLocation(), player);
@@ -473,14 +465,14 @@ public class Events implements Listener {
         return;
       } else if (e.getCurrentItem().getItemMeta().getDisplayName().contains(ChatManager.colorMessage("In-Game.Messages.Shop-Messages.Wolf-Item-Name"))) {
         int i = 0;
-        for (Wolf wolf : arena.getWolfs()) {
+        for (Wolf wolf : arena.getWolfSet()) {
           if (wolf.getCustomName().equals(ChatManager.colorMessage("In-Game.Spawned-Wolf-Name").replace("%player%", player.getName()))) {
             i++;
           }
         }
-        if (i >= plugin.getConfig().getInt("Wolves-Spawn-Limit", 20)) {
+        if (i >= Settings.get().getWolvesSpawnLimit()) {
           e.getWhoClicked().sendMessage(ChatManager.colorMessage("In-Game.Messages.Shop-Messages.Mob-Limit-Reached")
-                  .replace("%amount%", String.valueOf(plugin.getConfig().getInt("Wolves-Spawn-Limit", 20))));
+                  .replace("%amount%", String.valueOf(Settings.get().getWolvesSpawnLimit())));
           return;
         }
         arena.spawnWolf(arena.getStartLocation(), player);
@@ -563,7 +555,7 @@ public class Events implements Listener {
         e.getInventory().clear();
         e.getItem().getLocation().getWorld().spawnParticle(Particle.CLOUD, e.getItem().getLocation(), 50, 2, 2, 2);
         if (arena.checkLevelUpRottenFlesh()) {
-          for (Player p : arena.getPlayers()) {
+          for (Player p : arena.getPlayerSet()) {
             p.getAttribute(Attribute.GENERIC_MAX_HEALTH).setBaseValue(p.getAttribute(Attribute.GENERIC_MAX_HEALTH).getBaseValue() + 2.0);
             p.sendMessage(ChatManager.PLUGIN_PREFIX + ChatManager.colorMessage("In-Game.Rotten-Flesh-Level-Up"));
           }
@@ -40,17 +40,16 @@ import org.bukkit.inventory.meta.ItemMeta;
 import pl.plajer.villagedefense3.Main;
 import pl.plajer.villagedefense3.arena.ArenaRegistry;
 import pl.plajer.villagedefense3.handlers.ChatManager;
+import pl.plajer.villagedefense3.handlers.Settings;
 import pl.plajer.villagedefense3.user.UserManager;
 import pl.plajer.villagedefense3.villagedefenseapi.VillageGolemUpgradeEvent;
 
 public class GolemEvents implements Listener {
 
   private Map<Player, IronGolem> clickedGolem = new HashMap<>();
-  private Main plugin;
 
   public GolemEvents(Main plugin) {
-    this.plugin = plugin;
-    if (plugin.getConfig().getBoolean("Golem-Upgrades-Enabled", true)) {
+    if (Settings.get().isGolemUpgradesEnabled()) {
       plugin.getServer().getPluginManager().registerEvents(this, plugin);
       Main.debug("Golem upgrades successfully registered!", System.currentTimeMillis());
     }
@@ -74,7 +73,7 @@ public class GolemEvents implements Listener {
       ItemMeta meta = golemHealthUpgrade.getItemMeta();
       meta.setDisplayName(ChatManager.colorMessage("In-Game.Golem-Upgrades.Upgrade-Tier" + i));
       meta.setLore(Arrays.asList(ChatManager.colorMessage("In-Game.Golem-Upgrades.Upgrade-Tier" + i + "-Lore")
-              .replace("%cost%", plugin.getConfig().getString("Golem-Upgrade-Tier" + i + "-Cost")).split(";")));
+              .replace("%cost%", String.valueOf(Settings.get().getGolemUpgradeTierCost(i))).split(";")));
       golemHealthUpgrade.setItemMeta(meta);
       inv.setItem((i * 3) + 7, golemHealthUpgrade);
     }
@@ -83,7 +82,7 @@ public class GolemEvents implements Listener {
     ItemMeta healMeta = golemHeal.getItemMeta();
     healMeta.setDisplayName(ChatManager.colorMessage("In-Game.Golem-Upgrades.Upgrade-Heal"));
     healMeta.setLore(Arrays.asList(ChatManager.colorMessage("In-Game.Golem-Upgrades.Upgrade-Heal-Lore")
-            .replace("%cost%", plugin.getConfig().getString("Golem-Upgrade-Heal-Cost")).split(";")));
+            .replace("%cost%", String.valueOf(Settings.get().getGolemUpgradeHealCost())).split(";")));
     golemHeal.setItemMeta(healMeta);
 
     ItemStack golemHealth = new ItemStack(Material.BOOK, 1);
@@ -118,7 +117,7 @@ public class GolemEvents implements Listener {
             p.closeInventory();
             return;
           }
-          Integer price = plugin.getConfig().getInt("Golem-Upgrade-Tier" + i + "-Cost");
+          Integer price = Settings.get().getGolemUpgradeTierCost(i);
           if (orbs >= price) {
             if (golemHealth >= 100.0 + (20 * i)) {
               p.sendMessage(ChatManager.PLUGIN_PREFIX + ChatManager.colorMessage("In-Game.Golem-Upgrades.Upgrade-Already-Purchased"));
@@ -151,7 +150,7 @@ public class GolemEvents implements Listener {
           p.closeInventory();
           return;
         }
-        Integer price = plugin.getConfig().getInt("Golem-Upgrade-Heal-Cost", 150);
+        Integer price = Settings.get().getGolemUpgradeHealCost();
         if (orbs >= price) {
           clickedGolem.get(p).setHealth(clickedGolem.get(p).getAttribute(Attribute.GENERIC_MAX_HEALTH).getBaseValue());
 
@@ -29,8 +29,6 @@ import org.bukkit.event.player.PlayerLoginEvent;
 import pl.plajer.villagedefense3.Main;
 import pl.plajer.villagedefense3.arena.Arena;
 import pl.plajer.villagedefense3.arena.ArenaRegistry;
-import pl.plajer.villagedefense3.database.FileStats;
-import pl.plajer.villagedefense3.database.MySQLConnectionUtils;
 import pl.plajer.villagedefense3.handlers.PermissionsManager;
 import pl.plajer.villagedefense3.user.UserManager;
 import pl.plajer.villagedefense3.utils.UpdateChecker;
@@ -120,13 +118,6 @@ public class JoinEvent implements Listener {
       }
     }
     UserManager.registerUser(event.getPlayer().getUniqueId());
-    if (!plugin.isDatabaseActivated()) {
-      for (String s : FileStats.STATISTICS.keySet()) {
-        plugin.getFileStats().loadStat(event.getPlayer(), s);
-      }
-      return;
-    }
-    final Player player = event.getPlayer();
-    Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> MySQLConnectionUtils.loadPlayerStats(player, plugin));
+    plugin.getStatsBackend().loadStats(event.getPlayer());
   }
 }
@@ -18,7 +18,6 @@
 
 package pl.plajer.villagedefense3.events;
 
-import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
@@ -27,10 +26,6 @@ import org.bukkit.event.player.PlayerQuitEvent;
 import pl.plajer.villagedefense3.Main;
 import pl.plajer.villagedefense3.arena.ArenaManager;
 import pl.plajer.villagedefense3.arena.ArenaRegistry;
-import pl.plajer.villagedefense3.database.FileStats;
-import pl.plajer.villagedefense3.user.User;
-import pl.plajer.villagedefense3.user.UserManager;
-import pl.plajer.villagedefense3.utils.MessageUtils;
 
 /**
  * Created by Tom on 11/08/2014.
@@ -59,36 +54,8 @@ public class QuitEvent implements Listener {
     if (ArenaRegistry.getArena(event.getPlayer()) != null) {
       ArenaManager.leaveAttempt(event.getPlayer(), ArenaRegistry.getArena(event.getPlayer()));
     }
-    final User user = UserManager.getUser(event.getPlayer().getUniqueId());
     final Player player = event.getPlayer();
-    if (plugin.isDatabaseActivated()) {
-      Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
-        for (final String s : FileStats.STATISTICS.keySet()) {
-          int i;
-          try {
-            i = plugin.getMySQLDatabase().getStat(player.getUniqueId().toString(), s);
-          } catch (NullPointerException npe) {
-            i = 0;
-            System.out.print("COULDN'T GET STATS FROM PLAYER: " + player.getName());
-            npe.printStackTrace();
-            MessageUtils.errorOccured();
-            Bukkit.getConsoleSender().sendMessage("Cannot get stats from MySQL database!");
-            Bukkit.getConsoleSender().sendMessage("Check configuration of mysql.yml file or disable mysql option in config.yml");
-          }
-
-          if (i > user.getInt(s)) {
-            plugin.getMySQLDatabase().setStat(player.getUniqueId().toString(), s, user.getInt(s) + i);
-          } else {
-            plugin.getMySQLDatabase().setStat(player.getUniqueId().toString(), s, user.getInt(s));
-          }
-          plugin.getMySQLDatabase().executeUpdate("UPDATE playerstats SET name='" + player.getName() + "' WHERE UUID='" + player.getUniqueId().toString() + "';");
-        }
-      });
-    } else {
-      for (String s : FileStats.STATISTICS.keySet()) {
-        plugin.getFileStats().saveStat(player, s);
-      }
-    }
+    plugin.getStatsBackend().saveStats(player);
   }
 
 }
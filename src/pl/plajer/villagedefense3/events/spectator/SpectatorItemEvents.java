@@ -71,7 +71,7 @@ public class SpectatorItemEvents implements Listener {
   }
 
   private void openSpectatorMenu(World world, Player p) {
-    Inventory inventory = plugin.getServer().createInventory(null, Utils.serializeInt(ArenaRegistry.getArena(p).getPlayers().size()),
+    Inventory inventory = plugin.getServer().createInventory(null, Utils.serializeInt(ArenaRegistry.getArena(p).getPlayerSet().size()),
             ChatManager.colorMessage("In-Game.Spectator.Spectator-Menu-Name"));
     for (Player player : world.getPlayers()) {
       if (ArenaRegistry.getArena(player) != null && !UserManager.getUser(player.getUniqueId()).isFakeDead()) {
@@ -105,7 +105,7 @@ public class SpectatorItemEvents implements Listener {
       e.setCancelled(true);
       if ((e.isLeftClick() || e.isRightClick())) {
         ItemMeta meta = e.getCurrentItem().getItemMeta();
-        for (Player player : arena.getPlayers()) {
+        for (Player player : arena.getPlayerSet()) {
           if (player.getName().equalsIgnoreCase(meta.getDisplayName()) || ChatColor.stripColor(meta.getDisplayName()).contains(player.getName())) {
             p.sendMessage(ChatManager.formatMessage(arena, ChatManager.colorMessage("Kits.Teleporter.Teleported-To-Player"), player));
             p.teleport(player);
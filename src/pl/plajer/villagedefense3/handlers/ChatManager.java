@@ -45,20 +45,19 @@ public class ChatManager {
   }
 
   public static String colorMessage(String message) {
-    try {
-      return ChatColor.translateAlternateColorCodes('&', LanguageManager.getLanguageMessage(message));
-    } catch (NullPointerException e1) {
-      e1.printStackTrace();
-      MessageUtils.errorOccured();
-      Bukkit.getConsoleSender().sendMessage("Game message not found!");
-      if(LanguageManager.getPluginLocale() == Locale.ENGLISH){
-        Bukkit.getConsoleSender().sendMessage("Please regenerate your language.yml file! If error still occurs report it to the developer!");
-      } else {
-        Bukkit.getConsoleSender().sendMessage("Locale message string not found! Please contact developer!");
-      }
-      Bukkit.getConsoleSender().sendMessage("Access string: " + message);
-      return "ERR_MESSAGE_NOT_FOUND";
+    String colored = LanguageManager.getColoredLanguageMessage(message);
+    if (colored != null) {
+      return colored;
     }
+    MessageUtils.errorOccured();
+    Bukkit.getConsoleSender().sendMessage("Game message not found!");
+    if (LanguageManager.getPluginLocale() == Locale.ENGLISH) {
+      Bukkit.getConsoleSender().sendMessage("Please regenerate your language.yml file! If error still occurs report it to the developer!");
+    } else {
+      Bukkit.getConsoleSender().sendMessage("Locale message string not found! Please contact developer!");
+    }
+    Bukkit.getConsoleSender().sendMessage("Access string: " + message);
+    return "ERR_MESSAGE_NOT_FOUND";
   }
 
   public static String formatMessage(Arena arena, String message, Player[] players) {
@@ -88,7 +87,7 @@ public class ChatManager {
     String returnString = message;
     returnString = StringUtils.replace(returnString, "%TIME%", Integer.toString(arena.getTimer()));
     returnString = StringUtils.replace(returnString, "%FORMATTEDTIME%", Utils.formatIntoMMSS((arena.getTimer())));
-    returnString = StringUtils.replace(returnString, "%PLAYERSIZE%", Integer.toString(arena.getPlayers().size()));
+    returnString = StringUtils.replace(returnString, "%PLAYERSIZE%", Integer.toString(arena.getPlayerSet().size()));
     returnString = StringUtils.replace(returnString, "%MAXPLAYERS%", Integer.toString(arena.getMaximumPlayers()));
     returnString = StringUtils.replace(returnString, "%MINPLAYERS%", Integer.toString(arena.getMinimumPlayers()));
     return returnString;
@@ -109,7 +108,7 @@ public class ChatManager {
       default:
         return; //likely won't ever happen
     }
-    for (Player player : a.getPlayers()) {
+    for (Player player : a.getPlayerSet()) {
       player.sendMessage(PLUGIN_PREFIX + message);
     }
   }
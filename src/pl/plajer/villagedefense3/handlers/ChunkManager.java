@@ -35,6 +35,7 @@ import org.bukkit.event.world.ChunkUnloadEvent;
 
 import pl.plajer.villagedefense3.Main;
 import pl.plajer.villagedefense3.arena.Arena;
+import pl.plajer.villagedefense3.arena.ArenaRegion;
 import pl.plajer.villagedefense3.arena.ArenaRegistry;
 
 public class ChunkManager implements Listener {
@@ -52,6 +53,13 @@ public class ChunkManager implements Listener {
     chunks.add(chunk);
   }
 
+  /**
+   * Allows chunk kept by {@link #keepLoaded(Chunk)} to unload again
+   */
+  public void release(Chunk chunk) {
+    chunks.remove(chunk);
+  }
+
   @EventHandler
   public void onChunkUnload(ChunkUnloadEvent event) {
     if (chunks.contains(event.getChunk())) {
@@ -61,10 +69,14 @@ public class ChunkManager implements Listener {
 
   @EventHandler
   public void onChunkLoad(ChunkLoadEvent event) {
-    for (Entity entity : event.getChunk().getEntities()) {
-      for (Arena arena : ArenaRegistry.getArenas()) {
-        if (entity.getWorld().getName().equals(arena.getStartLocation().getWorld().getName()) && entity.getLocation().distance(arena.getStartLocation()) < 300) {
-          if (entity instanceof Player || entity instanceof Wolf || entity instanceof IronGolem || entity instanceof Villager || entity instanceof Zombie) {
+    for (Arena arena : ArenaRegistry.getArenas()) {
+      ArenaRegion region = arena.getRegion();
+      if (region == null || !region.intersects(event.getChunk())) {
+        continue;
+      }
+      for (Entity entity : event.getChunk().getEntities()) {
+        if (entity instanceof Player || entity instanceof Wolf || entity instanceof IronGolem || entity instanceof Villager || entity instanceof Zombie) {
+          if (region.contains(entity)) {
             entity.remove();
           }
         }
@@ -20,6 +20,9 @@ package pl.plajer.villagedefense3.handlers;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.bukkit.Bukkit;
 import org.bukkit.configuration.InvalidConfigurationException;
@@ -31,9 +34,16 @@ import pl.plajer.villagedefense3.utils.MessageUtils;
 
 /**
  * @author IvanTheBuilder
+ * <p>
+ * Parsed configurations are cached by file name and re-read only when
+ * file on disk was modified or reload was requested.
  */
 public class ConfigurationManager {
 
+  private static final Map<String, CachedConfig> cache = new ConcurrentHashMap<>();
+  private static final AtomicLong hits = new AtomicLong();
+  private static final AtomicLong misses = new AtomicLong();
+  private static final AtomicLong reloads = new AtomicLong();
   private static Main plugin;
 
   public ConfigurationManager(Main plugin) {
@@ -44,16 +54,76 @@ public class ConfigurationManager {
     return new File(plugin.getDataFolder() + File.separator + filename + ".yml");
   }
 
+  /**
+   * Returns cached configuration of given file.
+   * File is parsed again only if it was changed on disk since last load.
+   * Returned instance is shared, use {@link #saveConfig(FileConfiguration, String)} to store changes.
+   */
   public static FileConfiguration getConfig(String filename) {
-    File file = new File(plugin.getDataFolder() + File.separator + filename + ".yml");
+    File file = getFile(filename);
     if (!file.exists()) {
       plugin.getLogger().info("Creating " + filename + ".yml because it does not exist!");
       plugin.saveResource(filename + ".yml", true);
     }
-    file = new File(plugin.getDataFolder(), filename + ".yml");
+    CachedConfig cached = cache.get(filename);
+    if (cached != null) {
+      if (cached.isUpToDate(file)) {
+        hits.incrementAndGet();
+        return cached.config;
+      }
+      reloads.incrementAndGet();
+      Main.debug("Configuration " + filename + ".yml changed on disk, reloading", System.currentTimeMillis());
+    } else {
+      misses.incrementAndGet();
+    }
+    return loadConfig(filename, file);
+  }
+
+  /**
+   * Forces configuration to be parsed again from disk.
+   */
+  public static FileConfiguration reloadConfig(String filename) {
+    reloads.incrementAndGet();
+    return loadConfig(filename, getFile(filename));
+  }
+
+  /**
+   * Drops all cached configurations, they will be loaded again on next access.
+   */
+  public static void invalidateAll() {
+    cache.clear();
+  }
+
+  public static void saveConfig(FileConfiguration config, String name) {
+    File file = getFile(name);
+    try {
+      config.save(file);
+      cache.put(name, new CachedConfig(config, file));
+    } catch (IOException e) {
+      e.printStackTrace();
+      MessageUtils.errorOccured();
+      Bukkit.getConsoleSender().sendMessage("Cannot save file " + name + ".yml!");
+      Bukkit.getConsoleSender().sendMessage("Create blank file " + name + ".yml or restart the server!");
+    }
+  }
+
+  public static long getCacheHits() {
+    return hits.get();
+  }
+
+  public static long getCacheMisses() {
+    return misses.get();
+  }
+
+  public static long getCacheReloads() {
+    return reloads.get();
+  }
+
+  private static FileConfiguration loadConfig(String filename, File file) {
     YamlConfiguration config = new YamlConfiguration();
     try {
       config.load(file);
+      cache.put(filename, new CachedConfig(config, file));
     } catch (InvalidConfigurationException | IOException ex) {
       ex.printStackTrace();
       MessageUtils.errorOccured();
@@ -63,15 +133,22 @@ public class ConfigurationManager {
     return config;
   }
 
-  public static void saveConfig(FileConfiguration config, String name) {
-    try {
-      config.save(new File(plugin.getDataFolder(), name + ".yml"));
-    } catch (IOException e) {
-      e.printStackTrace();
-      MessageUtils.errorOccured();
-      Bukkit.getConsoleSender().sendMessage("Cannot save file " + name + ".yml!");
-      Bukkit.getConsoleSender().sendMessage("Create blank file " + name + ".yml or restart the server!");
+  private static class CachedConfig {
+
+    private final FileConfiguration config;
+    private final long lastModified;
+    private final long length;
+
+    CachedConfig(FileConfiguration config, File file) {
+      this.config = config;
+      this.lastModified = file.lastModified();
+      this.length = file.length();
+    }
+
+    boolean isUpToDate(File file) {
+      return file.lastModified() == lastModified && file.length() == length;
     }
+
   }
 
 }
@@ -54,7 +54,7 @@ public class PowerupManager {
   private Main plugin;
 
   public PowerupManager(Main plugin) {
-    if (!plugin.getConfig().getBoolean("Powerups.Enabled", true)) {
+    if (!Settings.get().isPowerupsEnabled()) {
       return;
     }
     if (!plugin.getServer().getPluginManager().isPluginEnabled("HolographicDisplays")) {
@@ -100,7 +100,7 @@ public class PowerupManager {
       spawnPowerup(loc, arena);
     }
     if (!(ThreadLocalRandom.current().nextDouble(0.0, 100.0)
-            <= plugin.getConfig().getDouble("Powerups.Drop-Chance", 1.0))) {
+            <= Settings.get().getPowerupDropChance())) {
       return;
     }
     final PowerupType finalPowerUp = powerupType;
@@ -121,44 +121,45 @@ public class PowerupManager {
       Bukkit.getPluginManager().callEvent(villagePowerupPickEvent);
 
       String subTitle = powerUpSubtitle;
+      Settings settings = Settings.get();
       switch (finalPowerUp) {
         case CLEANER:
-          if (arena.getZombies() != null) {
-            for (Zombie zombie : arena.getZombies()) {
+          if (arena.getZombieSet() != null) {
+            for (Zombie zombie : arena.getZombieSet()) {
               zombie.getWorld().spawnParticle(Particle.LAVA, zombie.getLocation(), 20);
               zombie.remove();
             }
-            arena.getZombies().clear();
+            arena.clearZombies();
           }
           break;
         case DOUBLE_DAMAGE:
-          for (Player p : arena.getPlayers()) {
+          for (Player p : arena.getPlayerSet()) {
             p.addPotionEffect(new PotionEffect(PotionEffectType.INCREASE_DAMAGE, 20 *
-                    plugin.getConfig().getInt("Powerups.List.Double-Damage-For-Players.Time", 15), 1, false, false));
+                    settings.getDoubleDamageTime(), 1, false, false));
           }
-          subTitle = subTitle.replace("%time%", plugin.getConfig().getString("Powerups.List.Double-Damage-For-Players.Time", "15"));
+          subTitle = subTitle.replace("%time%", String.valueOf(settings.getDoubleDamageTime()));
           break;
         case HEALING:
-          for (Player p : arena.getPlayers()) {
+          for (Player p : arena.getPlayerSet()) {
             p.addPotionEffect(new PotionEffect(PotionEffectType.REGENERATION, 20 *
-                    plugin.getConfig().getInt("Powerups.List.Healing-For-Players.Time-Of-Healing", 10), 1, false, false));
+                    settings.getHealingTime(), 1, false, false));
           }
-          subTitle = subTitle.replace("%time%", plugin.getConfig().getString("Powerups.List.Healing-For-Players.Time-Of-Healing", "10"));
+          subTitle = subTitle.replace("%time%", String.valueOf(settings.getHealingTime()));
           break;
         case GOLEM_RAID:
-          for (int i = 0; i < plugin.getConfig().getInt("Powerups.List.Golem-Raid.Golems-Amount", 3); i++) {
+          for (int i = 0; i < settings.getGolemRaidAmount(); i++) {
             arena.spawnGolem(arena.getStartLocation(), player);
           }
           break;
         case ONE_SHOT_ONE_KILL:
-          for (Player p : arena.getPlayers()) {
+          for (Player p : arena.getPlayerSet()) {
             p.addPotionEffect(new PotionEffect(PotionEffectType.INCREASE_DAMAGE, 20 *
-                    plugin.getConfig().getInt("Powerups.List.One-Shot-One-Kill.Time", 15), 255, false, false));
+                    settings.getOneShotOneKillTime(), 255, false, false));
           }
-          subTitle = subTitle.replace("%time%", plugin.getConfig().getString("Powerups.List.One-Shot-One-Kill.Time", "15"));
+          subTitle = subTitle.replace("%time%", String.valueOf(settings.getOneShotOneKillTime()));
           break;
       }
-      for (Player p : arena.getPlayers()) {
+      for (Player p : arena.getPlayerSet()) {
         MessageUtils.sendTitle(p, powerUpTitle, 5, 30, 5);
         MessageUtils.sendSubTitle(p, subTitle, 5, 30, 5);
       }
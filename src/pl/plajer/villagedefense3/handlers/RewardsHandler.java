@@ -35,16 +35,14 @@ public class RewardsHandler {
 
   private FileConfiguration config;
   private Main plugin;
-  private boolean enabled;
 
   public RewardsHandler(Main plugin) {
     this.plugin = plugin;
-    enabled = plugin.getConfig().getBoolean("Rewards-Enabled");
     config = ConfigurationManager.getConfig("rewards");
   }
 
   public void performEndGameRewards(Arena arena) {
-    if (!enabled) {
+    if (!Settings.get().isRewardsEnabled()) {
       return;
     }
     for (String string : config.getStringList("rewards.endgame")) {
@@ -53,7 +51,7 @@ public class RewardsHandler {
   }
 
   public void performEndWaveRewards(Arena arena, int wave) {
-    if (!enabled) {
+    if (!Settings.get().isRewardsEnabled()) {
       return;
     }
     if (!config.contains("rewards.endwave." + wave)) {
@@ -65,7 +63,7 @@ public class RewardsHandler {
   }
 
   public void performZombieKillReward(Player player) {
-    if (!enabled) {
+    if (!Settings.get().isRewardsEnabled()) {
       return;
     }
     for (String string : config.getStringList("rewards.zombiekill")) {
@@ -75,7 +73,7 @@ public class RewardsHandler {
 
 
   private void performCommand(Arena arena, String string) {
-    if (!enabled) {
+    if (!Settings.get().isRewardsEnabled()) {
       return;
     }
     String command = formatCommandPlaceholders(string, arena);
@@ -93,7 +91,7 @@ public class RewardsHandler {
       }
     }
     if (command.contains("p:") || command.contains("%PLAYER%")) {
-      for (Player player : arena.getPlayers()) {
+      for (Player player : arena.getPlayerSet()) {
         if (command.contains("p:")) {
           player.performCommand(command.replaceFirst("p:", "").replace("%PLAYER%", player.getName()));
         } else {
@@ -105,7 +103,7 @@ public class RewardsHandler {
   }
 
   private void performCommand(Player player, String string) {
-    if (!enabled) {
+    if (!Settings.get().isRewardsEnabled()) {
       return;
     }
     Arena arena = ArenaRegistry.getArena(player);
@@ -137,7 +135,7 @@ public class RewardsHandler {
     String formatted = command;
     formatted = StringUtils.replace(formatted, "%ARENA-ID%", arena.getID());
     formatted = StringUtils.replace(formatted, "%MAPNAME%", arena.getMapName());
-    formatted = StringUtils.replace(formatted, "%PLAYERAMOUNT%", String.valueOf(arena.getPlayers().size()));
+    formatted = StringUtils.replace(formatted, "%PLAYERAMOUNT%", String.valueOf(arena.getPlayerSet().size()));
     formatted = StringUtils.replace(formatted, "%WAVE%", String.valueOf(arena.getWave()));
     return formatted;
   }
@@ -0,0 +1,261 @@
+/*
+ * Village Defense 3 - Protect villagers from hordes of zombies
+ * Copyright (C) 2018  Plajer's Lair - maintained by Plajer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.plajer.villagedefense3.handlers;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.bukkit.configuration.file.FileConfiguration;
+
+/**
+ * Immutable snapshot of config.yml values used in game and event code.
+ * <p>
+ * Snapshot is built once on enable and on every reload, then replaced at once
+ * so readers always see consistent set of values.
+ *
+ * @author Plajer
+ * <p>
+ * Created at 18.10.2018
+ */
+public final class Settings {
+
+  private static volatile Settings current;
+
+  private final boolean respawnAfterWave;
+  private final boolean disableLeaveCommand;
+  private final boolean blockCommandsInGame;
+  private final List<String> whitelistedCommands;
+  private final int startingWaitingTime;
+  private final int orbsStartingAmount;
+  private final boolean rewardsEnabled;
+  private final boolean fireworkWhenGameEnds;
+  private final boolean signsBlockStatesEnabled;
+  private final boolean golemUpgradesEnabled;
+  private final int[] golemUpgradeTierCosts;
+  private final int golemUpgradeHealCost;
+  private final int wolvesSpawnLimit;
+  private final int golemsSpawnLimit;
+  private final boolean healthBarEnabled;
+  private final boolean powerupsEnabled;
+  private final double powerupDropChance;
+  private final int doubleDamageTime;
+  private final int healingTime;
+  private final int golemRaidAmount;
+  private final int oneShotOneKillTime;
+  private final int zombieSpawnLimitPerTick;
+  private final int arenaHibernationTime;
+  private final int stuckZombieCheckInterval;
+  private final double stuckZombieMinProgress;
+  private final double arenaRegionMargin;
+  private final int blockRestoreLimitPerTick;
+  private final int statsFlushInterval;
+  private final String statsStorage;
+
+  private Settings(FileConfiguration config) {
+    respawnAfterWave = config.getBoolean("Respawn-After-Wave", true);
+    disableLeaveCommand = config.getBoolean("Disable-Leave-Command", false);
+    blockCommandsInGame = config.getBoolean("Block-Commands-In-Game", true);
+    whitelistedCommands = Collections.unmodifiableList(new ArrayList<>(config.getStringList("Whitelisted-Commands")));
+    startingWaitingTime = config.getInt("Starting-Waiting-Time", 60);
+    orbsStartingAmount = config.getInt("Orbs-Starting-Amount", 20);
+    rewardsEnabled = config.getBoolean("Rewards-Enabled", false);
+    fireworkWhenGameEnds = config.getBoolean("Firework-When-Game-Ends", true);
+    signsBlockStatesEnabled = config.getBoolean("Signs-Block-States-Enabled", true);
+    golemUpgradesEnabled = config.getBoolean("Golem-Upgrades-Enabled", true);
+    golemUpgradeTierCosts = new int[]{config.getInt("Golem-Upgrade-Tier1-Cost", 200),
+            config.getInt("Golem-Upgrade-Tier2-Cost", 400), config.getInt("Golem-Upgrade-Tier3-Cost", 800)};
+    golemUpgradeHealCost = config.getInt("Golem-Upgrade-Heal-Cost", 150);
+    wolvesSpawnLimit = config.getInt("Wolves-Spawn-Limit", 20);
+    golemsSpawnLimit = config.getInt("Golems-Spawn-Limit", 15);
+    healthBarEnabled = config.getBoolean("Simple-Zombie-Health-Bar-Enabled", true);
+    powerupsEnabled = config.getBoolean("Powerups.Enabled", true);
+    powerupDropChance = config.getDouble("Powerups.Drop-Chance", 1.0);
+    doubleDamageTime = config.getInt("Powerups.List.Double-Damage-For-Players.Time", 15);
+    healingTime = config.getInt("Powerups.List.Healing-For-Players.Time-Of-Healing", 10);
+    golemRaidAmount = config.getInt("Powerups.List.Golem-Raid.Golems-Amount", 3);
+    oneShotOneKillTime = config.getInt("Powerups.List.One-Shot-One-Kill.Time", 15);
+    zombieSpawnLimitPerTick = Math.max(1, config.getInt("Zombie-Spawn-Limit-Per-Tick", 4));
+    arenaHibernationTime = Math.max(0, config.getInt("Arena-Hibernation-Time", 300));
+    stuckZombieCheckInterval = Math.max(1, config.getInt("Stuck-Zombies.Check-Interval", 20));
+    stuckZombieMinProgress = Math.max(0, config.getDouble("Stuck-Zombies.Min-Progress", 1.0));
+    arenaRegionMargin = Math.max(0, config.getDouble("Arena-Region-Margin", 32));
+    blockRestoreLimitPerTick = Math.max(1, config.getInt("Block-Restore-Limit-Per-Tick", 200));
+    statsFlushInterval = Math.max(1, config.getInt("Stats-Flush-Interval", 60));
+    statsStorage = config.getString("Stats-Storage", "FILE").toUpperCase();
+  }
+
+  /**
+   * Builds new snapshot from given config and replaces the current one.
+   *
+   * @param config loaded config.yml
+   * @return new settings snapshot
+   */
+  public static Settings reload(FileConfiguration config) {
+    Settings settings = new Settings(config);
+    current = settings;
+    return settings;
+  }
+
+  public static Settings get() {
+    return current;
+  }
+
+  public boolean isRespawnAfterWave() {
+    return respawnAfterWave;
+  }
+
+  public boolean isDisableLeaveCommand() {
+    return disableLeaveCommand;
+  }
+
+  public boolean isBlockCommandsInGame() {
+    return blockCommandsInGame;
+  }
+
+  public List<String> getWhitelistedCommands() {
+    return whitelistedCommands;
+  }
+
+  public int getStartingWaitingTime() {
+    return startingWaitingTime;
+  }
+
+  public int getOrbsStartingAmount() {
+    return orbsStartingAmount;
+  }
+
+  public boolean isRewardsEnabled() {
+    return rewardsEnabled;
+  }
+
+  public boolean isFireworkWhenGameEnds() {
+    return fireworkWhenGameEnds;
+  }
+
+  public boolean isSignsBlockStatesEnabled() {
+    return signsBlockStatesEnabled;
+  }
+
+  public boolean isGolemUpgradesEnabled() {
+    return golemUpgradesEnabled;
+  }
+
+  /**
+   * @param tier golem upgrade tier, from 1 to 3
+   * @return cost of given upgrade tier
+   */
+  public int getGolemUpgradeTierCost(int tier) {
+    return golemUpgradeTierCosts[tier - 1];
+  }
+
+  public int getGolemUpgradeHealCost() {
+    return golemUpgradeHealCost;
+  }
+
+  public int getWolvesSpawnLimit() {
+    return wolvesSpawnLimit;
+  }
+
+  public int getGolemsSpawnLimit() {
+    return golemsSpawnLimit;
+  }
+
+  public boolean isHealthBarEnabled() {
+    return healthBarEnabled;
+  }
+
+  public boolean isPowerupsEnabled() {
+    return powerupsEnabled;
+  }
+
+  public double getPowerupDropChance() {
+    return powerupDropChance;
+  }
+
+  public int getDoubleDamageTime() {
+    return doubleDamageTime;
+  }
+
+  public int getHealingTime() {
+    return healingTime;
+  }
+
+  public int getGolemRaidAmount() {
+    return golemRaidAmount;
+  }
+
+  public int getOneShotOneKillTime() {
+    return oneShotOneKillTime;
+  }
+
+  public int getZombieSpawnLimitPerTick() {
+    return zombieSpawnLimitPerTick;
+  }
+
+  /**
+   * @return seconds after which empty arena hibernates, 0 if hibernation is disabled
+   */
+  public int getArenaHibernationTime() {
+    return arenaHibernationTime;
+  }
+
+  /**
+   * @return seconds between two progress checks of the same zombie
+   */
+  public int getStuckZombieCheckInterval() {
+    return stuckZombieCheckInterval;
+  }
+
+  /**
+   * @return blocks zombie must get closer to nearest villager between checks to not be stuck
+   */
+  public double getStuckZombieMinProgress() {
+    return stuckZombieMinProgress;
+  }
+
+  /**
+   * @return blocks arena region computed from arena points is expanded by on every side
+   */
+  public double getArenaRegionMargin() {
+    return arenaRegionMargin;
+  }
+
+  /**
+   * @return maximum amount of changed arena blocks restored in one tick across all arenas
+   */
+  public int getBlockRestoreLimitPerTick() {
+    return blockRestoreLimitPerTick;
+  }
+
+  /**
+   * @return seconds between background saves of changed MySQL or SQLite statistics
+   */
+  public int getStatsFlushInterval() {
+    return statsFlushInterval;
+  }
+
+  /**
+   * @return statistics storage used when MySQL is disabled, FILE or SQLITE
+   */
+  public String getStatsStorage() {
+    return statsStorage;
+  }
+
+}
@@ -43,9 +43,7 @@ public class ShopManager {
 
   public ShopManager() {
     for (Arena a : ArenaRegistry.getArenas()) {
-      if (ConfigurationManager.getConfig("arenas").isSet("instances." + a.getID() + ".shop")) {
-        registerShop(a);
-      }
+      loadShop(a);
     }
   }
 
@@ -53,6 +51,19 @@ public class ShopManager {
     return arenaShop;
   }
 
+  /**
+   * Registers arena shop if shop location is set in arenas.yml
+   */
+  public static void loadShop(Arena a) {
+    if (ConfigurationManager.getConfig("arenas").isSet("instances." + a.getID() + ".shop")) {
+      registerShop(a);
+    }
+  }
+
+  public static void unregisterShop(Arena a) {
+    arenaShop.remove(a);
+  }
+
   public static void registerShop(Arena a) {
     Location location = Utils.getLocation(false, ConfigurationManager.getConfig("arenas").getString("instances." + a.getID() + ".shop"));
     if (!(location.getBlock().getState() instanceof Chest)) {
@@ -18,7 +18,6 @@
 
 package pl.plajer.villagedefense3.handlers;
 
-import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -45,7 +44,6 @@ import pl.plajer.villagedefense3.arena.ArenaManager;
 import pl.plajer.villagedefense3.arena.ArenaRegistry;
 import pl.plajer.villagedefense3.arena.ArenaState;
 import pl.plajer.villagedefense3.handlers.language.LanguageManager;
-import pl.plajer.villagedefense3.handlers.language.Locale;
 import pl.plajer.villagedefense3.utils.Utils;
 
 public class SignManager implements Listener {
@@ -54,22 +52,31 @@ public class SignManager implements Listener {
   private Map<Sign, Arena> loadedSigns = new HashMap<>();
   private Map<ArenaState, String> gameStateToString = new HashMap<>();
   private List<String> signLines;
+  //language catalog version sign messages were taken from
+  private int messagesVersion = -1;
 
   public SignManager(Main plugin) {
     this.plugin = plugin;
+    updateMessages();
+    plugin.getServer().getPluginManager().registerEvents(this, plugin);
+    loadSigns();
+    updateSignScheduler();
+  }
+
+  /**
+   * Takes sign messages from language again if it was reloaded since last update.
+   */
+  private void updateMessages() {
+    if (messagesVersion == LanguageManager.getCatalogVersion()) {
+      return;
+    }
+    messagesVersion = LanguageManager.getCatalogVersion();
     gameStateToString.put(ArenaState.WAITING_FOR_PLAYERS, ChatManager.colorMessage("Signs.Game-States.Inactive"));
     gameStateToString.put(ArenaState.STARTING, ChatManager.colorMessage("Signs.Game-States.Starting"));
     gameStateToString.put(ArenaState.IN_GAME, ChatManager.colorMessage("Signs.Game-States.In-Game"));
     gameStateToString.put(ArenaState.ENDING, ChatManager.colorMessage("Signs.Game-States.Ending"));
     gameStateToString.put(ArenaState.RESTARTING, ChatManager.colorMessage("Signs.Game-States.Restarting"));
-    if (LanguageManager.getPluginLocale() == Locale.ENGLISH) {
-      signLines = LanguageManager.getLanguageFile().getStringList("Signs.Lines");
-    } else {
-      signLines = Arrays.asList(ChatManager.colorMessage("Signs.Lines").split(";"));
-    }
-    plugin.getServer().getPluginManager().registerEvents(this, plugin);
-    loadSigns();
-    updateSignScheduler();
+    signLines = LanguageManager.getLanguageList("Signs.Lines");
   }
 
   @EventHandler
@@ -82,6 +89,7 @@ public class SignManager implements Listener {
       e.getPlayer().sendMessage(ChatManager.PLUGIN_PREFIX + ChatManager.colorMessage("Signs.Please-Type-Arena-Name"));
       return;
     }
+    updateMessages();
     for (Arena arena : ArenaRegistry.getArenas()) {
       if (arena.getID().equalsIgnoreCase(e.getLine(1))) {
         for (int i = 0; i < signLines.size(); i++) {
@@ -104,12 +112,12 @@ public class SignManager implements Listener {
   private String formatSign(String msg, Arena a) {
     String formatted = msg;
     formatted = StringUtils.replace(formatted, "%mapname%", a.getMapName());
-    if (a.getPlayers().size() >= a.getMaximumPlayers()) {
+    if (a.getPlayerSet().size() >= a.getMaximumPlayers()) {
       formatted = StringUtils.replace(formatted, "%state%", ChatManager.colorMessage("Signs.Game-States.Full-Game"));
     } else {
       formatted = StringUtils.replace(formatted, "%state%", gameStateToString.get(a.getArenaState()));
     }
-    formatted = StringUtils.replace(formatted, "%playersize%", String.valueOf(a.getPlayers().size()));
+    formatted = StringUtils.replace(formatted, "%playersize%", String.valueOf(a.getPlayerSet().size()));
     formatted = StringUtils.replace(formatted, "%maxplayers%", String.valueOf(a.getMaximumPlayers()));
     formatted = ChatManager.colorRawMessage(formatted);
     return formatted;
@@ -152,17 +160,17 @@ public class SignManager implements Listener {
         e.getPlayer().sendMessage(ChatManager.PLUGIN_PREFIX + ChatManager.colorMessage("In-Game.Already-Playing"));
         return;
       }
-      if (!(arena.getPlayers().size() >= arena.getMaximumPlayers())) {
+      if (!(arena.getPlayerSet().size() >= arena.getMaximumPlayers())) {
         ArenaManager.joinAttempt(e.getPlayer(), arena);
         return;
       }
       if (PermissionsManager.isPremium(e.getPlayer()) || e.getPlayer().hasPermission(PermissionsManager.getJoinFullGames())) {
-        for (Player player : arena.getPlayers()) {
+        for (Player player : arena.getPlayerSet()) {
           if (!PermissionsManager.isPremium(player) || !player.hasPermission(PermissionsManager.getJoinFullGames())) {
             if (arena.getArenaState() == ArenaState.STARTING || arena.getArenaState() == ArenaState.WAITING_FOR_PLAYERS) {
               ArenaManager.leaveAttempt(player, arena);
               player.sendMessage(ChatManager.PLUGIN_PREFIX + ChatManager.colorMessage("In-Game.Messages.Lobby-Messages.You-Were-Kicked-For-Premium-Slot"));
-              for (Player p : arena.getPlayers()) {
+              for (Player p : arena.getPlayerSet()) {
                 p.sendMessage(ChatManager.PLUGIN_PREFIX + ChatManager.formatMessage(arena, ChatManager.colorMessage("In-Game.Messages.Lobby-Messages.Kicked-For-Premium-Slot"), player));
               }
               ArenaManager.joinAttempt(e.getPlayer(), arena);
@@ -197,10 +205,11 @@ public class SignManager implements Listener {
   //todo data id!
   private void updateSignScheduler() {
     Bukkit.getScheduler().runTaskTimer(plugin, () -> {
+      updateMessages();
       for (Sign s : loadedSigns.keySet()) {
         for (int i = 0; i < signLines.size(); i++) {
           s.setLine(i, formatSign(signLines.get(i), loadedSigns.get(s)));
-          if (plugin.getConfig().getBoolean("Signs-Block-States-Enabled", true)) {
+          if (Settings.get().isSignsBlockStatesEnabled()) {
             if (s.getType() == Material.SIGN_POST || s.getType() == Material.WALL_SIGN) {
               Block behind = s.getBlock().getRelative(((org.bukkit.material.Sign) s.getData()).getAttachedFace());
               behind.setType(Material.STAINED_GLASS);
@@ -0,0 +1,169 @@
+/*
+ * Village Defense 3 - Protect villagers from hordes of zombies
+ * Copyright (C) 2018  Plajer's Lair - maintained by Plajer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.plajer.villagedefense3.handlers;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Measures time spent in phases of arena ticks.
+ * <p>
+ * Disabled by default, when disabled {@link #start()} returns 0 and {@link #stop(String, Phase, long)}
+ * returns immediately so instrumented code pays only for single boolean check.
+ * Samples are kept in rolling windows per arena and phase.
+ *
+ * @author Plajer
+ * <p>
+ * Created at 18.10.2018
+ */
+public class TickProfiler {
+
+  /**
+   * Key used for measurements not bound to single arena
+   */
+  public static final String GLOBAL = "global";
+  private static final int WINDOW_SIZE = 600;
+  private static final Map<String, Map<Phase, Histogram>> histograms = new LinkedHashMap<>();
+  private static boolean enabled = false;
+
+  private TickProfiler() {
+  }
+
+  public static boolean isEnabled() {
+    return enabled;
+  }
+
+  public static void setEnabled(boolean enabled) {
+    TickProfiler.enabled = enabled;
+  }
+
+  public static void reset() {
+    histograms.clear();
+  }
+
+  /**
+   * @return current nano time or 0 if profiler is disabled
+   */
+  public static long start() {
+    return enabled ? System.nanoTime() : 0;
+  }
+
+  /**
+   * Records phase measurement started with {@link #start()}.
+   *
+   * @param key   arena ID or {@link #GLOBAL}
+   * @param phase measured phase
+   * @param start value returned by {@link #start()}
+   */
+  public static void stop(String key, Phase phase, long start) {
+    if (start == 0 || !enabled) {
+      return;
+    }
+    long nanos = System.nanoTime() - start;
+    histograms.computeIfAbsent(key, k -> new EnumMap<>(Phase.class)).computeIfAbsent(phase, p -> new Histogram()).add(nanos);
+  }
+
+  /**
+   * Formats current measurements, one line per arena and phase.
+   *
+   * @return report lines
+   */
+  public static List<String> getReport() {
+    List<String> lines = new ArrayList<>();
+    for (Map.Entry<String, Map<Phase, Histogram>> entry : histograms.entrySet()) {
+      lines.add(entry.getKey() + ":");
+      for (Map.Entry<Phase, Histogram> phase : entry.getValue().entrySet()) {
+        Histogram histogram = phase.getValue();
+        long[] sorted = histogram.getSortedSamples();
+        lines.add("  " + phase.getKey().name() + ": samples " + histogram.count + ", p50 " + formatMillis(percentile(sorted, 0.5))
+                + ", p95 " + formatMillis(percentile(sorted, 0.95)) + ", max " + formatMillis(sorted.length == 0 ? 0 : sorted[sorted.length - 1])
+                + ", max ever " + formatMillis(histogram.maxEver));
+      }
+    }
+    return lines;
+  }
+
+  /**
+   * Writes report lines to timings file in plugin folder.
+   * Doesn't touch recorded samples so it can be called asynchronously.
+   *
+   * @param folder plugin data folder
+   * @param report report lines, see {@link #getReport()}
+   * @return created file
+   * @throws IOException if file couldn't be written
+   */
+  public static File dump(File folder, List<String> report) throws IOException {
+    File file = new File(folder, "timings-" + new SimpleDateFormat("yyyy-MM-dd_HH-mm-ss").format(new Date()) + ".txt");
+    List<String> lines = new ArrayList<>();
+    lines.add("Village Defense timings, " + new Date());
+    lines.add("Values are in milliseconds, percentiles and max are from last " + WINDOW_SIZE + " samples");
+    lines.addAll(report);
+    Files.write(file.toPath(), lines, StandardCharsets.UTF_8);
+    return file;
+  }
+
+  private static long percentile(long[] sorted, double percentile) {
+    if (sorted.length == 0) {
+      return 0;
+    }
+    int index = (int) Math.ceil(percentile * sorted.length) - 1;
+    return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+  }
+
+  private static String formatMillis(long nanos) {
+    return String.format("%.3fms", nanos / 1_000_000.0);
+  }
+
+  public enum Phase {
+    SCOREBOARD, BOSS_BAR, ZOMBIE_CHECKER, SPAWN, WIN_CHECK, ENDING, START_WAVE, END_WAVE, STOP_GAME, DOOR_BREAK
+  }
+
+  private static class Histogram {
+
+    private final long[] samples = new long[WINDOW_SIZE];
+    private long count;
+    private long maxEver;
+
+    void add(long nanos) {
+      samples[(int) (count % WINDOW_SIZE)] = nanos;
+      count++;
+      if (nanos > maxEver) {
+        maxEver = nanos;
+      }
+    }
+
+    long[] getSortedSamples() {
+      long[] sorted = Arrays.copyOf(samples, (int) Math.min(count, WINDOW_SIZE));
+      Arrays.sort(sorted);
+      return sorted;
+    }
+
+  }
+
+}
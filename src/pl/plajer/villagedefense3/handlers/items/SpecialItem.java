@@ -18,11 +18,9 @@
 
 package pl.plajer.villagedefense3.handlers.items;
 
-import java.io.IOException;
 import java.util.Arrays;
 import java.util.List;
 
-import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.Material;
 import org.bukkit.configuration.file.FileConfiguration;
@@ -30,7 +28,6 @@ import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.ItemMeta;
 
 import pl.plajer.villagedefense3.handlers.ConfigurationManager;
-import pl.plajer.villagedefense3.utils.MessageUtils;
 
 /**
  * Created by Tom on 5/02/2016.
@@ -66,14 +63,7 @@ public class SpecialItem {
       config.set(name + ".material", material.getId());
       config.set(name + ".slot", slot);
     }
-    try {
-      config.save(ConfigurationManager.getFile("lobbyitems"));
-    } catch (IOException e) {
-      e.printStackTrace();
-      MessageUtils.errorOccured();
-      Bukkit.getConsoleSender().sendMessage("Cannot save file lobbyitems.yml!");
-      Bukkit.getConsoleSender().sendMessage("Create blank file lobbyitems.yml or restart the server!");
-    }
+    ConfigurationManager.saveConfig(config, "lobbyitems");
     SpecialItem particleItem = new SpecialItem(name);
     particleItem.setData(config.getInt(name + ".data"));
     particleItem.setMaterial(Material.getMaterial(config.getInt(name + ".material")));
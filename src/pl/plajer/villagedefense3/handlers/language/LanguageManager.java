@@ -26,6 +26,12 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 
 import org.bukkit.Bukkit;
@@ -41,6 +47,8 @@ public class LanguageManager {
   private static Main plugin;
   private static Locale pluginLocale;
   private static Properties properties = new Properties();
+  //swapped as a whole on reload so readers never see half loaded catalog
+  private static volatile MessageCatalog catalog = MessageCatalog.EMPTY;
 
   public static void init(Main pl) {
     plugin = pl;
@@ -60,11 +68,46 @@ public class LanguageManager {
     if (pluginLocale == Locale.ENGLISH) {
       return;
     }
+    Properties loaded = new Properties();
     try {
-      properties.load(new InputStreamReader(plugin.getResource("locales/" + pluginLocale.getPrefix() + ".properties"), Charset.forName("UTF-8")));
+      loaded.load(new InputStreamReader(plugin.getResource("locales/" + pluginLocale.getPrefix() + ".properties"), Charset.forName("UTF-8")));
     } catch (IOException e) {
       e.printStackTrace();
     }
+    properties = loaded;
+  }
+
+  /**
+   * Reloads language.yml (or locale file) into memory.
+   * New catalog replaces the old one at once, messages requested meanwhile are served from the old one.
+   *
+   * @return amount of loaded messages
+   */
+  public static int reloadLanguage() {
+    loadProperties();
+    Map<String, String> messages = new HashMap<>();
+    Map<String, List<String>> lists = new HashMap<>();
+    if (pluginLocale == Locale.ENGLISH) {
+      FileConfiguration config = ConfigurationManager.reloadConfig("language");
+      for (String key : config.getKeys(true)) {
+        if (config.isList(key)) {
+          List<String> list = new ArrayList<>();
+          for (String line : config.getStringList(key)) {
+            list.add(ChatColor.translateAlternateColorCodes('&', line));
+          }
+          lists.put(key, Collections.unmodifiableList(list));
+        } else if (!config.isConfigurationSection(key)) {
+          messages.put(key, config.getString(key));
+        }
+      }
+    } else {
+      for (String key : properties.stringPropertyNames()) {
+        messages.put(key, properties.getProperty(key));
+      }
+    }
+    catalog = new MessageCatalog(messages, lists, catalog.version + 1);
+    Main.debug("Loaded " + messages.size() + " messages and " + lists.size() + " message lists for locale " + pluginLocale.getPrefix(), System.currentTimeMillis());
+    return messages.size() + lists.size();
   }
 
   private static void setupLocale() {
@@ -124,7 +167,7 @@ public class LanguageManager {
     }
     Bukkit.getConsoleSender().sendMessage(ChatColor.GREEN + "[Village Defense] Loaded locale " + pluginLocale.getFormattedName() + " ("
             + pluginLocale.getPrefix() + ") by " + pluginLocale.getAuthor());
-    loadProperties();
+    reloadLanguage();
   }
 
   private static void suggestLocale() {
@@ -190,21 +233,68 @@ public class LanguageManager {
   }
 
   public static String getLanguageMessage(String message) {
-    if (pluginLocale != Locale.ENGLISH) {
-      try {
-        return properties.getProperty(ChatColor.translateAlternateColorCodes('&', message));
-      } catch (NullPointerException ex) {
-        MessageUtils.errorOccured();
-        Bukkit.getConsoleSender().sendMessage("Game message not found!");
-        Bukkit.getConsoleSender().sendMessage("Please regenerate your language.yml file! If error still occurs report it to the developer!");
-        Bukkit.getConsoleSender().sendMessage("Access string: " + message);
-        return "ERR_MESSAGE_NOT_FOUND";
-      }
-    }
-    return ConfigurationManager.getConfig("language").getString(message);
+    return catalog.messages.get(message);
+  }
+
+  /**
+   * Get already colored message from loaded catalog.
+   *
+   * @param message access path of message
+   * @return colored message or null if not found
+   */
+  public static String getColoredLanguageMessage(String message) {
+    return catalog.coloredMessages.get(message);
+  }
+
+  /**
+   * Get colored multi line message.
+   * For English locale it's yaml list, for other locales lines are separated with ';'
+   *
+   * @param message access path of message
+   * @return unmodifiable list of colored lines
+   */
+  public static List<String> getLanguageList(String message) {
+    return catalog.lists.getOrDefault(message, Collections.emptyList());
+  }
+
+  /**
+   * Version of loaded messages, it changes on every language reload.
+   * Classes caching formatted messages compare it to know when to rebuild their cache.
+   *
+   * @return version of loaded messages
+   */
+  public static int getCatalogVersion() {
+    return catalog.version;
   }
 
   public static Locale getPluginLocale() {
     return pluginLocale;
   }
+  private static class MessageCatalog {
+
+    private static final MessageCatalog EMPTY = new MessageCatalog(Collections.emptyMap(), Collections.emptyMap(), 0);
+
+    private final Map<String, String> messages;
+    private final Map<String, String> coloredMessages;
+    private final Map<String, List<String>> lists;
+    private final int version;
+
+    private MessageCatalog(Map<String, String> messages, Map<String, List<String>> lists, int version) {
+      Map<String, String> colored = new HashMap<>();
+      Map<String, List<String>> allLists = new HashMap<>(lists);
+      for (Map.Entry<String, String> entry : messages.entrySet()) {
+        if (entry.getValue() != null) {
+          String coloredMessage = ChatColor.translateAlternateColorCodes('&', entry.getValue());
+          colored.put(entry.getKey(), coloredMessage);
+          //locale files have no lists, lines are separated with ';' and split once here
+          allLists.putIfAbsent(entry.getKey(), Collections.unmodifiableList(Arrays.asList(coloredMessage.split(";"))));
+        }
+      }
+      this.messages = Collections.unmodifiableMap(messages);
+      this.coloredMessages = Collections.unmodifiableMap(colored);
+      this.lists = Collections.unmodifiableMap(allLists);
+      this.version = version;
+    }
+  }
+
 }
@@ -41,7 +41,7 @@ import pl.plajer.villagedefense3.utils.MessageUtils;
  */
 public class LanguageMigrator {
 
-  public static final int LANGUAGE_FILE_VERSION = 8;
+  public static final int LANGUAGE_FILE_VERSION = 9;
   public static final int CONFIG_FILE_VERSION = 5;
   private static Main plugin = JavaPlugin.getPlugin(Main.class);
   private static List<String> migratable = Arrays.asList("bungee", "config", "kits", "language", "lobbyitems", "mysql");
@@ -168,9 +168,14 @@ public class LanguageMigrator {
                   "        - \"&c&lTotal coins spent: &7%orbs_spent%\"\r\n        - \"&a&m--------------------------------------------------\"\r\n" +
                   "      Summary-Players-Died: \"&7All players died!\"\r\n      Summary-Villagers-Died: \"&7All villagers died!\"");
           break;
+        case 8:
+          LanguageMigrator.insertAfterLine(file, "Arena-Not-Configured", "  Arena-Preparing: \"&cArena is being prepared, try again in a moment!\"");
+          break;
       }
       version++;
     }
+    //language.yml was changed bypassing cache
+    ConfigurationManager.invalidateAll();
     Bukkit.getConsoleSender().sendMessage(ChatColor.GREEN + "[Village Defense] [System notify] Language file updated! Nice!");
     Bukkit.getConsoleSender().sendMessage(ChatColor.GREEN + "[Village Defense] [System notify] You're using latest language file version! Nice!");
   }
@@ -185,6 +190,7 @@ public class LanguageMigrator {
         Bukkit.getConsoleSender().sendMessage(ChatColor.GREEN + "Renamed file " + file + ".yml");
       }
     }
+    ConfigurationManager.invalidateAll();
     Bukkit.getConsoleSender().sendMessage(ChatColor.GREEN + "Done! Enabling Village Defense 3...");
   }
 
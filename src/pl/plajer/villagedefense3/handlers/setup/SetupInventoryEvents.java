@@ -38,6 +38,7 @@ import org.bukkit.inventory.ItemStack;
 
 import pl.plajer.villagedefense3.Main;
 import pl.plajer.villagedefense3.arena.Arena;
+import pl.plajer.villagedefense3.arena.ArenaRegion;
 import pl.plajer.villagedefense3.arena.ArenaRegistry;
 import pl.plajer.villagedefense3.arena.initializers.ArenaInitializer1_10_R1;
 import pl.plajer.villagedefense3.arena.initializers.ArenaInitializer1_11_R1;
@@ -248,6 +249,11 @@ public class SetupInventoryEvents implements Listener {
       arena.setLobbyLocation(Utils.getLocation(false, ConfigurationManager.getConfig("arenas").getString("instances." + arena.getID() + ".lobbylocation")));
       arena.setStartLocation(Utils.getLocation(false, ConfigurationManager.getConfig("arenas").getString("instances." + arena.getID() + ".Startlocation")));
       arena.setEndLocation(Utils.getLocation(false, ConfigurationManager.getConfig("arenas").getString("instances." + arena.getID() + ".Endlocation")));
+      if (ConfigurationManager.getConfig("arenas").contains("instances." + arena.getID() + ".regionmin")
+              && ConfigurationManager.getConfig("arenas").contains("instances." + arena.getID() + ".regionmax")) {
+        arena.setRegion(new ArenaRegion(Utils.getLocation(false, ConfigurationManager.getConfig("arenas").getString("instances." + arena.getID() + ".regionmin")),
+                Utils.getLocation(false, ConfigurationManager.getConfig("arenas").getString("instances." + arena.getID() + ".regionmax"))));
+      }
       for (String string : ConfigurationManager.getConfig("arenas").getConfigurationSection("instances." + arena.getID() + ".zombiespawns").getKeys(false)) {
         String path = "instances." + arena.getID() + ".zombiespawns." + string;
         arena.addZombieSpawn(Utils.getLocation(false, ConfigurationManager.getConfig("arenas").getString(path)));
@@ -97,6 +97,7 @@ public class WorkerKit extends LevelKit implements Listener {
       return;
     }
     e.setCancelled(false);
+    arena.getBlockJournal().record(e.getBlockReplacedState());
     e.getPlayer().sendMessage(ChatManager.colorMessage("Kits.Worker.Game-Item-Place-Message"));
   }
 
@@ -24,6 +24,7 @@ import java.util.Random;
 import org.bukkit.Material;
 import org.bukkit.enchantments.Enchantment;
 import org.bukkit.entity.Player;
+import org.bukkit.entity.Zombie;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
 import org.bukkit.event.player.PlayerInteractEvent;
@@ -107,13 +108,13 @@ public class ZombieFinderKit extends LevelKit implements Listener {
       event.getPlayer().sendMessage(msgstring);
       return;
     }
-    if (arena.getZombies() == null || arena.getZombies().isEmpty() || arena.getZombies().size() <= 0) {
+    if (arena.getZombieSet() == null || arena.getZombieSet().isEmpty() || arena.getZombieSet().size() <= 0) {
       event.getPlayer().sendMessage(ChatManager.colorMessage("Kits.Zombie-Teleporter.No-Available-Zombies"));
       return;
     } else {
-      Integer rand = new Random().nextInt(arena.getZombies().size());
-      arena.getZombies().get(rand).teleport(event.getPlayer());
-      arena.getZombies().get(rand).addPotionEffect(new PotionEffect(PotionEffectType.WEAKNESS, 20 * 30, 1));
+      Zombie zombie = arena.getZombieSet().stream().skip(new Random().nextInt(arena.getZombieSet().size())).findFirst().get();
+      zombie.teleport(event.getPlayer());
+      zombie.addPotionEffect(new PotionEffect(PotionEffectType.WEAKNESS, 20 * 30, 1));
       event.getPlayer().sendMessage(ChatManager.colorMessage("Kits.Zombie-Teleporter.Zombie-Teleported"));
     }
     Utils.sendSound(event.getPlayer(), "ENTITY_ZOMBIE_DEATH", "ENTITY_ZOMBIE_DEATH");
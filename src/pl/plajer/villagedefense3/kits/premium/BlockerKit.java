@@ -38,6 +38,7 @@ import org.bukkit.inventory.meta.ItemMeta;
 import org.bukkit.scheduler.BukkitRunnable;
 
 import pl.plajer.villagedefense3.Main;
+import pl.plajer.villagedefense3.arena.Arena;
 import pl.plajer.villagedefense3.arena.ArenaRegistry;
 import pl.plajer.villagedefense3.handlers.ChatManager;
 import pl.plajer.villagedefense3.handlers.PermissionsManager;
@@ -147,6 +148,10 @@ public class BlockerKit extends PremiumKit implements Listener {
         }
       }
     }.runTaskTimer(plugin, 20, 20);
+    Arena arena = ArenaRegistry.getArena(player);
+    if (arena != null) {
+      arena.getBlockJournal().record(block);
+    }
     block.setType(Material.FENCE);
   }
 
@@ -104,19 +104,19 @@ public class CleanerKit extends PremiumKit implements Listener {
       e.getPlayer().sendMessage(msgstring);
       return;
     }
-    if (arena.getZombies() != null) {
-      for (Zombie zombie : arena.getZombies()) {
+    if (arena.getZombieSet() != null) {
+      for (Zombie zombie : arena.getZombieSet()) {
         zombie.getWorld().spawnParticle(Particle.LAVA, zombie.getLocation(), 20);
         zombie.remove();
       }
-      arena.getZombies().clear();
+      arena.clearZombies();
     } else {
       e.getPlayer().sendMessage(ChatManager.colorMessage("Kits.Cleaner.Nothing-To-Clean"));
       return;
     }
     Utils.sendSound(e.getPlayer(), "ENTITY_ZOMBIE_DEATH", "ENTITY_ZOMBIE_DEATH");
     String message = ChatManager.formatMessage(arena, ChatManager.colorMessage("Kits.Cleaner.Cleaned-Map"), e.getPlayer());
-    for (Player player1 : ArenaRegistry.getArena(e.getPlayer()).getPlayers()) {
+    for (Player player1 : ArenaRegistry.getArena(e.getPlayer()).getPlayerSet()) {
       player1.sendMessage(ChatManager.PLUGIN_PREFIX + message);
     }
     UserManager.getUser(e.getPlayer().getUniqueId()).setCooldown("clean", 180);
@@ -114,7 +114,7 @@ public class TeleporterKit extends PremiumKit implements Listener {
             inventory.addItem(skull);
           }
         }
-        for (Villager villager : arena.getVillagers()) {
+        for (Villager villager : arena.getVillagerSet()) {
           ItemStack villagerItem = new ItemStack(Material.EMERALD);
           this.setItemNameAndLore(villagerItem, villager.getCustomName(), new String[]{villager.getUniqueId().toString()});
           inventory.addItem(villagerItem);
@@ -137,7 +137,7 @@ public class TeleporterKit extends PremiumKit implements Listener {
       e.setCancelled(true);
       if ((e.isLeftClick() || e.isRightClick())) {
         if (e.getCurrentItem().getType() == Material.EMERALD) {
-          for (Villager villager : arena.getVillagers()) {
+          for (Villager villager : arena.getVillagerSet()) {
             if (villager.getCustomName() == null) {
               villager.remove();
             }
@@ -152,7 +152,7 @@ public class TeleporterKit extends PremiumKit implements Listener {
           p.sendMessage(ChatManager.colorMessage("Kits.Teleporter.Villager-Warning"));
         } else { /*if(e.getCurrentItem().getType() == Material.SKULL_ITEM || e.getCurrentItem().getType() == Material.SKULL)*/
           ItemMeta meta = e.getCurrentItem().getItemMeta();
-          for (Player player : arena.getPlayers()) {
+          for (Player player : arena.getPlayerSet()) {
             if (player.getName().equalsIgnoreCase(meta.getDisplayName()) || ChatColor.stripColor(meta.getDisplayName()).contains(player.getName())) {
               p.sendMessage(ChatManager.formatMessage(arena, ChatManager.colorMessage("Kits.Teleporter.Teleported-To-Player"), player));
               p.teleport(player);
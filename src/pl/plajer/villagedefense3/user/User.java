@@ -25,15 +25,17 @@ import java.util.UUID;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 import org.bukkit.plugin.java.JavaPlugin;
-import org.bukkit.scoreboard.Scoreboard;
 import org.bukkit.scoreboard.ScoreboardManager;
 
 import pl.plajer.villagedefense3.Main;
 import pl.plajer.villagedefense3.arena.Arena;
+import pl.plajer.villagedefense3.arena.ArenaBoard;
 import pl.plajer.villagedefense3.arena.ArenaRegistry;
 import pl.plajer.villagedefense3.database.FileStats;
+import pl.plajer.villagedefense3.handlers.ChatManager;
 import pl.plajer.villagedefense3.kits.kitapi.KitRegistry;
 import pl.plajer.villagedefense3.kits.kitapi.basekits.Kit;
+import pl.plajer.villagedefense3.villagedefenseapi.StatsStorage;
 import pl.plajer.villagedefense3.villagedefenseapi.VillagePlayerStatisticChangeEvent;
 
 /**
@@ -44,16 +46,18 @@ public class User {
   private static Main plugin = JavaPlugin.getPlugin(Main.class);
   private static long cooldownCounter = 0;
   private ScoreboardManager scoreboardManager = Bukkit.getScoreboardManager();
-  private Scoreboard scoreboard;
+  private ArenaBoard arenaBoard;
   private UUID uuid;
   private boolean fakeDead = false;
   private boolean spectator = false;
   private Kit kit = KitRegistry.getDefaultKit();
   private Map<String, Integer> ints = new HashMap<>();
   private Map<String, Long> cooldowns = new HashMap<>();
+  //bits of statistics changed since last save, indexed by StatisticType ordinal, only touched on main thread
+  private int changedStats = 0;
+  private volatile boolean statsLoaded = false;
 
   public User(UUID uuid) {
-    scoreboard = scoreboardManager.getNewScoreboard();
     this.uuid = uuid;
   }
 
@@ -74,7 +78,7 @@ public class User {
   }
 
   public Arena getArena() {
-    return ArenaRegistry.getArena(Bukkit.getPlayer(uuid));
+    return ArenaRegistry.getArena(uuid);
   }
 
   public boolean isFakeDead() {
@@ -82,7 +86,14 @@ public class User {
   }
 
   public void setFakeDead(boolean b) {
+    if (fakeDead == b) {
+      return;
+    }
     fakeDead = b;
+    Arena arena = getArena();
+    if (arena != null) {
+      arena.refreshRoster();
+    }
   }
 
   public Player toPlayer() {
@@ -107,12 +118,28 @@ public class User {
     return ints.get(s);
   }
 
+  /**
+   * @return in game sidebar of user, created on first access and kept until scoreboard is removed
+   */
+  public ArenaBoard getArenaBoard() {
+    if (arenaBoard == null) {
+      arenaBoard = new ArenaBoard("VD3", "board", ChatManager.colorMessage("Scoreboard.Title"));
+    }
+    return arenaBoard;
+  }
+
+  public boolean hasArenaBoard() {
+    return arenaBoard != null;
+  }
+
   public void removeScoreboard() {
+    arenaBoard = null;
     this.toPlayer().setScoreboard(scoreboardManager.getNewScoreboard());
   }
 
   public void setInt(String s, int i) {
     ints.put(s, i);
+    markChanged(s);
 
     //statistics manipulation events are called async when using mysql
     Bukkit.getScheduler().runTask(plugin, () -> {
@@ -123,6 +150,7 @@ public class User {
 
   public void addInt(String s, int i) {
     ints.put(s, getInt(s) + i);
+    markChanged(s);
 
     //statistics manipulation events are called async when using mysql
     Bukkit.getScheduler().runTask(plugin, () -> {
@@ -131,6 +159,54 @@ public class User {
     });
   }
 
+  private void markChanged(String s) {
+    StatsStorage.StatisticType statistic = FileStats.STATISTICS.get(s);
+    if (statistic != null) {
+      changedStats |= 1 << statistic.ordinal();
+    }
+  }
+
+  /**
+   * Returns statistics changed since last call and forgets them.
+   *
+   * @return bits of changed statistics indexed by {@link StatsStorage.StatisticType#ordinal()}
+   */
+  public int takeChangedStats() {
+    int changed = changedStats;
+    changedStats = 0;
+    return changed;
+  }
+
+  public boolean isStatsLoaded() {
+    return statsLoaded;
+  }
+
+  /**
+   * Marks statistics as loaded from database, loaded values aren't considered changed.
+   * Must be called on main thread, database threads use {@link #applyLoadedStats(int[])}.
+   */
+  public void setStatsLoaded(boolean statsLoaded) {
+    this.statsLoaded = statsLoaded;
+    changedStats = 0;
+  }
+
+  /**
+   * Applies statistics loaded from database and marks them loaded. When called from database thread
+   * values are applied on main thread, so statistics changed there are never lost or half overwritten.
+   *
+   * @param values loaded values indexed by {@link StatsStorage.StatisticType#ordinal()}
+   */
+  public void applyLoadedStats(int[] values) {
+    if (!Bukkit.isPrimaryThread()) {
+      Bukkit.getScheduler().runTask(plugin, () -> applyLoadedStats(values));
+      return;
+    }
+    for (StatsStorage.StatisticType statistic : StatsStorage.StatisticType.values()) {
+      setInt(statistic.getName(), values[statistic.ordinal()]);
+    }
+    setStatsLoaded(true);
+  }
+
   public void setCooldown(String s, int seconds) {
     cooldowns.put(s, seconds + cooldownCounter);
   }
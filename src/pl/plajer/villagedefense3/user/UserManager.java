@@ -51,7 +51,7 @@ public class UserManager {
 
   public static List<User> getUsers(Arena arena) {
     List<User> users = new ArrayList<>();
-    for (Player player : arena.getPlayers()) {
+    for (Player player : arena.getPlayerSet()) {
       users.add(getUser(player.getUniqueId()));
     }
     return users;
@@ -18,18 +18,12 @@
 
 package pl.plajer.villagedefense3.villagedefenseapi;
 
-import java.util.LinkedHashMap;
-import java.util.LinkedList;
-import java.util.List;
 import java.util.Map;
-import java.util.TreeMap;
 import java.util.UUID;
 
-import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.entity.Player;
 
 import pl.plajer.villagedefense3.Main;
-import pl.plajer.villagedefense3.handlers.ConfigurationManager;
 import pl.plajer.villagedefense3.user.UserManager;
 
 /**
@@ -42,17 +36,6 @@ public class StatsStorage {
 
   public static Main plugin;
 
-  private static Map sortByValue(Map unsortMap) {
-    List list = new LinkedList(unsortMap.entrySet());
-    list.sort((o1, o2) -> ((Comparable) ((Map.Entry) (o1)).getValue()).compareTo(((Map.Entry) (o2)).getValue()));
-    Map sortedMap = new LinkedHashMap();
-    for (Object aList : list) {
-      Map.Entry entry = (Map.Entry) aList;
-      sortedMap.put(entry.getKey(), entry.getValue());
-    }
-    return sortedMap;
-  }
-
   /**
    * Get all UUID's sorted ascending by Statistic Type
    *
@@ -61,16 +44,7 @@ public class StatsStorage {
    */
   public static Map<UUID, Integer> getStats(StatisticType stat) {
     Main.debug("Village API getStats(" + stat.getName() + ") run", System.currentTimeMillis());
-    if (plugin.isDatabaseActivated()) {
-      return plugin.getMySQLDatabase().getColumn(stat.getName());
-    } else {
-      FileConfiguration config = ConfigurationManager.getConfig("stats");
-      Map<UUID, Integer> stats = new TreeMap<>();
-      for (String string : config.getKeys(false)) {
-        stats.put(UUID.fromString(string), config.getInt(string + "." + stat.getName()));
-      }
-      return sortByValue(stats);
-    }
+    return plugin.getStatsBackend().getColumn(stat.getName());
   }
 
   /**